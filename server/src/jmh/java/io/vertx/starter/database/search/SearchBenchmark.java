@@ -0,0 +1,83 @@
+package io.vertx.starter.database.search;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of a ranked {@link SearchIndex} query over synthetic pages of a few hundred words, drawn from a vocabulary
+ * with a skewed distribution so that common terms have long posting lists.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SearchBenchmark {
+
+  private static final int VOCABULARY = 50_000;
+  private static final int WORDS_PER_PAGE = 300;
+
+  @Param({"100000"})
+  private int pages;
+
+  private SearchIndex index;
+  private String content;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    Random random = new Random(42);
+    index = new SearchIndex();
+    StringBuilder page = new StringBuilder();
+    for (int id = 0; id < pages; id++) {
+      page.setLength(0);
+      for (int i = 0; i < WORDS_PER_PAGE; i++) {
+        page.append(word(random)).append(' ');
+      }
+      index.put(id, "Page " + id, page.toString());
+    }
+    content = page.toString();
+  }
+
+  /**
+   * Word of rank n in the vocabulary, rank drawn with a roughly Zipfian distribution.
+   */
+  private static String word(Random random) {
+    int rank = (int) Math.pow(VOCABULARY, random.nextDouble());
+    return "w" + Integer.toString(rank, 36);
+  }
+
+  @Benchmark
+  public List<SearchIndex.Hit> commonTerm() {
+    return index.search("w2", 10);
+  }
+
+  @Benchmark
+  public List<SearchIndex.Hit> rareTerms() {
+    return index.search("w" + Integer.toString(20_000, 36) + " w" + Integer.toString(30_000, 36), 10);
+  }
+
+  @Benchmark
+  public List<SearchIndex.Hit> mixedTerms() {
+    return index.search("w3 w" + Integer.toString(500, 36) + " w" + Integer.toString(9_000, 36), 10);
+  }
+
+  @Benchmark
+  public String snippet() {
+    return SearchIndex.snippet(content, "w" + Integer.toString(500, 36));
+  }
+}
@@ -0,0 +1,78 @@
+package io.vertx.starter.http.auth;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.auth.KeyStoreOptions;
+import io.vertx.ext.auth.jwt.JWTAuth;
+import io.vertx.ext.auth.jwt.JWTAuthOptions;
+import io.vertx.ext.jwt.JWTOptions;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of authenticating one API request presenting a JWT signed with the wiki keystore: parsed and verified by the
+ * JWTAuth provider every time, or answered from the {@link VerifiedTokenCache} by a {@link CachingJWTAuth}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtVerificationBenchmark {
+
+  private Vertx vertx;
+  private JWTAuth jwtAuth;
+  private CachingJWTAuth cachingJwtAuth;
+  private JsonObject authInfo;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    vertx = Vertx.vertx();
+    jwtAuth = JWTAuth.create(vertx, new JWTAuthOptions()
+      .setKeyStore(new KeyStoreOptions()
+        .setPath("keystore.jceks")
+        .setType("jceks")
+        .setPassword("secret")));
+    cachingJwtAuth = new CachingJWTAuth(jwtAuth, new VerifiedTokenCache().init(new JsonObject()));
+
+    String token = jwtAuth.generateToken(new JsonObject().put("username", "foo"), new JWTOptions()
+      .setSubject("Wiki API")
+      .setIssuer("Vert.x")
+      .setExpiresInMinutes(60)
+      .setPermissions(Arrays.asList("create", "delete", "update")));
+    // As sent by JWTAuthHandler
+    authInfo = new JsonObject()
+      .put("jwt", token)
+      .put("options", new JsonObject());
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    vertx.close();
+  }
+
+  @Benchmark
+  public void verify(Blackhole blackhole) {
+    jwtAuth.authenticate(authInfo, ar -> blackhole.consume(ar.result()));
+  }
+
+  @Benchmark
+  public void cachedVerify(Blackhole blackhole) {
+    cachingJwtAuth.authenticate(authInfo, ar -> blackhole.consume(ar.result()));
+  }
+}
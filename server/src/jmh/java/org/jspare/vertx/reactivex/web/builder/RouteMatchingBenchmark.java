@@ -0,0 +1,211 @@
+package org.jspare.vertx.reactivex.web.builder;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.MultiMap;
+import io.vertx.core.http.CaseInsensitiveHeaders;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.auth.User;
+import io.vertx.reactivex.core.Vertx;
+import io.vertx.reactivex.ext.web.Route;
+import io.vertx.reactivex.ext.web.Router;
+import io.vertx.reactivex.ext.web.RoutingContext;
+import io.vertx.reactivex.ext.web.handler.AuthHandler;
+import org.jspare.vertx.web.builder.HandlerType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Proxy;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.jspare.vertx.web.handler.DefaultHandler.HANDLER_DATA;
+
+/**
+ * Cost of matching a request against routers holding a growing number of endpoints, registered as three routes per
+ * endpoint (auth route, HANDLER_DATA route and handler route, as HandlerWrapper used to) or as one route with a
+ * handler chain, or dispatched from a {@link TrieDispatcher}.
+ *
+ * The request targets the last registered endpoint, so every route in front of it is tested.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RouteMatchingBenchmark {
+
+  @Param({"10", "50", "200"})
+  public int endpoints;
+
+  private Vertx vertx;
+  private Router legacy;
+  private Router fused;
+  private Router trie;
+  private HttpServerRequest request;
+
+  public static class NoopHandler implements Handler<RoutingContext> {
+
+    public NoopHandler(HandlerData handlerData) {
+    }
+
+    @Override
+    public void handle(RoutingContext context) {
+      context.put("handled", true);
+    }
+  }
+
+  /**
+   * Auth handler letting every request through.
+   */
+  static class PassThroughAuthHandler implements io.vertx.ext.web.handler.AuthHandler {
+
+    @Override
+    public io.vertx.ext.web.handler.AuthHandler addAuthority(String authority) {
+      return this;
+    }
+
+    @Override
+    public io.vertx.ext.web.handler.AuthHandler addAuthorities(Set<String> authorities) {
+      return this;
+    }
+
+    @Override
+    public void parseCredentials(io.vertx.ext.web.RoutingContext context, Handler<AsyncResult<JsonObject>> handler) {
+      handler.handle(Future.succeededFuture(new JsonObject()));
+    }
+
+    @Override
+    public void authorize(User user, Handler<AsyncResult<Void>> handler) {
+      handler.handle(Future.succeededFuture());
+    }
+
+    @Override
+    public void handle(io.vertx.ext.web.RoutingContext context) {
+      context.next();
+    }
+  }
+
+  @Setup(Level.Trial)
+  public void setup() {
+    vertx = Vertx.vertx();
+    legacy = Router.router(vertx);
+    fused = Router.router(vertx);
+    trie = Router.router(vertx);
+    TrieDispatcher dispatcher = new TrieDispatcher();
+    AuthHandler auth = AuthHandler.newInstance(new PassThroughAuthHandler());
+
+    for (int i = 0; i < endpoints; i++) {
+      HandlerData data = new HandlerData()
+        .handlerType(HandlerType.HANDLER)
+        .routeHandlerClass(NoopHandler.class)
+        .order(Integer.MIN_VALUE)
+        .httpMethod("GET")
+        .path("/resource" + i + "/:id")
+        .authHandler(auth);
+      registerLegacy(legacy, data);
+      HandlerWrapper.prepareHandler(fused, data);
+      dispatcher.add(data);
+    }
+    dispatcher.register(trie.route());
+    request = fakeRequest("/resource" + (endpoints - 1) + "/42");
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    vertx.close();
+  }
+
+  private static void registerLegacy(Router router, HandlerData data) {
+    Route authRoute = HandlerWrapper.createRoute(router, data);
+    authRoute.handler(data.authHandler());
+    Route hdRegRoute = HandlerWrapper.createRoute(router, data);
+    Route route = HandlerWrapper.createRoute(router, data);
+    hdRegRoute.order(Integer.MIN_VALUE).handler(ctx -> {
+      ctx.put(HANDLER_DATA, data);
+      ctx.next();
+    });
+    route.handler(new NoopHandler(data));
+  }
+
+  private static HttpServerRequest fakeRequest(String path) {
+    MultiMap headers = new CaseInsensitiveHeaders();
+    MultiMap params = new CaseInsensitiveHeaders();
+    Object response = Proxy.newProxyInstance(RouteMatchingBenchmark.class.getClassLoader(),
+      new Class<?>[]{io.vertx.core.http.HttpServerResponse.class}, (proxy, method, args) -> {
+        if (method.getReturnType().isInstance(proxy)) {
+          return proxy;
+        }
+        if ("headers".equals(method.getName())) {
+          return new CaseInsensitiveHeaders();
+        }
+        return defaultValue(method.getReturnType());
+      });
+    return (HttpServerRequest) Proxy.newProxyInstance(RouteMatchingBenchmark.class.getClassLoader(),
+      new Class<?>[]{HttpServerRequest.class}, (proxy, method, args) -> {
+        switch (method.getName()) {
+          case "path":
+          case "uri":
+            return path;
+          case "method":
+            return HttpMethod.GET;
+          case "headers":
+            return headers;
+          case "params":
+            return params;
+          case "response":
+            return response;
+          case "getHeader":
+            return null;
+          default:
+            if (method.getReturnType().isInstance(proxy)) {
+              return proxy;
+            }
+            return defaultValue(method.getReturnType());
+        }
+      });
+  }
+
+  private static Object defaultValue(Class<?> type) {
+    if (type == boolean.class) {
+      return false;
+    }
+    if (type == int.class) {
+      return 0;
+    }
+    if (type == long.class) {
+      return 0L;
+    }
+    return null;
+  }
+
+  @Benchmark
+  public void threeRoutesPerEndpoint() {
+    legacy.getDelegate().accept(request);
+  }
+
+  @Benchmark
+  public void oneRoutePerEndpoint() {
+    fused.getDelegate().accept(request);
+  }
+
+  @Benchmark
+  public void trieDispatch() {
+    trie.getDelegate().accept(request);
+  }
+}
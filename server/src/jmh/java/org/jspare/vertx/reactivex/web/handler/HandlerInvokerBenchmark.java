@@ -0,0 +1,89 @@
+package org.jspare.vertx.reactivex.web.handler;
+
+import org.jspare.vertx.reactivex.web.builder.HandlerData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Compares the reflective dispatch previously done by {@link DefaultHandler} on every request (newInstance,
+ * getParameters walk, Method.invoke) with the {@link HandlerInvoker} compiled at router build time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HandlerInvokerBenchmark {
+
+  public static class SampleRoute {
+
+    public void handle(String page, Integer id, Blackhole blackhole) {
+      blackhole.consume(page);
+      blackhole.consume(id);
+    }
+  }
+
+  private Method method;
+  private HandlerInvoker invoker;
+  private Function<Blackhole, Object>[] resolvers;
+
+  @Setup
+  @SuppressWarnings("unchecked")
+  public void setup() throws Exception {
+    method = SampleRoute.class.getMethod("handle", String.class, Integer.class, Blackhole.class);
+    invoker = HandlerInvoker.compile(new HandlerData().clazz(SampleRoute.class).method(method));
+
+    Parameter[] parameters = method.getParameters();
+    resolvers = new Function[parameters.length];
+    for (int i = 0; i < parameters.length; i++) {
+      Parameter parameter = parameters[i];
+      resolvers[i] = blackhole -> resolve(parameter, blackhole);
+    }
+  }
+
+  private static Object resolve(Parameter parameter, Blackhole blackhole) {
+    if (parameter.getType().equals(String.class)) {
+      return "Home";
+    }
+    if (parameter.getType().equals(Integer.class)) {
+      return 42;
+    }
+    return blackhole;
+  }
+
+  @Benchmark
+  public void reflective(Blackhole blackhole) throws Exception {
+    Object instance = SampleRoute.class.newInstance();
+    Object[] parameters = new Object[method.getParameterCount()];
+    int i = 0;
+    for (Parameter parameter : method.getParameters()) {
+      parameters[i++] = resolve(parameter, blackhole);
+    }
+    method.invoke(instance, parameters);
+  }
+
+  @Benchmark
+  public void compiled(Blackhole blackhole) throws Throwable {
+    Object instance = invoker.newInstance();
+    Object[] parameters = new Object[resolvers.length];
+    for (int i = 0; i < resolvers.length; i++) {
+      parameters[i] = resolvers[i].apply(blackhole);
+    }
+    invoker.invoke(instance, parameters);
+  }
+}
@@ -0,0 +1,31 @@
+package io.vertx.starter;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Metrics of a Caffeine cache, as served by /api/metrics: {@code size}, {@code hits}, {@code misses},
+ * {@code hitRate} and {@code evictions}. Caches add their own fields to the returned object.
+ */
+public final class CacheMetrics {
+
+  private CacheMetrics() {
+  }
+
+  public static JsonObject toJson(Cache<?, ?> cache) {
+    return toJson(cache.estimatedSize(), cache.stats());
+  }
+
+  /**
+   * Metrics of stats counted, in part, outside of the cache.
+   */
+  public static JsonObject toJson(long size, CacheStats stats) {
+    return new JsonObject()
+      .put("size", size)
+      .put("hits", stats.hitCount())
+      .put("misses", stats.missCount())
+      .put("hitRate", stats.hitRate())
+      .put("evictions", stats.evictionCount());
+  }
+}
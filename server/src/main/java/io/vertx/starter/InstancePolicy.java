@@ -0,0 +1,64 @@
+package io.vertx.starter;
+
+import io.netty.util.concurrent.EventExecutor;
+import io.vertx.core.Vertx;
+import io.vertx.core.VertxOptions;
+import io.vertx.core.impl.VertxInternal;
+
+/**
+ * Number of verticle instances to deploy, from a config value:
+ * <ul>
+ *   <li>a fixed number, like <code>4</code> or <code>"4"</code>;</li>
+ *   <li><code>"auto"</code>, one instance per event-loop thread of the running Vert.x instance;</li>
+ *   <li>a multiple of the available cores, like <code>"1x"</code> or <code>"0.5x"</code>.</li>
+ * </ul>
+ */
+public final class InstancePolicy {
+
+  public static final String AUTO = "auto";
+
+  private InstancePolicy() {
+  }
+
+  public static int instances(Vertx vertx, Object value, int defaultInstances) {
+    if (value == null) {
+      return defaultInstances;
+    }
+    if (value instanceof Number) {
+      return atLeastOne(((Number) value).intValue());
+    }
+
+    String policy = value.toString().trim().toLowerCase();
+    if (AUTO.equals(policy)) {
+      return eventLoops(vertx);
+    }
+    try {
+      if (policy.endsWith("x")) {
+        double multiple = Double.parseDouble(policy.substring(0, policy.length() - 1));
+        return atLeastOne((int) Math.round(multiple * Runtime.getRuntime().availableProcessors()));
+      }
+      return atLeastOne(Integer.parseInt(policy));
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("Invalid instance policy [" + value + "], expected a number, "
+        + "\"auto\" or a multiple of cores like \"2x\"", e);
+    }
+  }
+
+  /**
+   * Event-loop threads of a running Vert.x instance, as set by its options.
+   */
+  public static int eventLoops(Vertx vertx) {
+    if (!(vertx instanceof VertxInternal)) {
+      return VertxOptions.DEFAULT_EVENT_LOOP_POOL_SIZE;
+    }
+    int eventLoops = 0;
+    for (EventExecutor ignored : ((VertxInternal) vertx).getEventLoopGroup()) {
+      eventLoops++;
+    }
+    return atLeastOne(eventLoops);
+  }
+
+  private static int atLeastOne(int instances) {
+    return Math.max(1, instances);
+  }
+}
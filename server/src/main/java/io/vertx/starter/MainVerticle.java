@@ -31,13 +31,21 @@ public class MainVerticle extends AbstractVerticle {
 
   private Single<String> deployDatabaseVerticle() {
     String deploymentName = "java-guice:" + WikiDatabaseVerticle.class.getName();
+    int instances = InstancePolicy.instances(vertx.getDelegate(),
+      config().getValue(WikiDatabaseVerticle.CONFIG_WIKIDB_INSTANCES), 1);
+
+    // Every instance has its own connection pool, they share the configured size
+    int maxPoolSize = config().getInteger(WikiDatabaseBinder.CONFIG_WIKIDB_JDBC_MAX_POOL_SIZE,
+      WikiDatabaseBinder.DEFAULT_WIKIDB_JDBC_MAX_POOL_SIZE);
     JsonObject config = JsonObject.mapFrom(config())
-      .put("guice_binder", WikiDatabaseBinder.class.getName());
+      .put("guice_binder", WikiDatabaseBinder.class.getName())
+      .put(WikiDatabaseBinder.CONFIG_WIKIDB_JDBC_MAX_POOL_SIZE, Math.max(1, maxPoolSize / instances));
 
     DeploymentOptions opts = new DeploymentOptions();
     opts.setConfig(config);
+    opts.setInstances(instances);
 
-    logger.debug("Deploy database verticle.");
+    logger.debug("Deploy database verticle, {} instances.", instances);
     return vertx.rxDeployVerticle(deploymentName, opts);
   }
 
@@ -47,7 +55,10 @@ public class MainVerticle extends AbstractVerticle {
     String deploymentName = JspareServerVerticle.class.getName();
 
     DeploymentOptions opts = new DeploymentOptions();
-    opts.setInstances(2);
+    opts.setConfig(config());
+    opts.setInstances(InstancePolicy.instances(vertx.getDelegate(),
+      config().getValue(JspareServerVerticle.CONFIG_HTTP_SERVER_INSTANCES),
+      InstancePolicy.eventLoops(vertx.getDelegate())));
 
     logger.debug("Deploy http verticle, config: " + opts.toJson().toString());
     return vertx.rxDeployVerticle(deploymentName, opts);
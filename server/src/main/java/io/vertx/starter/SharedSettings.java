@@ -0,0 +1,45 @@
+package io.vertx.starter;
+
+import io.vertx.core.json.JsonObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Settings of a singleton shared by the verticle instances of the JVM, such as a cache. The config of its first user
+ * is applied; a later config with other values for the same keys is ignored, with a warning.
+ */
+public final class SharedSettings {
+
+  private static final Logger logger = LoggerFactory.getLogger(SharedSettings.class);
+
+  private final Class<?> owner;
+  private final List<String> keys;
+  private JsonObject applied;
+
+  public SharedSettings(Class<?> owner, String... keys) {
+    this.owner = owner;
+    this.keys = Arrays.asList(keys);
+  }
+
+  /**
+   * Whether the caller is the first user, which applies {@code config}.
+   */
+  public synchronized boolean apply(JsonObject config) {
+    JsonObject settings = new JsonObject();
+    keys.stream()
+      .filter(config::containsKey)
+      .forEach(key -> settings.put(key, config.getValue(key)));
+    if (applied == null) {
+      applied = settings;
+      return true;
+    }
+    if (!applied.equals(settings)) {
+      logger.warn("{} is shared by the JVM and keeps the settings {} of its first user, ignoring {}",
+        owner.getSimpleName(), applied.encode(), settings.encode());
+    }
+    return false;
+  }
+}
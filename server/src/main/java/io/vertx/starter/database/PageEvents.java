@@ -0,0 +1,33 @@
+package io.vertx.starter.database;
+
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Events published by the database service after a page is written, so readers can drop what they cached. Each event
+ * carries the {@link #ORIGIN} of the database verticles that wrote it.
+ */
+public final class PageEvents {
+
+  public static final String ADDRESS = "wikidb.page.events";
+
+  public static final String ACTION = "action";
+  public static final String ORIGIN = "origin";
+  public static final String CREATED = "created";
+  public static final String SAVED = "saved";
+  public static final String DELETED = "deleted";
+
+  private PageEvents() {
+  }
+
+  public static JsonObject created(int id, String name) {
+    return new JsonObject().put(ACTION, CREATED).put("id", id).put("name", name);
+  }
+
+  public static JsonObject saved(int id) {
+    return new JsonObject().put(ACTION, SAVED).put("id", id);
+  }
+
+  public static JsonObject deleted(int id) {
+    return new JsonObject().put(ACTION, DELETED).put("id", id);
+  }
+}
@@ -0,0 +1,122 @@
+package io.vertx.starter.database;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Handler;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.streams.ReadStream;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Pages of the wiki as a read stream, fetched one keyset chunk at a time.
+ *
+ * The next chunk is only requested once the previous one was handed out and the stream is not paused, so at most one
+ * chunk is held in memory whatever the size of the table. Chunks come from a service method continuing after the last
+ * page read, such as {@link WikiDatabaseService#exportPages(int, int, Handler)}.
+ */
+public class PageReadStream implements ReadStream<JsonObject> {
+
+  /**
+   * Reads the pages following {@code last}, the last page of the previous chunk or null for the first one.
+   */
+  @FunctionalInterface
+  public interface ChunkSource {
+    void fetch(JsonObject last, int limit, Handler<AsyncResult<List<JsonObject>>> resultHandler);
+
+    /**
+     * Chunks of {@link WikiDatabaseService#exportPages(int, int, Handler)}, in id order.
+     */
+    static ChunkSource byId(WikiDatabaseService service) {
+      return (last, limit, resultHandler) ->
+        service.exportPages(last == null ? -1 : last.getInteger("id"), limit, resultHandler);
+    }
+  }
+
+  private final ChunkSource source;
+  private final int chunkSize;
+
+  private final Deque<JsonObject> chunk = new ArrayDeque<>();
+  private JsonObject last;
+  private boolean fetching;
+  private boolean exhausted;
+  private boolean ended;
+  private boolean paused;
+
+  private Handler<JsonObject> handler;
+  private Handler<Void> endHandler;
+  private Handler<Throwable> exceptionHandler;
+
+  public PageReadStream(ChunkSource source, int chunkSize) {
+    this.source = source;
+    this.chunkSize = chunkSize;
+  }
+
+  @Override
+  public PageReadStream exceptionHandler(Handler<Throwable> handler) {
+    this.exceptionHandler = handler;
+    return this;
+  }
+
+  @Override
+  public PageReadStream handler(Handler<JsonObject> handler) {
+    this.handler = handler;
+    if (handler != null) {
+      drain();
+    }
+    return this;
+  }
+
+  @Override
+  public PageReadStream pause() {
+    paused = true;
+    return this;
+  }
+
+  @Override
+  public PageReadStream resume() {
+    paused = false;
+    drain();
+    return this;
+  }
+
+  @Override
+  public PageReadStream endHandler(Handler<Void> endHandler) {
+    this.endHandler = endHandler;
+    return this;
+  }
+
+  private void drain() {
+    while (!paused && handler != null && !chunk.isEmpty()) {
+      JsonObject page = chunk.poll();
+      last = page;
+      handler.handle(page);
+    }
+    if (paused || handler == null || !chunk.isEmpty() || fetching || ended) {
+      return;
+    }
+    if (exhausted) {
+      ended = true;
+      if (endHandler != null) {
+        endHandler.handle(null);
+      }
+      return;
+    }
+    fetching = true;
+    source.fetch(last, chunkSize, ar -> {
+      fetching = false;
+      if (ar.failed()) {
+        ended = true;
+        if (exceptionHandler != null) {
+          exceptionHandler.handle(ar.cause());
+        }
+        return;
+      }
+      List<JsonObject> pages = ar.result();
+      exhausted = pages.size() < chunkSize;
+      chunk.addAll(pages);
+      drain();
+    });
+  }
+}
@@ -0,0 +1,234 @@
+package io.vertx.starter.database;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.vertx.core.json.JsonObject;
+import io.vertx.starter.CacheMetrics;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Page rows read by the database service, by id and by name, shared by the database verticles of the JVM.
+ *
+ * Entries are keyed by id, a second map resolves names to ids. Eviction is weighted by the chars of markdown and HTML
+ * (W-TinyLFU). Writes of this JVM go through the cache, writes of other JVMs reach it as {@link PageEvents} carrying
+ * their {@link #origin()}, which drop the entries of the page; entries expire after
+ * {@link #EXPIRE_AFTER_WRITE_MINUTES} in case an event is lost. A row read before a write or an invalidation is not
+ * cached, as for the http page cache.
+ */
+public final class PageRecordCache {
+
+  /**
+   * Maximum chars of cached markdown and HTML, about 32MB.
+   */
+  public static final long DEFAULT_MAXIMUM_WEIGHT = 16 * 1024 * 1024;
+
+  private static final long EXPIRE_AFTER_WRITE_MINUTES = 10;
+
+  private static final Map<String, PageRecordCache> CACHES = new HashMap<>();
+
+  private final String key;
+  private final String origin = UUID.randomUUID().toString();
+  private final Map<String, Integer> idByName = new ConcurrentHashMap<>();
+  private final Cache<Integer, Page> cache;
+
+  /**
+   * Incremented on every write and invalidation, so a row read before it is not cached.
+   */
+  private final AtomicLong generation = new AtomicLong();
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final AtomicBoolean rerenderClaimed = new AtomicBoolean();
+  private int references;
+
+  private PageRecordCache(String key, long maximumWeight) {
+    this.key = key;
+    this.cache = Caffeine.newBuilder()
+      .maximumWeight(maximumWeight)
+      .<Integer, Page>weigher((id, page) -> page.weight())
+      .expireAfterWrite(EXPIRE_AFTER_WRITE_MINUTES, TimeUnit.MINUTES)
+      .removalListener((Integer id, Page page, RemovalCause cause) -> {
+        if (page != null && cause != RemovalCause.REPLACED) {
+          idByName.remove(page.name, id);
+        }
+      })
+      .executor(Runnable::run)
+      .recordStats()
+      .build();
+  }
+
+  /**
+   * The cache of a database, created by its first user.
+   *
+   * @param key           the database, such as its JDBC url
+   * @param maximumWeight the maximum chars of cached markdown and HTML, taken from the first user
+   */
+  public static PageRecordCache acquire(String key, long maximumWeight) {
+    synchronized (CACHES) {
+      PageRecordCache cache = CACHES.computeIfAbsent(key, k -> new PageRecordCache(k, maximumWeight));
+      cache.references++;
+      return cache;
+    }
+  }
+
+  /**
+   * Gives the cache back, the last user drops it.
+   */
+  public void release() {
+    synchronized (CACHES) {
+      if (--references > 0) {
+        return;
+      }
+      CACHES.remove(key);
+    }
+    cache.invalidateAll();
+  }
+
+  /**
+   * Identifies the writes of this JVM in {@link PageEvents}.
+   */
+  String origin() {
+    return origin;
+  }
+
+  /**
+   * Whether the caller is the one to render the stale pages of the database again, once per cache: a database opened
+   * again after its last verticle stopped is checked again.
+   */
+  boolean claimRerender() {
+    return rerenderClaimed.compareAndSet(false, true);
+  }
+
+  long generation() {
+    return generation.get();
+  }
+
+  Page get(int id) {
+    return count(cache.getIfPresent(id));
+  }
+
+  Page get(String name) {
+    Integer id = idByName.get(name);
+    return count(id != null ? cache.getIfPresent(id) : null);
+  }
+
+  /**
+   * Caches a row read from the table, unless pages changed since {@code generation}.
+   */
+  void put(Page page, long generation) {
+    if (generation != this.generation.get()) {
+      return;
+    }
+    put0(page);
+    // A write or an invalidation on another event loop may have run before the row was inserted
+    if (generation != this.generation.get()) {
+      cache.asMap().remove(page.id, page);
+    }
+  }
+
+  /**
+   * Caches a row as just written by this JVM.
+   */
+  void written(Page page) {
+    generation.incrementAndGet();
+    put0(page);
+  }
+
+  /**
+   * Caches the new content of a page written by this JVM, when its row is cached; the name is not known otherwise.
+   */
+  void written(int id, String markdown, String html, int rendererVersion) {
+    generation.incrementAndGet();
+    Page page = cache.getIfPresent(id);
+    if (page != null) {
+      put0(new Page(id, page.name, markdown, html, rendererVersion));
+    }
+  }
+
+  void invalidate(int id) {
+    generation.incrementAndGet();
+    cache.invalidate(id);
+  }
+
+  void invalidate(String name) {
+    generation.incrementAndGet();
+    Integer id = idByName.remove(name);
+    if (id != null) {
+      cache.invalidate(id);
+    }
+  }
+
+  /**
+   * Drops the entries of the page of a {@link PageEvents} event written by another JVM.
+   */
+  public void onPageEvent(JsonObject event) {
+    if (origin.equals(event.getString(PageEvents.ORIGIN))) {
+      return;
+    }
+    if (event.containsKey("id")) {
+      invalidate(event.getInteger("id"));
+    }
+    if (event.containsKey("name")) {
+      invalidate(event.getString("name"));
+    }
+  }
+
+  JsonObject metrics() {
+    CacheStats stats = cache.stats();
+    return CacheMetrics.toJson(cache.estimatedSize(),
+      new CacheStats(hits.sum(), misses.sum(), 0, 0, 0, stats.evictionCount(), stats.evictionWeight()))
+      .put("weight", cache.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0L)).orElse(0L))
+      .put("evictedWeight", stats.evictionWeight())
+      .put("generation", generation.get());
+  }
+
+  private void put0(Page page) {
+    cache.put(page.id, page);
+    Integer previous = idByName.put(page.name, page.id);
+    if (previous != null && previous != page.id) {
+      // The name moved to another page, a deleted one is no longer served by name
+      cache.invalidate(previous);
+    }
+  }
+
+  /**
+   * Name lookups miss without reaching the cache when the name is not known, hits and misses are counted here.
+   */
+  private Page count(Page page) {
+    (page != null ? hits : misses).increment();
+    return page;
+  }
+
+  /**
+   * A row of the pages table.
+   */
+  static final class Page {
+
+    final int id;
+    final String name;
+    final String content;
+    final String html;
+    final Integer rendererVersion;
+
+    Page(int id, String name, String content, String html, Integer rendererVersion) {
+      this.id = id;
+      this.name = name;
+      this.content = content;
+      this.html = html;
+      this.rendererVersion = rendererVersion;
+    }
+
+    private int weight() {
+      return name.length() + (content != null ? content.length() : 0) + (html != null ? html.length() : 0);
+    }
+  }
+}
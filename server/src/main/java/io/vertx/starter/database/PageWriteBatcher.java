@@ -0,0 +1,256 @@
+package io.vertx.starter.database;
+
+import io.github.jklingsporn.vertx.jooq.rx.jdbc.JDBCRXGenericQueryExecutor;
+import io.reactivex.Completable;
+import io.reactivex.Observable;
+import io.reactivex.Single;
+import io.reactivex.SingleEmitter;
+import io.vertx.core.Vertx;
+import io.vertx.starter.markdown.Markdown;
+import org.jooq.BatchBindStep;
+import org.jooq.DSLContext;
+import org.jooq.impl.DSL;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static io.vertx.starter.database.WikiDatabaseServiceImpl.HTML;
+import static io.vertx.starter.database.WikiDatabaseServiceImpl.RENDERER_VERSION;
+import static io.vertx.starter.database.tables.Pages.PAGES;
+
+/**
+ * Groups the page writes of a service instance into JDBC batches.
+ *
+ * Writes arriving within the window, or until the batch is full, run as one insert batch and one update batch in a
+ * single transaction. Saves of a page already waiting in the batch are coalesced: the latest markdown is written once
+ * and every caller completes with it. Callers get the page as written. One batch runs at a time, so writes of a
+ * page keep their order. When a batch fails its writes run again one by one, each caller gets the outcome of its own
+ * write.
+ *
+ * Not thread safe, it is called from the event loop of the database verticle instance.
+ */
+class PageWriteBatcher {
+
+  private static final Logger logger = LoggerFactory.getLogger(PageWriteBatcher.class);
+
+  private final Vertx vertx;
+  private final JDBCRXGenericQueryExecutor queryExecutor;
+  private final long windowMs;
+  private final int maxSize;
+
+  private List<Write> pending = new ArrayList<>();
+  private Map<Integer, Write> pendingSaves = new HashMap<>();
+  private long timerId = -1;
+  private boolean flushing;
+
+  PageWriteBatcher(Vertx vertx, JDBCRXGenericQueryExecutor queryExecutor, long windowMs, int maxSize) {
+    this.vertx = vertx;
+    this.queryExecutor = queryExecutor;
+    this.windowMs = windowMs;
+    this.maxSize = Math.max(1, maxSize);
+  }
+
+  Single<Written> create(String name, String markdown) {
+    return Single.create(emitter -> add(new Write(null, name, markdown), emitter));
+  }
+
+  Single<Written> save(int id, String markdown) {
+    return Single.create(emitter -> {
+      Write write = pendingSaves.get(id);
+      if (write != null) {
+        write.markdown = markdown;
+        write.callers.add(emitter);
+        return;
+      }
+      write = new Write(id, null, markdown);
+      pendingSaves.put(id, write);
+      add(write, emitter);
+    });
+  }
+
+  private void add(Write write, SingleEmitter<Written> emitter) {
+    write.callers.add(emitter);
+    pending.add(write);
+    if (windowMs <= 0 || pending.size() >= maxSize) {
+      flush();
+    } else if (timerId < 0) {
+      timerId = vertx.setTimer(windowMs, id -> {
+        timerId = -1;
+        flush();
+      });
+    }
+  }
+
+  private void flush() {
+    if (flushing || pending.isEmpty()) {
+      return;
+    }
+    if (timerId >= 0) {
+      vertx.cancelTimer(timerId);
+      timerId = -1;
+    }
+    List<Write> batch = pending;
+    pending = new ArrayList<>();
+    pendingSaves = new HashMap<>();
+    flushing = true;
+
+    queryExecutor.execute(dslContext -> {
+      dslContext.transaction(configuration -> executeBatch(DSL.using(configuration), batch));
+      return batch.size();
+    }).toCompletable()
+      .doOnComplete(() -> batch.forEach(Write::complete))
+      .onErrorResumeNext(t -> {
+        if (batch.size() > 1) {
+          logger.warn("Batch of {} page writes failed, writing them one by one", batch.size(), t);
+        }
+        return Observable.fromIterable(batch).concatMapCompletable(this::executeOne);
+      })
+      .subscribe(this::flushed, t -> flushed());
+  }
+
+  private void flushed() {
+    flushing = false;
+    // The writes queued during the batch already waited for it, they go right away
+    flush();
+  }
+
+  private Completable executeOne(Write write) {
+    return queryExecutor.execute(dslContext -> {
+      String html = Markdown.toHtml(write.markdown);
+      write.html = html;
+      if (write.id == null) {
+        dslContext.insertInto(PAGES)
+          .set(PAGES.NAME, write.name)
+          .set(PAGES.CONTENT, write.markdown)
+          .set(HTML, html)
+          .set(RENDERER_VERSION, Markdown.VERSION)
+          .execute();
+        write.pageId = dslContext.select(PAGES.ID).from(PAGES).where(PAGES.NAME.eq(write.name)).fetchOne(PAGES.ID);
+        return write.pageId;
+      }
+      return dslContext.update(PAGES)
+        .set(PAGES.CONTENT, write.markdown)
+        .set(HTML, html)
+        .set(RENDERER_VERSION, Markdown.VERSION)
+        .where(PAGES.ID.eq(write.id))
+        .execute();
+    }).toCompletable()
+      .doOnComplete(write::complete)
+      .doOnError(write::fail)
+      .onErrorComplete();
+  }
+
+  private static void executeBatch(DSLContext dslContext, List<Write> batch) {
+    BatchBindStep inserts = null;
+    BatchBindStep updates = null;
+    for (Write write : batch) {
+      String html = Markdown.toHtml(write.markdown);
+      write.html = html;
+      if (write.id == null) {
+        if (inserts == null) {
+          inserts = insertBatch(dslContext);
+        }
+        inserts.bind(write.name, write.markdown, html, Markdown.VERSION);
+      } else {
+        if (updates == null) {
+          updates = updateBatch(dslContext);
+        }
+        updates.bind(write.markdown, html, Markdown.VERSION, write.id);
+      }
+    }
+    if (inserts != null) {
+      inserts.execute();
+      Map<String, Integer> ids = createdIds(dslContext, batch.stream()
+        .filter(write -> write.id == null)
+        .map(write -> write.name)
+        .collect(Collectors.toList()));
+      batch.stream().filter(write -> write.id == null).forEach(write -> write.pageId = ids.get(write.name));
+    }
+    if (updates != null) {
+      updates.execute();
+    }
+  }
+
+  /**
+   * Ids of pages just inserted, a JDBC batch does not hand back generated keys.
+   */
+  static Map<String, Integer> createdIds(DSLContext dslContext, Collection<String> names) {
+    return dslContext.select(PAGES.NAME, PAGES.ID)
+      .from(PAGES)
+      .where(PAGES.NAME.in(names))
+      .fetchMap(PAGES.NAME, PAGES.ID);
+  }
+
+  /**
+   * Page insert batch, bound with name, markdown, html and renderer version.
+   */
+  static BatchBindStep insertBatch(DSLContext dslContext) {
+    return dslContext.batch(dslContext.insertInto(PAGES)
+      .set(PAGES.NAME, (String) null)
+      .set(PAGES.CONTENT, (String) null)
+      .set(HTML, (String) null)
+      .set(RENDERER_VERSION, (Integer) null));
+  }
+
+  /**
+   * Page update batch, bound with markdown, html, renderer version and id.
+   */
+  static BatchBindStep updateBatch(DSLContext dslContext) {
+    return dslContext.batch(dslContext.update(PAGES)
+      .set(PAGES.CONTENT, (String) null)
+      .set(HTML, (String) null)
+      .set(RENDERER_VERSION, (Integer) null)
+      .where(PAGES.ID.eq(DSL.param("id", PAGES.ID.getDataType()))));
+  }
+
+  /**
+   * A page as written by a batch, the HTML rendered with {@link Markdown#VERSION}.
+   */
+  static final class Written {
+
+    final int pageId;
+    final String markdown;
+    final String html;
+
+    private Written(int pageId, String markdown, String html) {
+      this.pageId = pageId;
+      this.markdown = markdown;
+      this.html = html;
+    }
+  }
+
+  /**
+   * A pending insert (no id) or update, with the callers waiting for it.
+   */
+  private static final class Write {
+
+    final Integer id;
+    final String name;
+    String markdown;
+    Integer pageId;
+    String html;
+    final List<SingleEmitter<Written>> callers = new ArrayList<>(1);
+
+    Write(Integer id, String name, String markdown) {
+      this.id = id;
+      this.name = name;
+      this.markdown = markdown;
+      this.pageId = id;
+    }
+
+    void complete() {
+      Written written = new Written(pageId, markdown, html);
+      callers.forEach(caller -> caller.onSuccess(written));
+    }
+
+    void fail(Throwable t) {
+      callers.forEach(caller -> caller.onError(t));
+    }
+  }
+}
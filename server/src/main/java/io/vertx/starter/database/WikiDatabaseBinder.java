@@ -26,6 +26,7 @@ public class WikiDatabaseBinder extends AbstractModule {
   public static final String CONFIG_WIKIDB_JDBC_URL = "wikidb.jdbc.url";
   public static final String CONFIG_WIKIDB_JDBC_DRIVER_CLASS = "wikidb.jdbc.driver_class";
   public static final String CONFIG_WIKIDB_JDBC_MAX_POOL_SIZE = "wikidb.jdbc.max_pool_size";
+  public static final int DEFAULT_WIKIDB_JDBC_MAX_POOL_SIZE = 30;
 
   @Override
   protected void configure() {
@@ -37,7 +38,7 @@ public class WikiDatabaseBinder extends AbstractModule {
     HikariConfig dsConfig= new HikariConfig();
     dsConfig.setJdbcUrl(config.getString(CONFIG_WIKIDB_JDBC_URL, "jdbc:hsqldb:file:db/wiki"));
     dsConfig.setDriverClassName(config.getString(CONFIG_WIKIDB_JDBC_DRIVER_CLASS, "org.hsqldb.jdbc.JDBCDriver"));
-    dsConfig.setMaximumPoolSize(config.getInteger(CONFIG_WIKIDB_JDBC_MAX_POOL_SIZE, 30));
+    dsConfig.setMaximumPoolSize(config.getInteger(CONFIG_WIKIDB_JDBC_MAX_POOL_SIZE, DEFAULT_WIKIDB_JDBC_MAX_POOL_SIZE));
     return new HikariDataSource(dsConfig);
   }
 
@@ -11,6 +11,7 @@ import io.vertx.core.Vertx;
 import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 import io.vertx.reactivex.ext.jdbc.JDBCClient;
+import io.vertx.starter.database.search.SearchIndexStore;
 import io.vertx.starter.database.tables.daos.PagesDao;
 
 import java.util.HashMap;
@@ -21,8 +22,8 @@ import java.util.List;
 public interface WikiDatabaseService {
 
   @GenIgnore
-  static WikiDatabaseService create(JDBCRXGenericQueryExecutor queryExecutor, PagesDao pagesDao, JDBCClient dbClient, HashMap<SqlQuery, String> sqlQueries, Handler<AsyncResult<WikiDatabaseService>> readyHandler) {
-    return new WikiDatabaseServiceImpl(queryExecutor, pagesDao, dbClient, sqlQueries, readyHandler);
+  static WikiDatabaseService create(Vertx vertx, JDBCRXGenericQueryExecutor queryExecutor, PagesDao pagesDao, JDBCClient dbClient, HashMap<SqlQuery, String> sqlQueries, SearchIndexStore searchStore, PageRecordCache recordCache, Handler<AsyncResult<WikiDatabaseService>> readyHandler) {
+    return new WikiDatabaseServiceImpl(vertx, queryExecutor, pagesDao, dbClient, sqlQueries, searchStore, recordCache, readyHandler);
   }
 
   @GenIgnore
@@ -33,6 +34,17 @@ public interface WikiDatabaseService {
   @Fluent
   WikiDatabaseService fetchAllPages(Handler<AsyncResult<JsonArray>> resultHandler);
 
+  /**
+   * Reads the id and name of pages in name order, without their content.
+   *
+   * @param prefix only pages whose name starts with it, all pages when null or empty
+   * @param afterName the last name of the previous chunk, null for the first one
+   * @param limit the maximum number of pages, 0 for all of them
+   * @param resultHandler pages with their {@code id} and {@code name}
+   */
+  @Fluent
+  WikiDatabaseService fetchPageNames(String prefix, String afterName, int limit, Handler<AsyncResult<List<JsonObject>>> resultHandler);
+
   @Fluent
   WikiDatabaseService fetchPage(String name, Handler<AsyncResult<JsonObject>> resultHandler);
 
@@ -51,4 +63,49 @@ public interface WikiDatabaseService {
   @Fluent
   WikiDatabaseService fetchAllPagesData(Handler<AsyncResult<List<JsonObject>>> resultHandler);
 
+  /**
+   * Creates or overwrites pages by name, as JDBC batches in one transaction.
+   *
+   * @param pages pages with a {@code name} and a {@code markdown}
+   * @param resultHandler the number of pages {@code created} and {@code updated}
+   */
+  @Fluent
+  WikiDatabaseService importPages(List<JsonObject> pages, Handler<AsyncResult<JsonObject>> resultHandler);
+
+  /**
+   * Full-text search of the page contents, best matches first.
+   *
+   * @param query words to look for, pages matching any of them are ranked
+   * @param limit the maximum number of pages
+   * @param resultHandler pages with their {@code id}, {@code name}, {@code score} and a {@code snippet} of content
+   */
+  @Fluent
+  WikiDatabaseService search(String query, int limit, Handler<AsyncResult<List<JsonObject>>> resultHandler);
+
+  /**
+   * Page names starting with a prefix, ignoring case, from memory rather than from the table.
+   *
+   * @param prefix the start of the names, empty for the first names
+   * @param limit the maximum number of names
+   * @param resultHandler the names in case-insensitive order
+   */
+  @Fluent
+  WikiDatabaseService suggestPageNames(String prefix, int limit, Handler<AsyncResult<List<String>>> resultHandler);
+
+  /**
+   * Size, hit ratio and evictions of the page row cache of the JVM answering.
+   */
+  @Fluent
+  WikiDatabaseService fetchPageCacheMetrics(Handler<AsyncResult<JsonObject>> resultHandler);
+
+  /**
+   * Reads pages in id order, for exports walking the table one chunk at a time.
+   *
+   * @param afterId the last id of the previous chunk, -1 for the first one (ids start at 0)
+   * @param limit the maximum number of pages
+   * @param resultHandler pages with their {@code id}, {@code name} and {@code markdown}
+   */
+  @Fluent
+  WikiDatabaseService exportPages(int afterId, int limit, Handler<AsyncResult<List<JsonObject>>> resultHandler);
+
 }
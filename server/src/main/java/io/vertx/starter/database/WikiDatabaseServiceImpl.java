@@ -1,26 +1,43 @@
 package io.vertx.starter.database;
 
 import io.github.jklingsporn.vertx.jooq.rx.jdbc.JDBCRXGenericQueryExecutor;
-import io.reactivex.Observable;
 import io.reactivex.Single;
 import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
 import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
 import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 import io.vertx.reactivex.CompletableHelper;
 import io.vertx.reactivex.SingleHelper;
 import io.vertx.reactivex.ext.jdbc.JDBCClient;
 import io.vertx.reactivex.ext.sql.SQLConnection;
+import io.vertx.starter.database.search.PageNameIndex;
+import io.vertx.starter.database.search.SearchIndex;
+import io.vertx.starter.database.search.SearchIndexStore;
 import io.vertx.starter.database.tables.daos.PagesDao;
 import io.vertx.starter.database.tables.interfaces.IPages;
-import io.vertx.starter.database.tables.pojos.Pages;
+import io.vertx.starter.markdown.Markdown;
+import org.jooq.BatchBindStep;
+import org.jooq.Condition;
+import org.jooq.DSLContext;
+import org.jooq.Field;
+import org.jooq.Record;
 import org.jooq.Record1;
+import org.jooq.Record2;
+import org.jooq.Record3;
+import org.jooq.SelectSeekStep1;
+import org.jooq.Table;
 import org.jooq.impl.DSL;
+import org.jooq.impl.SQLDataType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 import static io.vertx.starter.database.tables.Pages.PAGES;
@@ -28,33 +45,247 @@ import static io.vertx.starter.database.tables.Pages.PAGES;
 class WikiDatabaseServiceImpl implements WikiDatabaseService {
 
   private static final Logger logger = LoggerFactory.getLogger(WikiDatabaseServiceImpl.class);
+
+  /**
+   * HTML rendered from CONTENT at write time, addressed by name so it does not depend on the generated classes.
+   */
+  static final Field<String> HTML = DSL.field(DSL.name("HTML"), SQLDataType.CLOB);
+
+  /**
+   * {@link Markdown#VERSION} the HTML column was rendered with.
+   */
+  static final Field<Integer> RENDERER_VERSION = DSL.field(DSL.name("RENDERER_VERSION"), SQLDataType.INTEGER);
+
+  private static final int RERENDER_BATCH_SIZE = 50;
+  private static final int INDEX_BATCH_SIZE = 500;
+
   private final HashMap<SqlQuery, String> sqlQueries;
   private final JDBCClient dbClient;
   private final JDBCRXGenericQueryExecutor queryExecutor;
   private final PagesDao pagesDao;
+  private final Vertx vertx;
+  private final PageWriteBatcher writeBatcher;
+  private final SearchIndexStore searchStore;
+  private final SearchIndex searchIndex;
+  private final PageNameIndex pageNames;
+  private final PageRecordCache recordCache;
 
-
-  WikiDatabaseServiceImpl(JDBCRXGenericQueryExecutor queryExecutor, PagesDao pagesDao, JDBCClient dbClient, HashMap<SqlQuery, String> sqlQueries, Handler<AsyncResult<WikiDatabaseService>> readyHandler) {
+  WikiDatabaseServiceImpl(Vertx vertx, JDBCRXGenericQueryExecutor queryExecutor, PagesDao pagesDao, JDBCClient dbClient, HashMap<SqlQuery, String> sqlQueries, SearchIndexStore searchStore, PageRecordCache recordCache, Handler<AsyncResult<WikiDatabaseService>> readyHandler) {
+    this.vertx = vertx;
+    this.recordCache = recordCache;
+    this.searchStore = searchStore;
+    this.searchIndex = searchStore.index();
+    this.pageNames = searchStore.names();
     this.dbClient = dbClient;
     this.sqlQueries = sqlQueries;
     this.queryExecutor = queryExecutor;
     this.pagesDao = pagesDao;
 
+    // Created on the context of the database verticle, its config holds the write batch settings
+    JsonObject config = vertx.getOrCreateContext().config();
+    this.writeBatcher = new PageWriteBatcher(vertx, queryExecutor,
+      config.getLong(WikiDatabaseVerticle.CONFIG_WIKIDB_WRITE_BATCH_WINDOW_MS, 5L),
+      config.getInteger(WikiDatabaseVerticle.CONFIG_WIKIDB_WRITE_BATCH_MAX_SIZE, 100));
+
+    // Writes of the other nodes of a cluster, the instances of this JVM share the caches and indexes they write through
+    vertx.eventBus().<JsonObject>consumer(PageEvents.ADDRESS, msg -> onPageEvent(msg.body()));
+
     queryExecutor.execute(dslContext ->
       dslContext
         .createTableIfNotExists(PAGES)
         .column(PAGES.ID)
         .column(PAGES.NAME)
         .column(PAGES.CONTENT)
+        .column(HTML)
+        .column(RENDERER_VERSION)
         .constraints(
           DSL.constraint().primaryKey(PAGES.ID),
           DSL.constraint().unique(PAGES.NAME)
         )
         .execute()
-    ).map(v -> this)
+    ).flatMap(v -> queryExecutor.execute(this::addRenderedColumns))
+    .flatMap(v -> loadPageNames())
+    .map(v -> this)
+    .doOnSuccess(v -> {
+      // Every database verticle instance shares the table, one re-render job per database is enough
+      if (recordCache.claimRerender()) {
+        rerenderStalePages();
+      }
+      if (searchStore.claimRebuild()) {
+        logger.info("Indexing the pages for search");
+        searchIndex.beginRebuild();
+        indexPages(-1);
+      }
+    })
     .subscribe(SingleHelper.toObserver(readyHandler));
   }
 
+  /**
+   * Adds the rendered HTML columns to a table created before they existed.
+   */
+  private int addRenderedColumns(DSLContext dslContext) {
+    Table<?> table = dslContext.meta().getTables().stream()
+      .filter(t -> PAGES.getName().equalsIgnoreCase(t.getName()))
+      .findFirst()
+      .orElse(null);
+    if (table == null) {
+      return 0;
+    }
+    int added = 0;
+    if (table.field(HTML.getName()) == null) {
+      added += dslContext.alterTable(PAGES).addColumn(HTML, HTML.getDataType()).execute();
+    }
+    if (table.field(RENDERER_VERSION.getName()) == null) {
+      added += dslContext.alterTable(PAGES).addColumn(RENDERER_VERSION, RENDERER_VERSION.getDataType()).execute();
+    }
+    return added;
+  }
+
+  /**
+   * Loads the page names for suggestions, once per JVM. Names only, the content column is not read.
+   */
+  private Single<Integer> loadPageNames() {
+    if (!searchStore.claimNames()) {
+      return Single.just(pageNames.size());
+    }
+    pageNames.beginRebuild();
+    return queryExecutor.execute(dslContext ->
+      dslContext.select(PAGES.ID, PAGES.NAME)
+        .from(PAGES)
+        .fetchMap(PAGES.ID, PAGES.NAME)
+    ).map(names -> {
+      pageNames.endRebuild(names);
+      logger.info("Loaded {} page names for suggestions", pageNames.size());
+      return pageNames.size();
+    });
+  }
+
+  /**
+   * Renders again, in batches, the pages stored without HTML or with HTML of another renderer version. A page saved
+   * in the meantime already has the current version and is left alone.
+   */
+  private void rerenderStalePages() {
+    queryExecutor.execute(dslContext -> {
+      List<Record3<Integer, String, Integer>> stale = dslContext
+        .select(PAGES.ID, PAGES.CONTENT, RENDERER_VERSION)
+        .from(PAGES)
+        .where(RENDERER_VERSION.isNull().or(RENDERER_VERSION.ne(Markdown.VERSION)))
+        .limit(RERENDER_BATCH_SIZE)
+        .fetch();
+      for (Record3<Integer, String, Integer> page : stale) {
+        dslContext.update(PAGES)
+          .set(HTML, Markdown.toHtml(page.value2()))
+          .set(RENDERER_VERSION, Markdown.VERSION)
+          .where(PAGES.ID.eq(page.value1()))
+          .and(page.value3() == null ? RENDERER_VERSION.isNull() : RENDERER_VERSION.eq(page.value3()))
+          .execute();
+        recordCache.invalidate(page.value1());
+      }
+      return stale.size();
+    }).subscribe(count -> {
+      if (count > 0) {
+        logger.info("Rendered {} pages with markdown renderer version {}", count, Markdown.VERSION);
+      }
+      if (count == RERENDER_BATCH_SIZE) {
+        rerenderStalePages();
+      }
+    }, t -> logger.error("Could not render the stored pages again", t));
+  }
+
+  /**
+   * Indexes the pages of the table for search, one chunk at a time after the given id.
+   */
+  private void indexPages(int afterId) {
+    queryExecutor.execute(dslContext -> {
+      List<Record3<Integer, String, String>> pages = dslContext
+        .select(PAGES.ID, PAGES.NAME, PAGES.CONTENT)
+        .from(PAGES)
+        .where(PAGES.ID.gt(afterId))
+        .orderBy(PAGES.ID)
+        .limit(INDEX_BATCH_SIZE)
+        .fetch();
+      pages.forEach(page -> searchIndex.putIfAbsent(page.value1(), page.value2(), page.value3()));
+      return pages.isEmpty() ? afterId : pages.get(pages.size() - 1).value1();
+    }).subscribe(lastId -> {
+      if (lastId != afterId) {
+        indexPages(lastId);
+        return;
+      }
+      searchIndex.endRebuild();
+      logger.info("Indexed {} pages for search", searchIndex.size());
+      vertx.executeBlocking(future -> {
+        searchStore.snapshot();
+        future.complete();
+      }, false, null);
+    }, t -> {
+      searchIndex.endRebuild();
+      logger.error("Could not index the pages for search", t);
+    });
+  }
+
+  private static PageRecordCache.Page toCachedPage(Record record) {
+    return new PageRecordCache.Page(record.get(PAGES.ID), record.get(PAGES.NAME), record.get(PAGES.CONTENT),
+      record.get(HTML), record.get(RENDERER_VERSION));
+  }
+
+  /**
+   * Page payload of one row. The HTML is left out when it was rendered by another renderer version, so callers
+   * render the markdown themselves until the re-render job catches up.
+   */
+  private static JsonObject toPage(PageRecordCache.Page record, boolean withName) {
+    JsonObject page = new JsonObject()
+      .put("found", true)
+      .put("id", record.id);
+    if (withName) {
+      page.put("name", record.name);
+    }
+    page.put("rawContent", record.content);
+    Integer version = record.rendererVersion;
+    if (version != null && version == Markdown.VERSION) {
+      page.put("html", record.html);
+    }
+    return page;
+  }
+
+  private void publish(JsonObject event) {
+    vertx.eventBus().publish(PageEvents.ADDRESS, event.put(PageEvents.ORIGIN, recordCache.origin()));
+  }
+
+  /**
+   * Applies a write of another JVM to the record cache and, in one instance of this JVM, to the search and name
+   * indexes. The page is read again rather than carried by the event, so the indexes get the row as it is now.
+   */
+  private void onPageEvent(JsonObject event) {
+    if (recordCache.origin().equals(event.getString(PageEvents.ORIGIN))) {
+      return;
+    }
+    recordCache.onPageEvent(event);
+    Integer id = event.getInteger("id");
+    if (id == null || !searchStore.claimRemoteWrites(this)) {
+      return;
+    }
+    if (PageEvents.DELETED.equals(event.getString(PageEvents.ACTION))) {
+      searchIndex.remove(id);
+      pageNames.remove(id);
+      return;
+    }
+    queryExecutor.execute(dslContext ->
+      dslContext.select(PAGES.NAME, PAGES.CONTENT)
+        .from(PAGES)
+        .where(PAGES.ID.eq(id))
+        .fetchOptional()
+    ).subscribe(page -> {
+      if (page.isPresent()) {
+        searchIndex.put(id, page.get().value1(), page.get().value2());
+        pageNames.put(id, page.get().value1());
+      } else {
+        // Deleted since, its event follows
+        searchIndex.remove(id);
+        pageNames.remove(id);
+      }
+    }, t -> logger.error("Could not index page " + id + " written by another node", t));
+  }
+
   private Single<SQLConnection> getConnection() {
     return dbClient.rxGetConnection().flatMap(conn -> {
       Single<SQLConnection> connectionSingle = Single.just(conn);
@@ -64,34 +295,62 @@ class WikiDatabaseServiceImpl implements WikiDatabaseService {
 
   @Override
   public WikiDatabaseService fetchAllPages(Handler<AsyncResult<JsonArray>> resultHandler) {
-      queryExecutor.execute(dslContext ->
-        dslContext.select(PAGES.NAME)
-          .from(PAGES)
-          .fetch()
-      )
-        .flatMapObservable(Observable::fromIterable)
-        .map(Record1::value1)
-        .sorted()
-        .collect(JsonArray::new, JsonArray::add)
-        .subscribe(SingleHelper.toObserver(resultHandler));
+    queryExecutor.execute(dslContext ->
+      dslContext.select(PAGES.NAME)
+        .from(PAGES)
+        .orderBy(PAGES.NAME)
+        .fetch(Record1::value1)
+    ).map(JsonArray::new)
+      .subscribe(SingleHelper.toObserver(resultHandler));
+
+    return this;
+  }
+
+  @Override
+  public WikiDatabaseService fetchPageNames(String prefix, String afterName, int limit, Handler<AsyncResult<List<JsonObject>>> resultHandler) {
+    // Range conditions rather than LIKE, so the scan stays on the NAME unique index
+    Condition condition = DSL.trueCondition();
+    if (prefix != null && !prefix.isEmpty()) {
+      condition = condition.and(PAGES.NAME.ge(prefix)).and(PAGES.NAME.lt(prefix + Character.MAX_VALUE));
+    }
+    if (afterName != null) {
+      condition = condition.and(PAGES.NAME.gt(afterName));
+    }
+    Condition where = condition;
+    queryExecutor.execute(dslContext -> {
+      SelectSeekStep1<Record2<Integer, String>, String> query = dslContext.select(PAGES.ID, PAGES.NAME)
+        .from(PAGES)
+        .where(where)
+        .orderBy(PAGES.NAME);
+      return (limit > 0 ? query.limit(limit) : query).fetch(record -> new JsonObject()
+        .put("id", record.value1())
+        .put("name", record.value2()));
+    }).subscribe(SingleHelper.toObserver(resultHandler));
 
     return this;
   }
 
   @Override
   public WikiDatabaseService fetchPage(String name, Handler<AsyncResult<JsonObject>> resultHandler) {
-    pagesDao.findOneByName(name)
-      .map(record -> {
-        if (record.isPresent()) {
-          Pages pages = record.get();
-          return new JsonObject()
-            .put("found", true)
-            .put("id", pages.getId())
-            .put("rawContent", pages.getContent());
-          } else {
-            return new JsonObject().put("found", false);
-          }
-      })
+    PageRecordCache.Page cached = recordCache.get(name);
+    if (cached != null) {
+      resultHandler.handle(Future.succeededFuture(toPage(cached, false)));
+      return this;
+    }
+    long generation = recordCache.generation();
+    queryExecutor.execute(dslContext ->
+      dslContext.select(PAGES.ID, PAGES.NAME, PAGES.CONTENT, HTML, RENDERER_VERSION)
+        .from(PAGES)
+        .where(PAGES.NAME.eq(name))
+        .fetchOptional()
+    )
+      .map(record -> record
+        .map(WikiDatabaseServiceImpl::toCachedPage)
+        .map(page -> {
+          recordCache.put(page, generation);
+          return toPage(page, false);
+        })
+        .orElseGet(() -> new JsonObject().put("found", false)))
       .subscribe(SingleHelper.toObserver(resultHandler));
 
     return this;
@@ -99,19 +358,25 @@ class WikiDatabaseServiceImpl implements WikiDatabaseService {
 
   @Override
   public WikiDatabaseService fetchPageById(int id, Handler<AsyncResult<JsonObject>> resultHandler) {
-    pagesDao.findOneById(id)
-      .map(record -> {
-        if (record.isPresent()) {
-          Pages pages = record.get();
-          return new JsonObject()
-            .put("found", true)
-            .put("id", pages.getId())
-            .put("name", pages.getName())
-            .put("rawContent", pages.getContent());
-          } else {
-            return new JsonObject().put("found", false);
-          }
-      })
+    PageRecordCache.Page cached = recordCache.get(id);
+    if (cached != null) {
+      resultHandler.handle(Future.succeededFuture(toPage(cached, true)));
+      return this;
+    }
+    long generation = recordCache.generation();
+    queryExecutor.execute(dslContext ->
+      dslContext.select(PAGES.ID, PAGES.NAME, PAGES.CONTENT, HTML, RENDERER_VERSION)
+        .from(PAGES)
+        .where(PAGES.ID.eq(id))
+        .fetchOptional()
+    )
+      .map(record -> record
+        .map(WikiDatabaseServiceImpl::toCachedPage)
+        .map(page -> {
+          recordCache.put(page, generation);
+          return toPage(page, true);
+        })
+        .orElseGet(() -> new JsonObject().put("found", false)))
       .subscribe(SingleHelper.toObserver(resultHandler));
 
     return this;
@@ -119,10 +384,15 @@ class WikiDatabaseServiceImpl implements WikiDatabaseService {
 
   @Override
   public WikiDatabaseService createPage(String title, String markdown, Handler<AsyncResult<Void>> resultHandler) {
-    Pages pages = new Pages()
-      .setName(title)
-      .setContent(markdown);
-    pagesDao.insert(pages).toCompletable()
+    writeBatcher.create(title, markdown)
+      .doOnSuccess(written -> {
+        recordCache.written(new PageRecordCache.Page(written.pageId, title, written.markdown, written.html,
+          Markdown.VERSION));
+        searchIndex.put(written.pageId, title, written.markdown);
+        pageNames.put(written.pageId, title);
+      })
+      .doOnSuccess(written -> publish(PageEvents.created(written.pageId, title)))
+      .toCompletable()
       .subscribe(CompletableHelper.toObserver(resultHandler));
 
     return this;
@@ -130,12 +400,13 @@ class WikiDatabaseServiceImpl implements WikiDatabaseService {
 
   @Override
   public WikiDatabaseService savePage(int id, String markdown, Handler<AsyncResult<Void>> resultHandler) {
-    queryExecutor.execute(dslContext ->
-      dslContext.update(PAGES)
-        .set(PAGES.CONTENT, markdown)
-        .where(PAGES.ID.eq(id))
-        .execute()
-    ).toCompletable()
+    writeBatcher.save(id, markdown)
+      .doOnSuccess(written -> {
+        recordCache.written(id, written.markdown, written.html, Markdown.VERSION);
+        searchIndex.update(id, written.markdown);
+      })
+      .doOnSuccess(written -> publish(PageEvents.saved(id)))
+      .toCompletable()
       .subscribe(CompletableHelper.toObserver(resultHandler));
 
     return this;
@@ -144,6 +415,12 @@ class WikiDatabaseServiceImpl implements WikiDatabaseService {
   @Override
   public WikiDatabaseService deletePage(int id, Handler<AsyncResult<Void>> resultHandler) {
     pagesDao.deleteById(id).toCompletable()
+      .doOnComplete(() -> {
+        recordCache.invalidate(id);
+        searchIndex.remove(id);
+        pageNames.remove(id);
+        publish(PageEvents.deleted(id));
+      })
       .subscribe(CompletableHelper.toObserver(resultHandler));
 
     return this;
@@ -160,4 +437,123 @@ class WikiDatabaseServiceImpl implements WikiDatabaseService {
     return this;
   }
 
+  @Override
+  public WikiDatabaseService importPages(List<JsonObject> pages, Handler<AsyncResult<JsonObject>> resultHandler) {
+    // Later pages of the same name win, as if they were imported one after the other
+    Map<String, String> markdownByName = new LinkedHashMap<>();
+    for (JsonObject page : pages) {
+      String name = page.getString("name");
+      String markdown = page.getString("markdown");
+      if (name == null || markdown == null) {
+        resultHandler.handle(Future.failedFuture("Imported pages need a name and markdown"));
+        return this;
+      }
+      markdownByName.put(name, markdown);
+    }
+    if (markdownByName.isEmpty()) {
+      resultHandler.handle(Future.succeededFuture(new JsonObject().put("created", 0).put("updated", 0)));
+      return this;
+    }
+
+    Map<String, Integer> created = new HashMap<>();
+    Map<String, Integer> updated = new HashMap<>();
+    queryExecutor.execute(dslContext -> {
+      dslContext.transaction(configuration -> {
+        DSLContext transaction = DSL.using(configuration);
+        Map<String, Integer> existing = transaction.select(PAGES.NAME, PAGES.ID)
+          .from(PAGES)
+          .where(PAGES.NAME.in(markdownByName.keySet()))
+          .fetchMap(PAGES.NAME, PAGES.ID);
+        BatchBindStep inserts = PageWriteBatcher.insertBatch(transaction);
+        BatchBindStep updates = PageWriteBatcher.updateBatch(transaction);
+        markdownByName.forEach((name, markdown) -> {
+          String html = Markdown.toHtml(markdown);
+          Integer id = existing.get(name);
+          if (id == null) {
+            inserts.bind(name, markdown, html, Markdown.VERSION);
+            created.put(name, null);
+          } else {
+            updates.bind(markdown, html, Markdown.VERSION, id);
+            updated.put(name, id);
+          }
+        });
+        if (!created.isEmpty()) {
+          inserts.execute();
+          created.putAll(PageWriteBatcher.createdIds(transaction, created.keySet()));
+        }
+        if (!updated.isEmpty()) {
+          updates.execute();
+        }
+      });
+      return new JsonObject().put("created", created.size()).put("updated", updated.size());
+    }).doOnSuccess(result -> {
+      created.forEach((name, id) -> {
+        recordCache.invalidate(name);
+        searchIndex.put(id, name, markdownByName.get(name));
+        pageNames.put(id, name);
+        publish(PageEvents.created(id, name));
+      });
+      updated.forEach((name, id) -> {
+        recordCache.invalidate(id);
+        searchIndex.put(id, name, markdownByName.get(name));
+        publish(PageEvents.saved(id));
+      });
+    }).subscribe(SingleHelper.toObserver(resultHandler));
+
+    return this;
+  }
+
+  @Override
+  public WikiDatabaseService search(String query, int limit, Handler<AsyncResult<List<JsonObject>>> resultHandler) {
+    List<SearchIndex.Hit> hits = searchIndex.search(query, limit);
+    if (hits.isEmpty()) {
+      resultHandler.handle(Future.succeededFuture(new ArrayList<>()));
+      return this;
+    }
+    // Snippets come from the content of the few pages found, the index does not keep it
+    queryExecutor.execute(dslContext ->
+      dslContext.select(PAGES.ID, PAGES.CONTENT)
+        .from(PAGES)
+        .where(PAGES.ID.in(hits.stream().map(SearchIndex.Hit::pageId).collect(Collectors.toList())))
+        .fetchMap(PAGES.ID, PAGES.CONTENT)
+    ).map(contents -> hits.stream()
+      .filter(hit -> contents.containsKey(hit.pageId()))
+      .map(hit -> hit.toJson().put("snippet", SearchIndex.snippet(contents.get(hit.pageId()), query)))
+      .collect(Collectors.toList())
+    ).subscribe(SingleHelper.toObserver(resultHandler));
+
+    return this;
+  }
+
+  @Override
+  public WikiDatabaseService suggestPageNames(String prefix, int limit, Handler<AsyncResult<List<String>>> resultHandler) {
+    resultHandler.handle(Future.succeededFuture(pageNames.suggest(prefix, limit)));
+
+    return this;
+  }
+
+  @Override
+  public WikiDatabaseService fetchPageCacheMetrics(Handler<AsyncResult<JsonObject>> resultHandler) {
+    resultHandler.handle(Future.succeededFuture(recordCache.metrics()));
+
+    return this;
+  }
+
+  @Override
+  public WikiDatabaseService exportPages(int afterId, int limit, Handler<AsyncResult<List<JsonObject>>> resultHandler) {
+    queryExecutor.execute(dslContext ->
+      dslContext.select(PAGES.ID, PAGES.NAME, PAGES.CONTENT)
+        .from(PAGES)
+        .where(PAGES.ID.gt(afterId))
+        .orderBy(PAGES.ID)
+        .limit(limit)
+        .fetch(record -> new JsonObject()
+          .put("id", record.value1())
+          .put("name", record.value2())
+          .put("markdown", record.value3()))
+    ).subscribe(SingleHelper.toObserver(resultHandler));
+
+    return this;
+  }
+
 }
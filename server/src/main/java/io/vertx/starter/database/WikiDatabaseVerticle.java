@@ -7,11 +7,14 @@ import io.vertx.core.Future;
 import io.vertx.reactivex.ext.jdbc.JDBCClient;
 import io.vertx.serviceproxy.ProxyHelper;
 import io.vertx.serviceproxy.ServiceBinder;
+import io.vertx.starter.database.search.SearchIndexStore;
 import io.vertx.starter.database.tables.daos.PagesDao;
 
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.HashMap;
 import java.util.Properties;
 
@@ -19,6 +22,14 @@ public class WikiDatabaseVerticle extends AbstractVerticle {
 
   public static final String CONFIG_WIKIDB_SQL_QUERIES_RESOURCE_FILE = "wikidb.sqlqueries.resource.file";
   public static final String CONFIG_WIKIDB_QUEUE = "wikidb.queue";
+  public static final String CONFIG_WIKIDB_INSTANCES = "wikidb.instances";
+  public static final String CONFIG_WIKIDB_WRITE_BATCH_WINDOW_MS = "wikidb.write_batch.window_ms";
+  public static final String CONFIG_WIKIDB_WRITE_BATCH_MAX_SIZE = "wikidb.write_batch.max_size";
+  public static final String CONFIG_WIKIDB_SEARCH_PATH = "wikidb.search.path";
+  public static final String CONFIG_WIKIDB_SEARCH_SNAPSHOT_INTERVAL_MS = "wikidb.search.snapshot_interval_ms";
+  public static final String CONFIG_WIKIDB_PAGE_CACHE_MAX_WEIGHT = "wikidb.page_cache.max_weight";
+
+  private static final String HSQLDB_FILE_URL = "jdbc:hsqldb:file:";
 
   @Inject
   private JDBCClient dbClient;
@@ -31,13 +42,31 @@ public class WikiDatabaseVerticle extends AbstractVerticle {
 
   private final HashMap<SqlQuery, String> sqlQueries = new HashMap<>();
 
+  private SearchIndexStore searchStore;
+
+  private PageRecordCache recordCache;
+
+  private WikiDatabaseService service;
+
   @Override
   public void start(Future<Void> startFuture) throws Exception {
 
     HashMap<SqlQuery, String> sqlQueries = loadSqlQueries();
 
-    WikiDatabaseService.create(queryExecutor, pagesDao, dbClient, sqlQueries, ready -> {
+    String jdbcUrl = config().getString(WikiDatabaseBinder.CONFIG_WIKIDB_JDBC_URL, "jdbc:hsqldb:file:db/wiki");
+    searchStore = SearchIndexStore.acquire(jdbcUrl, searchIndexPath(jdbcUrl));
+    vertx.setPeriodic(config().getLong(CONFIG_WIKIDB_SEARCH_SNAPSHOT_INTERVAL_MS, 60_000L), id ->
+      vertx.executeBlocking(future -> {
+        searchStore.snapshot();
+        future.complete();
+      }, false, null));
+
+    recordCache = PageRecordCache.acquire(jdbcUrl,
+      config().getLong(CONFIG_WIKIDB_PAGE_CACHE_MAX_WEIGHT, PageRecordCache.DEFAULT_MAXIMUM_WEIGHT));
+    WikiDatabaseService.create(vertx, queryExecutor, pagesDao, dbClient, sqlQueries, searchStore, recordCache, ready -> {
       if (ready.succeeded()) {
+        service = ready.result();
+        // Instances register on the same address, the event bus round-robins between them
         ProxyHelper.registerService(WikiDatabaseService.class, vertx, ready.result(), CONFIG_WIKIDB_QUEUE);
         startFuture.complete();
       } else {
@@ -46,6 +75,34 @@ public class WikiDatabaseVerticle extends AbstractVerticle {
     });
   }
 
+  @Override
+  public void stop(Future<Void> stopFuture) {
+    recordCache.release();
+    if (service != null) {
+      searchStore.releaseRemoteWrites(service);
+    }
+    vertx.executeBlocking(future -> {
+      searchStore.release();
+      future.complete();
+    }, stopFuture);
+  }
+
+  /**
+   * The search index file next to the database files, none for in-memory databases.
+   */
+  private Path searchIndexPath(String jdbcUrl) {
+    String path = config().getString(CONFIG_WIKIDB_SEARCH_PATH);
+    if (path != null) {
+      return Paths.get(path);
+    }
+    if (!jdbcUrl.startsWith(HSQLDB_FILE_URL)) {
+      return null;
+    }
+    String database = jdbcUrl.substring(HSQLDB_FILE_URL.length());
+    int options = database.indexOf(';');
+    return Paths.get((options < 0 ? database : database.substring(0, options)) + ".search");
+  }
+
   /*
    * Note: this uses blocking APIs, but data is small...
    */
@@ -0,0 +1,220 @@
+package io.vertx.starter.database.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Page names in case-insensitive order, for name suggestions.
+ *
+ * The names are held in sorted arrays, a flattened prefix tree: the names of a prefix are one contiguous range, found
+ * by a binary search and read in order. Lookups take a read lock, the rare creates and deletes shift the arrays.
+ */
+public final class PageNameIndex {
+
+  private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+  /**
+   * Lowercased names, sorted, ties broken by the name.
+   */
+  private String[] keys = new String[64];
+  private String[] names = new String[64];
+  private int size;
+  private final Map<Integer, String> nameById = new HashMap<>();
+
+  private Set<Integer> removedWhileRebuilding;
+
+  public void put(int pageId, String name) {
+    lock.writeLock().lock();
+    try {
+      put0(pageId, name);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  public void remove(int pageId) {
+    lock.writeLock().lock();
+    try {
+      remove0(pageId);
+      if (removedWhileRebuilding != null) {
+        removedWhileRebuilding.add(pageId);
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Starts loading the names read from the database, while the live writes keep going.
+   */
+  public void beginRebuild() {
+    lock.writeLock().lock();
+    try {
+      removedWhileRebuilding = new HashSet<>();
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Adds the names read by the rebuild, by page id, but those a live write added or removed since.
+   */
+  public void endRebuild(Map<Integer, String> pages) {
+    lock.writeLock().lock();
+    try {
+      int count = size;
+      for (Map.Entry<Integer, String> page : pages.entrySet()) {
+        if (!nameById.containsKey(page.getKey())
+          && (removedWhileRebuilding == null || !removedWhileRebuilding.contains(page.getKey()))) {
+          nameById.put(page.getKey(), page.getValue());
+          ensureCapacity(count + 1);
+          names[count] = page.getValue();
+          keys[count] = key(page.getValue());
+          count++;
+        }
+      }
+      if (count > size) {
+        sort(count);
+      }
+      removedWhileRebuilding = null;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  public int size() {
+    lock.readLock().lock();
+    try {
+      return size;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * The first names starting with a prefix, ignoring case, in order. An empty prefix gives the first names.
+   */
+  public List<String> suggest(String prefix, int limit) {
+    String key = key(prefix == null ? "" : prefix);
+    List<String> suggestions = new ArrayList<>(Math.max(0, Math.min(limit, 16)));
+    lock.readLock().lock();
+    try {
+      for (int i = lowerBound(key); i < size && suggestions.size() < limit && keys[i].startsWith(key); i++) {
+        suggestions.add(names[i]);
+      }
+    } finally {
+      lock.readLock().unlock();
+    }
+    return suggestions;
+  }
+
+  private void put0(int pageId, String name) {
+    String previous = nameById.put(pageId, name);
+    if (name.equals(previous)) {
+      return;
+    }
+    if (previous != null) {
+      removeAt(indexOf(previous));
+    }
+    String key = key(name);
+    int index = lowerBound(key);
+    while (index < size && keys[index].equals(key) && names[index].compareTo(name) < 0) {
+      index++;
+    }
+    ensureCapacity(size + 1);
+    System.arraycopy(keys, index, keys, index + 1, size - index);
+    System.arraycopy(names, index, names, index + 1, size - index);
+    keys[index] = key;
+    names[index] = name;
+    size++;
+  }
+
+  private void remove0(int pageId) {
+    String name = nameById.remove(pageId);
+    if (name != null) {
+      removeAt(indexOf(name));
+    }
+  }
+
+  private void removeAt(int index) {
+    if (index < 0) {
+      return;
+    }
+    System.arraycopy(keys, index + 1, keys, index, size - index - 1);
+    System.arraycopy(names, index + 1, names, index, size - index - 1);
+    size--;
+    keys[size] = null;
+    names[size] = null;
+  }
+
+  private int indexOf(String name) {
+    String key = key(name);
+    for (int i = lowerBound(key); i < size && keys[i].equals(key); i++) {
+      if (names[i].equals(name)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Index of the first key not below the given one.
+   */
+  private int lowerBound(String key) {
+    int low = 0;
+    int high = size;
+    while (low < high) {
+      int middle = (low + high) >>> 1;
+      if (keys[middle].compareTo(key) < 0) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+    return low;
+  }
+
+  private void sort(int count) {
+    Integer[] order = new Integer[count];
+    for (int i = 0; i < count; i++) {
+      order[i] = i;
+    }
+    String[] sortKeys = keys;
+    String[] sortNames = names;
+    Arrays.sort(order, (a, b) -> {
+      int byKey = sortKeys[a].compareTo(sortKeys[b]);
+      return byKey != 0 ? byKey : sortNames[a].compareTo(sortNames[b]);
+    });
+    String[] sortedKeys = new String[keys.length];
+    String[] sortedNames = new String[names.length];
+    for (int i = 0; i < count; i++) {
+      sortedKeys[i] = keys[order[i]];
+      sortedNames[i] = names[order[i]];
+    }
+    keys = sortedKeys;
+    names = sortedNames;
+    size = count;
+  }
+
+  private void ensureCapacity(int capacity) {
+    if (capacity > keys.length) {
+      int grown = Math.max(capacity, keys.length * 2);
+      keys = Arrays.copyOf(keys, grown);
+      names = Arrays.copyOf(names, grown);
+    }
+  }
+
+  /**
+   * Lowercased name, the same instance when it already is.
+   */
+  private static String key(String name) {
+    return name.toLowerCase(Locale.ROOT);
+  }
+}
@@ -0,0 +1,546 @@
+package io.vertx.starter.database.search;
+
+import io.vertx.core.json.JsonObject;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * Inverted index of the page contents, ranked with BM25.
+ *
+ * Each version of a page is a document with a dense id. Postings are parallel int arrays of document ids and term
+ * frequencies, appended in document id order, so a page written again only tombstones its previous document. The
+ * tombstones are dropped by {@link #compact()} once they outnumber a third of the documents, and before a snapshot.
+ *
+ * Thread safe: searches share a read lock, writes take the write lock for the time of copying their postings.
+ */
+public final class SearchIndex {
+
+  private static final float K1 = 1.2f;
+  private static final float B = 0.75f;
+  private static final int MIN_TOKEN = 2;
+  private static final int MAX_TOKEN = 64;
+  private static final int SNIPPET_LENGTH = 160;
+
+  /**
+   * A ranked page.
+   */
+  public static final class Hit {
+
+    private final int pageId;
+    private final String name;
+    private final float score;
+
+    private Hit(int pageId, String name, float score) {
+      this.pageId = pageId;
+      this.name = name;
+      this.score = score;
+    }
+
+    public int pageId() {
+      return pageId;
+    }
+
+    public String name() {
+      return name;
+    }
+
+    public float score() {
+      return score;
+    }
+
+    public JsonObject toJson() {
+      return new JsonObject().put("id", pageId).put("name", name).put("score", score);
+    }
+  }
+
+  private static final class Postings {
+
+    private int[] docs = new int[4];
+    private int[] freqs = new int[4];
+    private int size;
+
+    private void add(int doc, int freq) {
+      if (size == docs.length) {
+        docs = Arrays.copyOf(docs, size * 2);
+        freqs = Arrays.copyOf(freqs, size * 2);
+      }
+      docs[size] = doc;
+      freqs[size] = freq;
+      size++;
+    }
+  }
+
+  private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+  private final Map<String, Postings> terms = new HashMap<>();
+  private final Map<Integer, Integer> docByPage = new HashMap<>();
+  private int[] docPageIds = new int[64];
+  private int[] docLengths = new int[64];
+  private String[] docNames = new String[64];
+  private int docCount;
+  private final BitSet deleted = new BitSet();
+  private int deletedCount;
+  private long liveLength;
+
+  private Set<Integer> removedWhileRebuilding;
+  private boolean changed;
+  private Runnable changeListener;
+
+  /**
+   * Called under the write lock on the first change since the index was read or last snapshot.
+   */
+  void changeListener(Runnable changeListener) {
+    this.changeListener = changeListener;
+  }
+
+  boolean changed() {
+    lock.readLock().lock();
+    try {
+      return changed;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Indexes a page, replacing its previous content.
+   */
+  public void put(int pageId, String name, String content) {
+    Map<String, Integer> frequencies = frequencies(content);
+    lock.writeLock().lock();
+    try {
+      removeDoc(pageId);
+      addDoc(pageId, name, frequencies);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Indexes a page with the name it was indexed with.
+   *
+   * @return false when the page is not indexed
+   */
+  public boolean update(int pageId, String content) {
+    Map<String, Integer> frequencies = frequencies(content);
+    lock.writeLock().lock();
+    try {
+      Integer doc = docByPage.get(pageId);
+      if (doc == null) {
+        return false;
+      }
+      String name = docNames[doc];
+      removeDoc(pageId);
+      addDoc(pageId, name, frequencies);
+      return true;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  public void remove(int pageId) {
+    lock.writeLock().lock();
+    try {
+      removeDoc(pageId);
+      if (removedWhileRebuilding != null) {
+        removedWhileRebuilding.add(pageId);
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Starts indexing the pages read from the database, while the live writes keep going.
+   */
+  public void beginRebuild() {
+    lock.writeLock().lock();
+    try {
+      removedWhileRebuilding = new HashSet<>();
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Indexes a page read by the rebuild, unless a live write indexed or removed it since.
+   */
+  public void putIfAbsent(int pageId, String name, String content) {
+    Map<String, Integer> frequencies = frequencies(content);
+    lock.writeLock().lock();
+    try {
+      if (!docByPage.containsKey(pageId)
+        && (removedWhileRebuilding == null || !removedWhileRebuilding.contains(pageId))) {
+        addDoc(pageId, name, frequencies);
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  public void endRebuild() {
+    lock.writeLock().lock();
+    try {
+      removedWhileRebuilding = null;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Number of indexed pages.
+   */
+  public int size() {
+    lock.readLock().lock();
+    try {
+      return docByPage.size();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * The best pages for the terms of a query, any of them matching.
+   */
+  public List<Hit> search(String query, int limit) {
+    Collection<String> queryTerms = new LinkedHashSet<>(tokens(query));
+    if (queryTerms.isEmpty() || limit < 1) {
+      return new ArrayList<>();
+    }
+    lock.readLock().lock();
+    try {
+      int live = docCount - deletedCount;
+      if (live == 0) {
+        return new ArrayList<>();
+      }
+      float averageLength = (float) liveLength / live;
+      float[] scores = new float[docCount];
+      int[] touched = new int[16];
+      int touchedCount = 0;
+
+      for (String term : queryTerms) {
+        Postings postings = terms.get(term);
+        if (postings == null) {
+          continue;
+        }
+        int df = postings.size;
+        if (deletedCount > 0) {
+          for (int i = 0; i < postings.size; i++) {
+            if (deleted.get(postings.docs[i])) {
+              df--;
+            }
+          }
+        }
+        if (df == 0) {
+          continue;
+        }
+        float idf = (float) Math.log(1 + (live - df + 0.5) / (df + 0.5));
+        for (int i = 0; i < postings.size; i++) {
+          int doc = postings.docs[i];
+          if (deleted.get(doc)) {
+            continue;
+          }
+          float tf = postings.freqs[i];
+          float norm = K1 * (1 - B + B * docLengths[doc] / averageLength);
+          if (scores[doc] == 0) {
+            if (touchedCount == touched.length) {
+              touched = Arrays.copyOf(touched, touchedCount * 2);
+            }
+            touched[touchedCount++] = doc;
+          }
+          scores[doc] += idf * tf * (K1 + 1) / (tf + norm);
+        }
+      }
+
+      PriorityQueue<Integer> best = new PriorityQueue<>(limit + 1,
+        (a, b) -> scores[a] != scores[b] ? Float.compare(scores[a], scores[b]) : Integer.compare(b, a));
+      for (int i = 0; i < touchedCount; i++) {
+        int doc = touched[i];
+        // Most matches of a common term rank below the current top, they never reach the queue
+        if (best.size() == limit) {
+          int worst = best.peek();
+          if (scores[doc] < scores[worst] || scores[doc] == scores[worst] && doc > worst) {
+            continue;
+          }
+        }
+        best.add(doc);
+        if (best.size() > limit) {
+          best.poll();
+        }
+      }
+      Hit[] hits = new Hit[best.size()];
+      for (int i = hits.length - 1; i >= 0; i--) {
+        int doc = best.poll();
+        hits[i] = new Hit(docPageIds[doc], docNames[doc], scores[doc]);
+      }
+      return new ArrayList<>(Arrays.asList(hits));
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Drops the documents of previous page versions and renumbers the others.
+   */
+  public void compact() {
+    lock.writeLock().lock();
+    try {
+      compact0();
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  private void compact0() {
+    if (deletedCount == 0) {
+      return;
+    }
+    int[] renumbered = new int[docCount];
+    int next = 0;
+    for (int doc = 0; doc < docCount; doc++) {
+      if (deleted.get(doc)) {
+        renumbered[doc] = -1;
+        continue;
+      }
+      renumbered[doc] = next;
+      docPageIds[next] = docPageIds[doc];
+      docLengths[next] = docLengths[doc];
+      docNames[next] = docNames[doc];
+      docByPage.put(docPageIds[next], next);
+      next++;
+    }
+    Arrays.fill(docNames, next, docCount, null);
+    docCount = next;
+    deleted.clear();
+    deletedCount = 0;
+
+    terms.values().removeIf(postings -> {
+      int size = 0;
+      for (int i = 0; i < postings.size; i++) {
+        int doc = renumbered[postings.docs[i]];
+        if (doc >= 0) {
+          postings.docs[size] = doc;
+          postings.freqs[size] = postings.freqs[i];
+          size++;
+        }
+      }
+      postings.size = size;
+      return size == 0;
+    });
+  }
+
+  private void addDoc(int pageId, String name, Map<String, Integer> frequencies) {
+    if (docCount == docPageIds.length) {
+      int capacity = docCount * 2;
+      docPageIds = Arrays.copyOf(docPageIds, capacity);
+      docLengths = Arrays.copyOf(docLengths, capacity);
+      docNames = Arrays.copyOf(docNames, capacity);
+    }
+    int doc = docCount++;
+    int length = 0;
+    for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+      terms.computeIfAbsent(entry.getKey(), t -> new Postings()).add(doc, entry.getValue());
+      length += entry.getValue();
+    }
+    docPageIds[doc] = pageId;
+    docLengths[doc] = length;
+    docNames[doc] = name;
+    docByPage.put(pageId, doc);
+    liveLength += length;
+    markChanged();
+  }
+
+  private void removeDoc(int pageId) {
+    Integer doc = docByPage.remove(pageId);
+    if (doc == null) {
+      return;
+    }
+    deleted.set(doc);
+    deletedCount++;
+    liveLength -= docLengths[doc];
+    docNames[doc] = null;
+    markChanged();
+    if (deletedCount > 1_000 && deletedCount * 3 > docCount) {
+      compact0();
+    }
+  }
+
+  private void markChanged() {
+    if (!changed) {
+      changed = true;
+      if (changeListener != null) {
+        changeListener.run();
+      }
+    }
+  }
+
+  /**
+   * Size of {@link #writeTo(ByteBuffer)}, to be called under the same lock.
+   */
+  int encodedSize() {
+    long size = 8;
+    for (int doc = 0; doc < docCount; doc++) {
+      size += 12 + docNames[doc].getBytes(StandardCharsets.UTF_8).length;
+    }
+    for (Map.Entry<String, Postings> entry : terms.entrySet()) {
+      size += 8 + entry.getKey().getBytes(StandardCharsets.UTF_8).length + 8L * entry.getValue().size;
+    }
+    if (size > Integer.MAX_VALUE) {
+      throw new IllegalStateException("Search index of " + size + " bytes is too large");
+    }
+    return (int) size;
+  }
+
+  /**
+   * Runs an action on the compacted index, holding off the writes, and clears the changed flag.
+   */
+  <T> T snapshot(Function<SearchIndex, T> action) {
+    lock.writeLock().lock();
+    try {
+      compact0();
+      T result = action.apply(this);
+      changed = false;
+      return result;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  void writeTo(ByteBuffer buffer) {
+    buffer.putInt(docCount);
+    for (int doc = 0; doc < docCount; doc++) {
+      buffer.putInt(docPageIds[doc]).putInt(docLengths[doc]);
+      putString(buffer, docNames[doc]);
+    }
+    buffer.putInt(terms.size());
+    for (Map.Entry<String, Postings> entry : terms.entrySet()) {
+      Postings postings = entry.getValue();
+      putString(buffer, entry.getKey());
+      buffer.putInt(postings.size);
+      buffer.asIntBuffer().put(postings.docs, 0, postings.size);
+      buffer.position(buffer.position() + 4 * postings.size);
+      buffer.asIntBuffer().put(postings.freqs, 0, postings.size);
+      buffer.position(buffer.position() + 4 * postings.size);
+    }
+  }
+
+  static SearchIndex readFrom(ByteBuffer buffer) {
+    SearchIndex index = new SearchIndex();
+    int docCount = buffer.getInt();
+    index.docPageIds = new int[Math.max(64, docCount)];
+    index.docLengths = new int[index.docPageIds.length];
+    index.docNames = new String[index.docPageIds.length];
+    for (int doc = 0; doc < docCount; doc++) {
+      index.docPageIds[doc] = buffer.getInt();
+      index.docLengths[doc] = buffer.getInt();
+      index.docNames[doc] = getString(buffer);
+      index.docByPage.put(index.docPageIds[doc], doc);
+      index.liveLength += index.docLengths[doc];
+    }
+    index.docCount = docCount;
+    int termCount = buffer.getInt();
+    for (int i = 0; i < termCount; i++) {
+      String term = getString(buffer);
+      Postings postings = new Postings();
+      postings.size = buffer.getInt();
+      postings.docs = new int[Math.max(4, postings.size)];
+      postings.freqs = new int[postings.docs.length];
+      buffer.asIntBuffer().get(postings.docs, 0, postings.size);
+      buffer.position(buffer.position() + 4 * postings.size);
+      buffer.asIntBuffer().get(postings.freqs, 0, postings.size);
+      buffer.position(buffer.position() + 4 * postings.size);
+      index.terms.put(term, postings);
+    }
+    return index;
+  }
+
+  private static void putString(ByteBuffer buffer, String value) {
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    buffer.putInt(bytes.length).put(bytes);
+  }
+
+  private static String getString(ByteBuffer buffer) {
+    byte[] bytes = new byte[buffer.getInt()];
+    buffer.get(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  private static Map<String, Integer> frequencies(String content) {
+    Map<String, Integer> frequencies = new HashMap<>();
+    for (String token : tokens(content)) {
+      frequencies.merge(token, 1, Integer::sum);
+    }
+    return frequencies;
+  }
+
+  /**
+   * Lower cased runs of letters and digits, markdown syntax falls in between.
+   */
+  static List<String> tokens(String text) {
+    List<String> tokens = new ArrayList<>();
+    if (text == null) {
+      return tokens;
+    }
+    StringBuilder token = new StringBuilder();
+    for (int i = 0; i <= text.length(); i++) {
+      char c = i < text.length() ? text.charAt(i) : ' ';
+      if (Character.isLetterOrDigit(c)) {
+        token.append(Character.toLowerCase(c));
+        continue;
+      }
+      if (token.length() >= MIN_TOKEN && token.length() <= MAX_TOKEN) {
+        tokens.add(token.toString());
+      }
+      token.setLength(0);
+    }
+    return tokens;
+  }
+
+  /**
+   * Text around the first match of a query in a page content, on one line.
+   */
+  public static String snippet(String content, String query) {
+    Set<String> queryTerms = new HashSet<>(tokens(query));
+    int match = -1;
+    int start = -1;
+    for (int i = 0; i <= content.length() && match < 0; i++) {
+      boolean letter = i < content.length() && Character.isLetterOrDigit(content.charAt(i));
+      if (letter && start < 0) {
+        start = i;
+      } else if (!letter && start >= 0) {
+        if (queryTerms.contains(content.substring(start, i).toLowerCase())) {
+          match = start;
+        }
+        start = -1;
+      }
+    }
+    int from = match < 0 ? 0 : Math.max(0, match - SNIPPET_LENGTH / 3);
+    int to = Math.min(content.length(), from + SNIPPET_LENGTH);
+    while (from > 0 && from < match && !Character.isWhitespace(content.charAt(from - 1))) {
+      from++;
+    }
+    int end = to;
+    while (end < content.length() && end > from && !Character.isWhitespace(content.charAt(end))) {
+      end--;
+    }
+    if (end > from) {
+      to = end;
+    }
+    String snippet = content.substring(from, to).replaceAll("\\s+", " ").trim();
+    return (from > 0 ? "..." : "") + snippet + (to < content.length() ? "..." : "");
+  }
+}
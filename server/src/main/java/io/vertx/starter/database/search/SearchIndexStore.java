@@ -0,0 +1,192 @@
+package io.vertx.starter.database.search;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * {@link SearchIndex} of a database, shared by the database verticles of the JVM and snapshotted to a memory-mapped
+ * file, along with the {@link PageNameIndex} of its pages which is only held in memory.
+ *
+ * The file holds a header (magic, format, clean flag) and the encoded index. The flag is cleared on the first change
+ * after the index was read or written, so an index that was not snapshotted before the JVM stopped is rebuilt from the
+ * database instead of being trusted. Snapshots are written to a temporary file and moved over the previous one.
+ */
+public final class SearchIndexStore {
+
+  private static final Logger logger = LoggerFactory.getLogger(SearchIndexStore.class);
+
+  private static final int MAGIC = 0x57534958;
+  private static final int FORMAT = 1;
+  private static final int HEADER = 12;
+  private static final int CLEAN_OFFSET = 8;
+
+  private static final Map<String, SearchIndexStore> STORES = new HashMap<>();
+
+  private final String key;
+  private final Path path;
+  private final SearchIndex index;
+  private final boolean loaded;
+  private final AtomicBoolean rebuildClaimed = new AtomicBoolean();
+  private final PageNameIndex names = new PageNameIndex();
+  private final AtomicBoolean namesClaimed = new AtomicBoolean();
+  private final AtomicReference<Object> remoteWritesOwner = new AtomicReference<>();
+  private int references;
+
+  private SearchIndexStore(String key, Path path, SearchIndex index, boolean loaded) {
+    this.key = key;
+    this.path = path;
+    this.index = index;
+    this.loaded = loaded;
+    index.changeListener(this::markDirty);
+  }
+
+  /**
+   * The store of a database, opened by its first user.
+   *
+   * @param key  the database, such as its JDBC url
+   * @param path the snapshot file, null to keep the index in memory only
+   */
+  public static SearchIndexStore acquire(String key, Path path) {
+    synchronized (STORES) {
+      SearchIndexStore store = STORES.computeIfAbsent(key, k -> open(k, path));
+      store.references++;
+      return store;
+    }
+  }
+
+  /**
+   * Gives the store back, the last user snapshots it.
+   */
+  public void release() {
+    synchronized (STORES) {
+      if (--references > 0) {
+        return;
+      }
+      STORES.remove(key);
+    }
+    snapshot();
+  }
+
+  public SearchIndex index() {
+    return index;
+  }
+
+  public PageNameIndex names() {
+    return names;
+  }
+
+  /**
+   * Whether the caller is the one to load the page names of the database, once per store.
+   */
+  public boolean claimNames() {
+    return namesClaimed.compareAndSet(false, true);
+  }
+
+  /**
+   * Whether the caller is the one to index the pages of the database, once per store that was not read from a
+   * clean snapshot.
+   */
+  public boolean claimRebuild() {
+    return !loaded && rebuildClaimed.compareAndSet(false, true);
+  }
+
+  /**
+   * Whether the caller is the one to apply the writes of other JVMs to the indexes, which every user of the store
+   * hears about. A user keeps the role until it gives it back, another one takes it over on its next write.
+   */
+  public boolean claimRemoteWrites(Object user) {
+    return remoteWritesOwner.compareAndSet(null, user) || remoteWritesOwner.get() == user;
+  }
+
+  /**
+   * Gives back the role taken by {@link #claimRemoteWrites(Object)}, if the user holds it.
+   */
+  public void releaseRemoteWrites(Object user) {
+    remoteWritesOwner.compareAndSet(user, null);
+  }
+
+  /**
+   * Writes the index to the file when it changed since it was read or last written. Blocks the writes to the index
+   * while it is encoded.
+   */
+  public synchronized void snapshot() {
+    if (path == null || !index.changed()) {
+      return;
+    }
+    Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+    try {
+      int size = index.snapshot(snapshot -> {
+        int encodedSize = snapshot.encodedSize();
+        try (RandomAccessFile file = new RandomAccessFile(temporary.toFile(), "rw")) {
+          file.setLength(0);
+          file.setLength(HEADER + encodedSize);
+          MappedByteBuffer buffer = file.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, HEADER + encodedSize);
+          buffer.putInt(MAGIC).putInt(FORMAT).putInt(0);
+          snapshot.writeTo(buffer);
+          buffer.force();
+          // Clean last, a snapshot cut short is rebuilt
+          buffer.putInt(CLEAN_OFFSET, 1);
+          buffer.force();
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+        return snapshot.size();
+      });
+      Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      logger.debug("Wrote the search index of {} pages to {}", size, path);
+    } catch (IOException | UncheckedIOException e) {
+      logger.error("Could not write the search index to " + path, e);
+    }
+  }
+
+  private static SearchIndexStore open(String key, Path path) {
+    if (path == null || !Files.exists(path)) {
+      return new SearchIndexStore(key, path, new SearchIndex(), false);
+    }
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+      if (channel.size() < HEADER || buffer.getInt(0) != MAGIC || buffer.getInt(4) != FORMAT) {
+        logger.warn("Search index {} has another format, it is rebuilt", path);
+      } else if (buffer.getInt(CLEAN_OFFSET) != 1) {
+        logger.info("Search index {} was not saved after its last change, it is rebuilt", path);
+      } else {
+        buffer.position(HEADER);
+        SearchIndex index = SearchIndex.readFrom(buffer);
+        logger.info("Loaded the search index of {} pages", index.size());
+        return new SearchIndexStore(key, path, index, true);
+      }
+    } catch (IOException | RuntimeException e) {
+      logger.warn("Could not read the search index " + path + ", it is rebuilt", e);
+    }
+    return new SearchIndexStore(key, path, new SearchIndex(), false);
+  }
+
+  /**
+   * Clears the clean flag of the file, the index in memory is now ahead of it.
+   */
+  private void markDirty() {
+    if (path == null || !Files.exists(path)) {
+      return;
+    }
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+      channel.write(ByteBuffer.allocate(4).putInt(0, 0), CLEAN_OFFSET);
+    } catch (IOException e) {
+      logger.warn("Could not mark the search index " + path + " as changed", e);
+    }
+  }
+}
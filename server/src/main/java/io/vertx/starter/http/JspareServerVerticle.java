@@ -1,10 +1,12 @@
 package io.vertx.starter.http;
 
-import com.github.rjeschke.txtmark.Processor;
 import com.google.common.net.HttpHeaders;
 import com.google.common.net.MediaType;
 import io.reactivex.Single;
+import io.vertx.core.Handler;
+import io.vertx.core.http.HttpMethod;
 import io.vertx.core.http.HttpServerOptions;
+import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 import io.vertx.core.net.JdkSSLEngineOptions;
 import io.vertx.core.net.JksOptions;
@@ -20,6 +22,7 @@ import io.vertx.reactivex.ext.auth.AuthProvider;
 import io.vertx.reactivex.ext.auth.jwt.JWTAuth;
 import io.vertx.reactivex.ext.auth.shiro.ShiroAuth;
 import io.vertx.reactivex.ext.web.Router;
+import io.vertx.reactivex.ext.web.RoutingContext;
 import io.vertx.reactivex.ext.web.handler.BodyHandler;
 import io.vertx.reactivex.ext.web.handler.CookieHandler;
 import io.vertx.reactivex.ext.web.handler.FormLoginHandler;
@@ -29,18 +32,29 @@ import io.vertx.reactivex.ext.web.handler.SessionHandler;
 import io.vertx.reactivex.ext.web.handler.StaticHandler;
 import io.vertx.reactivex.ext.web.handler.UserSessionHandler;
 import io.vertx.reactivex.ext.web.handler.sockjs.SockJSHandler;
-import io.vertx.reactivex.ext.web.sstore.LocalSessionStore;
+import io.vertx.reactivex.ext.web.sstore.SessionStore;
+import io.vertx.starter.database.PageEvents;
+import io.vertx.starter.http.auth.AuthCache;
+import io.vertx.starter.http.auth.CachingAuthProvider;
+import io.vertx.starter.http.auth.CachingJWTAuth;
+import io.vertx.starter.http.auth.PermissionSnapshot;
+import io.vertx.starter.http.auth.VerifiedTokenCache;
+import io.vertx.starter.http.cache.PageCache;
 import io.vertx.starter.http.route.ApiRoute;
 import io.vertx.starter.http.route.PageRoute;
+import io.vertx.starter.http.session.SessionStores;
+import io.vertx.starter.markdown.MarkdownRenderer;
 import org.jspare.vertx.annotation.Module;
 import org.jspare.vertx.annotation.Modules;
 import org.jspare.vertx.reactivex.JspareVerticle;
+import org.jspare.vertx.reactivex.web.builder.DispatchMode;
 import org.jspare.vertx.reactivex.web.builder.RouterBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
-import java.util.List;
+
+import static org.jspare.core.Environment.my;
 
 @Modules({
   @Module(JspareServerModule.class)
@@ -48,9 +62,12 @@ import java.util.List;
 public class JspareServerVerticle extends JspareVerticle {
 
   public static final String CONFIG_HTTP_SERVER_PORT = "http.server.port";
+  public static final String CONFIG_HTTP_SERVER_DISPATCH = "http.server.dispatch";
+  public static final String CONFIG_HTTP_SERVER_INSTANCES = "http.server.instances";
 
   private static final Logger logger = LoggerFactory.getLogger(JspareServerVerticle.class);
 
+  private SessionStore sessionStore;
 
   @Override
   public void start() throws Exception {
@@ -70,16 +87,29 @@ public class JspareServerVerticle extends JspareVerticle {
         .setPassword("secret"))
       .setUseAlpn(useAlpn));
 
-    AuthProvider auth = ShiroAuth.create(vertx, new ShiroAuthOptions()
+    ShiroAuth shiroAuth = ShiroAuth.create(vertx, new ShiroAuthOptions()
       .setType(ShiroAuthRealmType.PROPERTIES)
       .setConfig(new JsonObject()
         .put("properties_path", "classpath:wiki-users.properties")));
+    AuthCache authCache = my(AuthCache.class).init(config());
+    AuthProvider auth = AuthProvider.newInstance(
+      new CachingAuthProvider(vertx.getDelegate(), shiroAuth.getDelegate(), authCache));
+
+    // Before the routers, routes are injected with the initialized renderer
+    MarkdownRenderer markdownRenderer = my(MarkdownRenderer.class).init(vertx, config());
+
+    sessionStore = SessionStores.create(vertx, config());
+
+    DispatchMode dispatchMode = DispatchMode.valueOf(config()
+      .getString(CONFIG_HTTP_SERVER_DISPATCH, DispatchMode.ROUTER.name()).toUpperCase());
 
     Router router = RouterBuilder.create(vertx)
+      .dispatchMode(dispatchMode)
       .addHandler(CookieHandler.create())
-      .addHandler(BodyHandler.create())
-      .addHandler(SessionHandler.create(LocalSessionStore.create(vertx)))
+      .addHandler(bodyHandler())
+      .addHandler(SessionHandler.create(sessionStore))
       .addHandler(UserSessionHandler.create(auth))
+      .addHandler(PermissionSnapshot.handler(authCache))
       .authHandler(() -> RedirectAuthHandler.create(auth, "/login"))
       .addRoute(PageRoute.class)
       .route(route -> route.path("/app/*").handler(StaticHandler.create().setCachingEnabled(false)))
@@ -89,20 +119,22 @@ public class JspareServerVerticle extends JspareVerticle {
 
     router.get("/logout").handler(context -> {
       context.clearUser();
+      context.session().remove(PermissionSnapshot.SESSION_KEY);
       context.response()
         .setStatusCode(302)
         .putHeader("Location", "/")
         .end();
     });
 
-    JWTAuth jwtAuth = JWTAuth.create(vertx, new JWTAuthOptions()
+    JWTAuth jwtAuth = JWTAuth.newInstance(new CachingJWTAuth(JWTAuth.create(vertx, new JWTAuthOptions()
             .setKeyStore(new KeyStoreOptions()
                     .setPath("keystore.jceks")
                     .setType("jceks")
                     .setPassword("secret")
-            ));
+            )).getDelegate(), my(VerifiedTokenCache.class).init(config())));
 
     Router apiRouter = RouterBuilder.create(vertx)
+      .dispatchMode(dispatchMode)
       .authHandler(() -> JWTAuthHandler.create(jwtAuth, "/api/token"))
       .addRoute(ApiRoute.class)
       .build();
@@ -112,37 +144,20 @@ public class JspareServerVerticle extends JspareVerticle {
       JsonObject creds = new JsonObject()
         .put("username", context.request().getHeader("login"))
         .put("password", context.request().getHeader("password"));
-      auth.rxAuthenticate(creds).flatMap(user -> {
-
-        Single<Boolean> create = user.rxIsAuthorised("create");
-        Single<Boolean> delete = user.rxIsAuthorised("delete");
-        Single<Boolean> update = user.rxIsAuthorised("update");
-
-        return Single.zip(create, delete, update, (canCreate, canDelete, canUpdate) -> {
-          List<String> permissions = new ArrayList<>();
-          if (canCreate) {
-            permissions.add("create");
-          }
-          if (canDelete) {
-            permissions.add("delete");
-          }
-          if (canUpdate) {
-            permissions.add("update");
-          }
-          return jwtAuth.generateToken(new JsonObject()
+      auth.rxAuthenticate(creds)
+        .flatMap(PermissionSnapshot::resolve)
+        .map(permissions -> jwtAuth.generateToken(new JsonObject()
             .put("username", context.request().getHeader("login")),
           new JWTOptions()
             .setSubject("Wiki API")
             .setIssuer("Vert.x")
             .setExpiresInMinutes(3600)
-            .setPermissions(permissions));
-        });
-
-      }).subscribe(token -> {
-        context.response()
-          .putHeader(HttpHeaders.CONTENT_TYPE, MediaType.PLAIN_TEXT_UTF_8.toString())
-          .end(token);
-      }, t -> context.fail(401));
+            .setPermissions(new ArrayList<>(permissions.permissions()))))
+        .subscribe(token -> {
+          context.response()
+            .putHeader(HttpHeaders.CONTENT_TYPE, MediaType.PLAIN_TEXT_UTF_8.toString())
+            .end(token);
+        }, t -> context.fail(401));
     });
 
     router.mountSubRouter("/api", apiRouter);
@@ -160,10 +175,50 @@ public class JspareServerVerticle extends JspareVerticle {
     sockJSHandler.bridge(bridgeOptions);
     router.route("/eventbus/*").handler(sockJSHandler);
 
-    vertx.eventBus().<String>consumer("app.markdown", msg -> {
-      String html = Processor.process(msg.body());
-      msg.reply(html);
+    PageCache pageCache = my(PageCache.class);
+    vertx.eventBus().<JsonObject>consumer("page.saved", msg -> pageCache.onPageEvent(msg.body()));
+    vertx.eventBus().<JsonObject>consumer(PageEvents.ADDRESS, msg -> pageCache.onPageEvent(msg.body()));
+    vertx.eventBus().<JsonObject>consumer(AuthCache.INVALIDATE_ADDRESS, msg -> authCache.onInvalidate(msg.body()));
+
+    // Live preview, a {markdown, known} object is answered with a block patch, a string with the HTML
+    vertx.eventBus().consumer("app.markdown", msg -> {
+      Single<?> rendering;
+      if (msg.body() instanceof JsonObject) {
+        JsonObject request = (JsonObject) msg.body();
+        rendering = markdownRenderer.renderPatch(request.getString("markdown", ""),
+          request.getJsonArray("known", new JsonArray()).getList());
+      } else {
+        rendering = markdownRenderer.renderIncremental(String.valueOf(msg.body()));
+      }
+      rendering.subscribe(msg::reply, t -> msg.fail(t instanceof MarkdownRenderer.RejectedRenderException
+        ? ((MarkdownRenderer.RejectedRenderException) t).statusCode() : 500, t.getMessage()));
     });
   }
 
+  /**
+   * Reads request bodies in memory, but those of bulk page imports, which the import route reads as a stream. Their
+   * request is paused until the route sets its handlers, and resumed when a response is sent without reading it.
+   */
+  private static Handler<RoutingContext> bodyHandler() {
+    BodyHandler bodyHandler = BodyHandler.create();
+    String importPath = "/api" + ApiRoute.BULK_PAGES_PATH;
+    return context -> {
+      if (context.request().method() == HttpMethod.POST && importPath.equals(context.request().path())) {
+        context.request().pause();
+        context.addHeadersEndHandler(v -> context.request().resume());
+        context.next();
+      } else {
+        bodyHandler.handle(context);
+      }
+    };
+  }
+
+  @Override
+  public void stop() throws Exception {
+    if (sessionStore != null) {
+      sessionStore.close();
+    }
+    super.stop();
+  }
+
 }
@@ -0,0 +1,265 @@
+package io.vertx.starter.http.auth;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.auth.User;
+import io.vertx.starter.CacheMetrics;
+import io.vertx.starter.SharedSettings;
+
+import javax.annotation.Resource;
+import javax.inject.Singleton;
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Authentication and authorization results of the {@link CachingAuthProvider}s of the JVM, kept for a bounded time.
+ *
+ * Authentications are keyed by username and a salted SHA-256 of the password, so passwords are not kept in memory.
+ * Concurrent lookups of one key share a single call to the wrapped provider; failures are not cached.
+ * Results expire {@code ttl_seconds} after the lookup, or on {@link #invalidate(String)}. Results kept elsewhere, like
+ * the permissions of a session, are checked with {@link #isCurrent(String, long)} against the same rules.
+ */
+@Resource
+@Singleton
+public class AuthCache {
+
+  public static final String CONFIG_AUTH_CACHE_TTL_SECONDS = "auth.cache.ttl_seconds";
+  public static final String CONFIG_AUTH_CACHE_MAX_SIZE = "auth.cache.max_size";
+
+  /**
+   * Event bus address of invalidations: a {username} object drops the entries of one user, an empty one every entry.
+   */
+  public static final String INVALIDATE_ADDRESS = "wiki.auth.invalidate";
+
+  private final HashFunction hash = Hashing.sha256();
+  private final byte[] salt = new byte[16];
+  private final SharedSettings settings = new SharedSettings(AuthCache.class, CONFIG_AUTH_CACHE_TTL_SECONDS,
+    CONFIG_AUTH_CACHE_MAX_SIZE);
+
+  private volatile Cache<Credentials, CompletableFuture<Outcome<User>>> authentications;
+  private volatile Cache<Authority, CompletableFuture<Outcome<Boolean>>> authorizations;
+  private long ttlSeconds;
+
+  /**
+   * Epoch millis of the last invalidation of each user, kept as long as a result resolved before it could live.
+   */
+  private volatile Cache<String, Long> invalidations;
+  private volatile long invalidatedAllAt;
+
+  private final LongAdder authenticationFailures = new LongAdder();
+  private final LongAdder authorizationFailures = new LongAdder();
+  private final LongAdder authenticationNanos = new LongAdder();
+  private final LongAdder authorizationNanos = new LongAdder();
+
+  public AuthCache() {
+    new SecureRandom().nextBytes(salt);
+  }
+
+  /**
+   * Create the caches, once per JVM; http verticle instances after the first one share them.
+   */
+  public synchronized AuthCache init(JsonObject config) {
+    if (settings.apply(config)) {
+      ttlSeconds = config.getLong(CONFIG_AUTH_CACHE_TTL_SECONDS, 300L);
+      long maxSize = config.getLong(CONFIG_AUTH_CACHE_MAX_SIZE, 10_000L);
+      authorizations = Caffeine.newBuilder()
+        .maximumSize(maxSize)
+        .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+        .recordStats()
+        .build();
+      authentications = Caffeine.newBuilder()
+        .maximumSize(maxSize)
+        .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+        .recordStats()
+        .build();
+      invalidations = Caffeine.newBuilder()
+        .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+        .build();
+    }
+    return this;
+  }
+
+  /**
+   * Cached outcome of the authentication of a username and password, authenticated by {@code authenticate} on a miss.
+   * The user is shared by every caller and must be copied before it is handed out.
+   */
+  CompletableFuture<User> authenticate(String username, String password, Supplier<CompletableFuture<User>> authenticate) {
+    HashCode digest = hash.newHasher()
+      .putBytes(salt)
+      .putString(String.valueOf(password), StandardCharsets.UTF_8)
+      .hash();
+    return get(authentications, new Credentials(username, digest), authenticate, authenticationFailures,
+      authenticationNanos);
+  }
+
+  /**
+   * Cached authorization of a username, checked by {@code authorise} on a miss.
+   */
+  CompletableFuture<Boolean> isAuthorised(String username, String authority,
+                                          Supplier<CompletableFuture<Boolean>> authorise) {
+    return get(authorizations, new Authority(username, authority), authorise, authorizationFailures,
+      authorizationNanos);
+  }
+
+  /**
+   * Shared lookup of one key: the first caller puts the pending lookup in the cache, the next ones wait on it. A
+   * failure is handed to every caller waiting on it, then dropped from the cache.
+   */
+  private static <K, V> CompletableFuture<V> get(Cache<K, CompletableFuture<Outcome<V>>> cache, K key,
+                                                 Supplier<CompletableFuture<V>> loader, LongAdder failures,
+                                                 LongAdder loadNanos) {
+    CompletableFuture<Outcome<V>> lookup = cache.get(key, k -> {
+      long start = System.nanoTime();
+      return loader.get().handle((value, failure) -> {
+        loadNanos.add(System.nanoTime() - start);
+        return new Outcome<>(value, failure);
+      });
+    });
+    return lookup
+      .thenCompose(outcome -> {
+        if (outcome.failure == null) {
+          return CompletableFuture.completedFuture(outcome.value);
+        }
+        if (cache.asMap().remove(key, lookup)) {
+          failures.increment();
+        }
+        CompletableFuture<V> failed = new CompletableFuture<>();
+        failed.completeExceptionally(outcome.failure);
+        return failed;
+      });
+  }
+
+  /**
+   * Drop the cached results of one user, after a password or role change.
+   */
+  public void invalidate(String username) {
+    if (username != null) {
+      invalidations.put(username, System.currentTimeMillis());
+    }
+    authentications.asMap().keySet().removeIf(key -> Objects.equals(key.username, username));
+    authorizations.asMap().keySet().removeIf(key -> Objects.equals(key.username, username));
+  }
+
+  public void invalidateAll() {
+    invalidatedAllAt = System.currentTimeMillis();
+    authentications.invalidateAll();
+    authorizations.invalidateAll();
+  }
+
+  /**
+   * Whether results of a user resolved at {@code resolvedAt}, in epoch millis, still hold: they are younger than the
+   * ttl and the user was not invalidated since.
+   */
+  public boolean isCurrent(String username, long resolvedAt) {
+    if (System.currentTimeMillis() - resolvedAt >= TimeUnit.SECONDS.toMillis(ttlSeconds)
+      || resolvedAt <= invalidatedAllAt) {
+      return false;
+    }
+    Long invalidatedAt = username != null ? invalidations.getIfPresent(username) : null;
+    return invalidatedAt == null || resolvedAt > invalidatedAt;
+  }
+
+  /**
+   * Applies an invalidation published on {@link #INVALIDATE_ADDRESS}.
+   */
+  public void onInvalidate(JsonObject request) {
+    String username = request != null ? request.getString("username") : null;
+    if (username != null) {
+      invalidate(username);
+    } else {
+      invalidateAll();
+    }
+  }
+
+  public JsonObject metrics() {
+    return new JsonObject()
+      .put("ttlSeconds", ttlSeconds)
+      .put("authentications", metrics(authentications, authenticationFailures, authenticationNanos))
+      .put("authorizations", metrics(authorizations, authorizationFailures, authorizationNanos));
+  }
+
+  private static JsonObject metrics(Cache<?, ?> cache, LongAdder failures, LongAdder loadNanos) {
+    return CacheMetrics.toJson(cache)
+      .put("failures", failures.sum())
+      .put("loadTimeNanos", loadNanos.sum());
+  }
+
+  /**
+   * Result of one lookup, failed ones included, so a failure completes the cached future normally.
+   */
+  private static final class Outcome<V> {
+
+    private final V value;
+    private final Throwable failure;
+
+    private Outcome(V value, Throwable failure) {
+      this.value = value;
+      this.failure = failure;
+    }
+  }
+
+  private static final class Credentials {
+
+    private final String username;
+    private final HashCode digest;
+
+    private Credentials(String username, HashCode digest) {
+      this.username = username;
+      this.digest = digest;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Credentials)) {
+        return false;
+      }
+      Credentials that = (Credentials) o;
+      return Objects.equals(username, that.username) && digest.equals(that.digest);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(username, digest);
+    }
+  }
+
+  private static final class Authority {
+
+    private final String username;
+    private final String authority;
+
+    private Authority(String username, String authority) {
+      this.username = username;
+      this.authority = authority;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Authority)) {
+        return false;
+      }
+      Authority that = (Authority) o;
+      return Objects.equals(username, that.username) && Objects.equals(authority, that.authority);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(username, authority);
+    }
+  }
+}
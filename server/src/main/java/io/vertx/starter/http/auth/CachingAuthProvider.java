@@ -0,0 +1,197 @@
+package io.vertx.starter.http.auth;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.VertxException;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.shareddata.impl.ClusterSerializable;
+import io.vertx.ext.auth.AuthProvider;
+import io.vertx.ext.auth.User;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Auth provider answering authentications and authorizations of the wrapped provider from an {@link AuthCache}.
+ *
+ * Only the outcome of an authentication is cached: each login gets a fresh copy of the wrapped user, so users of
+ * different sessions share no state. Users are wrapped so their {@code isAuthorised} checks go through the cache as
+ * well. Results are handed back on the context of the caller, whichever event loop completed the shared lookup.
+ */
+public class CachingAuthProvider implements AuthProvider {
+
+  private final Vertx vertx;
+  private final AuthProvider delegate;
+  private final AuthCache cache;
+
+  public CachingAuthProvider(Vertx vertx, AuthProvider delegate, AuthCache cache) {
+    this.vertx = vertx;
+    this.delegate = delegate;
+    this.cache = cache;
+  }
+
+  @Override
+  public void authenticate(JsonObject authInfo, Handler<AsyncResult<User>> resultHandler) {
+    String username = authInfo.getString("username");
+    String password = authInfo.getString("password");
+    if (username == null || password == null) {
+      delegate.authenticate(authInfo, resultHandler);
+      return;
+    }
+    CompletableFuture<User> user = cache.authenticate(username, password, () -> {
+      CompletableFuture<User> future = new CompletableFuture<>();
+      delegate.authenticate(authInfo, ar -> {
+        if (ar.succeeded()) {
+          future.complete(ar.result());
+        } else {
+          future.completeExceptionally(ar.cause());
+        }
+      });
+      return future;
+    });
+    reply(user.thenApply(authenticated -> new CachingUser(copy(authenticated), username, this)), resultHandler);
+  }
+
+  /**
+   * Copy of a user of the wrapped provider, without its cached permissions. Users that cannot be copied are shared.
+   */
+  private User copy(User user) {
+    if (!(user instanceof ClusterSerializable)) {
+      return user;
+    }
+    Buffer buffer = Buffer.buffer();
+    ((ClusterSerializable) user).writeToBuffer(buffer);
+    try {
+      ClusterSerializable copy = (ClusterSerializable) user.getClass().getConstructor().newInstance();
+      copy.readFromBuffer(0, buffer);
+      User fresh = (User) copy;
+      fresh.setAuthProvider(delegate);
+      return fresh.clearCache();
+    } catch (ReflectiveOperationException e) {
+      return user;
+    }
+  }
+
+  private <T> void reply(CompletableFuture<T> future, Handler<AsyncResult<T>> resultHandler) {
+    Context context = vertx.getOrCreateContext();
+    future.whenComplete((result, failure) -> {
+      AsyncResult<T> ar = failure == null ? Future.succeededFuture(result) : Future.failedFuture(unwrap(failure));
+      if (Vertx.currentContext() == context) {
+        resultHandler.handle(ar);
+      } else {
+        context.runOnContext(v -> resultHandler.handle(ar));
+      }
+    });
+  }
+
+  private static Throwable unwrap(Throwable failure) {
+    return failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+  }
+
+  /**
+   * User of the wrapped provider, with cached authorizations. It is written to sessions with the wrapped user, and
+   * gets its provider back from the user session handler once read.
+   */
+  public static final class CachingUser implements User, ClusterSerializable {
+
+    private User delegate;
+    private String username;
+    private CachingAuthProvider provider;
+
+    public CachingUser() {
+    }
+
+    private CachingUser(User delegate, String username, CachingAuthProvider provider) {
+      this.delegate = delegate;
+      this.username = username;
+      this.provider = provider;
+    }
+
+    @Override
+    public User isAuthorized(String authority, Handler<AsyncResult<Boolean>> resultHandler) {
+      if (provider == null) {
+        delegate.isAuthorised(authority, resultHandler);
+        return this;
+      }
+      CompletableFuture<Boolean> authorized = provider.cache.isAuthorised(username, authority, () -> {
+        CompletableFuture<Boolean> future = new CompletableFuture<>();
+        // The wrapped user keeps its own permissions forever, a miss must ask its provider again
+        delegate.clearCache();
+        delegate.isAuthorised(authority, ar -> {
+          if (ar.succeeded()) {
+            future.complete(ar.result());
+          } else {
+            future.completeExceptionally(ar.cause());
+          }
+        });
+        return future;
+      });
+      provider.reply(authorized, resultHandler);
+      return this;
+    }
+
+    @Override
+    public User clearCache() {
+      delegate.clearCache();
+      if (provider != null) {
+        provider.cache.invalidate(username);
+      }
+      return this;
+    }
+
+    @Override
+    public JsonObject principal() {
+      return delegate.principal();
+    }
+
+    @Override
+    public void setAuthProvider(AuthProvider authProvider) {
+      if (authProvider instanceof CachingAuthProvider) {
+        provider = (CachingAuthProvider) authProvider;
+        delegate.setAuthProvider(provider.delegate);
+      } else {
+        delegate.setAuthProvider(authProvider);
+      }
+    }
+
+    @Override
+    public void writeToBuffer(Buffer buffer) {
+      if (!(delegate instanceof ClusterSerializable)) {
+        throw new IllegalStateException("User " + delegate.getClass().getName() + " cannot be written to a session");
+      }
+      writeString(buffer, username);
+      writeString(buffer, delegate.getClass().getName());
+      ((ClusterSerializable) delegate).writeToBuffer(buffer);
+    }
+
+    @Override
+    public int readFromBuffer(int pos, Buffer buffer) {
+      int len = buffer.getInt(pos);
+      username = buffer.getString(pos + 4, pos + 4 + len, "UTF-8");
+      pos += 4 + len;
+      len = buffer.getInt(pos);
+      String className = buffer.getString(pos + 4, pos + 4 + len, "UTF-8");
+      pos += 4 + len;
+      try {
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        ClusterSerializable user = (ClusterSerializable) Class.forName(className, true,
+          classLoader != null ? classLoader : CachingUser.class.getClassLoader()).newInstance();
+        pos = user.readFromBuffer(pos, buffer);
+        delegate = (User) user;
+      } catch (ReflectiveOperationException e) {
+        throw new VertxException(e);
+      }
+      return pos;
+    }
+
+    private static void writeString(Buffer buffer, String value) {
+      byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+      buffer.appendInt(bytes.length).appendBytes(bytes);
+    }
+  }
+}
@@ -0,0 +1,111 @@
+package io.vertx.starter.http.auth;
+
+import com.google.common.hash.HashCode;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.auth.AuthProvider;
+import io.vertx.ext.auth.User;
+import io.vertx.ext.auth.jwt.JWTAuth;
+import io.vertx.ext.jwt.JWTOptions;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * JWT provider skipping the parsing and signature check of tokens found in a {@link VerifiedTokenCache}.
+ *
+ * Tokens are verified by the wrapped provider the first time they are seen. The users of verified tokens carry their
+ * permissions as a parsed set, answered without going through the provider.
+ */
+public class CachingJWTAuth implements JWTAuth {
+
+  private final JWTAuth delegate;
+  private final VerifiedTokenCache cache;
+
+  public CachingJWTAuth(JWTAuth delegate, VerifiedTokenCache cache) {
+    this.delegate = delegate;
+    this.cache = cache;
+  }
+
+  @Override
+  public void authenticate(JsonObject authInfo, Handler<AsyncResult<User>> resultHandler) {
+    String token = authInfo.getString("jwt");
+    if (token == null) {
+      delegate.authenticate(authInfo, resultHandler);
+      return;
+    }
+    HashCode digest = cache.digest(token, authInfo.getJsonObject("options"));
+    TokenUser cached = cache.getIfPresent(digest);
+    if (cached != null) {
+      resultHandler.handle(Future.succeededFuture(cached));
+      return;
+    }
+    delegate.authenticate(authInfo, ar -> {
+      if (ar.failed()) {
+        resultHandler.handle(Future.failedFuture(ar.cause()));
+        return;
+      }
+      TokenUser user = new TokenUser(ar.result().principal());
+      cache.put(digest, user);
+      resultHandler.handle(Future.succeededFuture(user));
+    });
+  }
+
+  @Override
+  public String generateToken(JsonObject claims, JWTOptions options) {
+    return delegate.generateToken(claims, options);
+  }
+
+  /**
+   * User of a verified token. One instance is shared by every request presenting the token, so its principal must
+   * be treated as read-only.
+   */
+  public static final class TokenUser implements User {
+
+    private final JsonObject principal;
+    private final Set<String> permissions;
+
+    TokenUser(JsonObject principal) {
+      this.principal = principal;
+      Set<String> permissions = new LinkedHashSet<>();
+      JsonArray claim = principal.getJsonArray("permissions");
+      if (claim != null) {
+        for (Object permission : claim) {
+          permissions.add(String.valueOf(permission));
+        }
+      }
+      this.permissions = Collections.unmodifiableSet(permissions);
+    }
+
+    /**
+     * The permissions claim of the token.
+     */
+    public Set<String> permissions() {
+      return permissions;
+    }
+
+    @Override
+    public User isAuthorized(String authority, Handler<AsyncResult<Boolean>> resultHandler) {
+      resultHandler.handle(Future.succeededFuture(permissions.contains(authority)));
+      return this;
+    }
+
+    @Override
+    public User clearCache() {
+      return this;
+    }
+
+    @Override
+    public JsonObject principal() {
+      return principal;
+    }
+
+    @Override
+    public void setAuthProvider(AuthProvider authProvider) {
+    }
+  }
+}
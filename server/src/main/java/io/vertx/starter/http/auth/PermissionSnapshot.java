@@ -0,0 +1,189 @@
+package io.vertx.starter.http.auth;
+
+import io.reactivex.Single;
+import io.vertx.core.Handler;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.reactivex.ext.auth.User;
+import io.vertx.reactivex.ext.web.RoutingContext;
+import io.vertx.reactivex.ext.web.Session;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * The wiki permissions of one user, resolved once and then read synchronously by the handlers.
+ *
+ * A session user is resolved with one parallel round of {@code isAuthorised} calls, and the snapshot is kept on the
+ * session with the time it was resolved; it is resolved again once the {@link AuthCache} would no longer serve it,
+ * after its ttl or an invalidation of the user. A JWT user carries its permissions in the token, so the snapshot is
+ * read from the principal.
+ */
+public final class PermissionSnapshot {
+
+  /**
+   * Every permission the wiki checks.
+   */
+  public static final List<String> PERMISSIONS = Collections.unmodifiableList(Arrays.asList("create", "delete", "update"));
+
+  /**
+   * Session entry, a {username, permissions, resolvedAt} object so a snapshot is never read for another user.
+   */
+  public static final String SESSION_KEY = "permissions";
+
+  private static final String CONTEXT_KEY = PermissionSnapshot.class.getName();
+
+  private static final PermissionSnapshot NONE = new PermissionSnapshot(null, Collections.emptySet(), 0);
+
+  private final String username;
+  private final Set<String> permissions;
+  private final long resolvedAt;
+
+  private PermissionSnapshot(String username, Set<String> permissions, long resolvedAt) {
+    this.username = username;
+    this.permissions = permissions;
+    this.resolvedAt = resolvedAt;
+  }
+
+  /**
+   * Router handler putting the snapshot of the logged in user on the context, resolving it when the session has no
+   * current one.
+   *
+   * @param authCache tells whether a snapshot kept on the session still holds
+   */
+  public static Handler<RoutingContext> handler(AuthCache authCache) {
+    return context -> {
+      if (context.user() == null) {
+        context.next();
+        return;
+      }
+      of(context, authCache).subscribe(snapshot -> context.next(), context::fail);
+    };
+  }
+
+  /**
+   * Snapshot of the current user, put on the context by {@link #handler(AuthCache)}.
+   *
+   * @throws IllegalStateException if the handler did not run for this request
+   */
+  public static PermissionSnapshot get(RoutingContext context) {
+    if (context.user() == null) {
+      return NONE;
+    }
+    PermissionSnapshot snapshot = context.get(CONTEXT_KEY);
+    if (snapshot == null) {
+      snapshot = cached(context, null);
+    }
+    if (snapshot == null) {
+      throw new IllegalStateException("Permissions of the user are not resolved");
+    }
+    return snapshot;
+  }
+
+  /**
+   * Snapshot of the current user, from the context, the session or the JWT principal when already known.
+   *
+   * @param authCache tells whether a snapshot kept on the session still holds
+   */
+  public static Single<PermissionSnapshot> of(RoutingContext context, AuthCache authCache) {
+    User user = context.user();
+    if (user == null) {
+      return Single.just(NONE);
+    }
+    PermissionSnapshot cached = context.get(CONTEXT_KEY);
+    if (cached == null) {
+      cached = cached(context, authCache);
+    }
+    if (cached != null) {
+      context.put(CONTEXT_KEY, cached);
+      return Single.just(cached);
+    }
+    return resolve(user).doOnSuccess(snapshot -> {
+      context.put(CONTEXT_KEY, snapshot);
+      Session session = context.session();
+      if (session != null) {
+        session.put(SESSION_KEY, snapshot.toJson());
+      }
+    });
+  }
+
+  /**
+   * Resolves every wiki permission of the user at once.
+   */
+  public static Single<PermissionSnapshot> resolve(User user) {
+    List<Single<Boolean>> checks = new ArrayList<>(PERMISSIONS.size());
+    for (String permission : PERMISSIONS) {
+      checks.add(user.rxIsAuthorised(permission));
+    }
+    String username = user.principal().getString("username");
+    // Taken before the checks, a snapshot is not newer than the cached results it was built from
+    long resolvedAt = System.currentTimeMillis();
+    return Single.zip(checks, granted -> {
+      Set<String> permissions = new LinkedHashSet<>();
+      for (int i = 0; i < granted.length; i++) {
+        if ((Boolean) granted[i]) {
+          permissions.add(PERMISSIONS.get(i));
+        }
+      }
+      return new PermissionSnapshot(username, Collections.unmodifiableSet(permissions), resolvedAt);
+    });
+  }
+
+  /**
+   * Snapshot already known for the request, a session one only when the cache still holds it.
+   */
+  private static PermissionSnapshot cached(RoutingContext context, AuthCache authCache) {
+    JsonObject principal = context.user().principal();
+    String username = principal.getString("username");
+    Session session = context.session();
+    if (session != null) {
+      JsonObject stored = session.get(SESSION_KEY);
+      if (stored != null && Objects.equals(username, stored.getString("username")) && authCache != null
+        && authCache.isCurrent(username, stored.getLong("resolvedAt", 0L))) {
+        return fromJson(stored);
+      }
+    }
+    if (context.user().getDelegate() instanceof CachingJWTAuth.TokenUser) {
+      return new PermissionSnapshot(username, ((CachingJWTAuth.TokenUser) context.user().getDelegate()).permissions(),
+        0);
+    }
+    Object claim = principal.getValue("permissions");
+    if (claim instanceof JsonArray) {
+      return fromArray(username, (JsonArray) claim, 0);
+    }
+    return null;
+  }
+
+  private static PermissionSnapshot fromJson(JsonObject json) {
+    return fromArray(json.getString("username"), json.getJsonArray("permissions", new JsonArray()),
+      json.getLong("resolvedAt", 0L));
+  }
+
+  private static PermissionSnapshot fromArray(String username, JsonArray array, long resolvedAt) {
+    Set<String> permissions = new LinkedHashSet<>();
+    for (Object permission : array) {
+      permissions.add(String.valueOf(permission));
+    }
+    return new PermissionSnapshot(username, Collections.unmodifiableSet(permissions), resolvedAt);
+  }
+
+  public boolean has(String permission) {
+    return permissions.contains(permission);
+  }
+
+  public Set<String> permissions() {
+    return permissions;
+  }
+
+  public JsonObject toJson() {
+    return new JsonObject()
+      .put("username", username)
+      .put("permissions", new JsonArray(new ArrayList<>(permissions)))
+      .put("resolvedAt", resolvedAt);
+  }
+}
@@ -0,0 +1,107 @@
+package io.vertx.starter.http.auth;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import io.vertx.core.json.JsonObject;
+import io.vertx.starter.CacheMetrics;
+import io.vertx.starter.SharedSettings;
+
+import javax.annotation.Resource;
+import javax.inject.Singleton;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JWTs already verified by the {@link CachingJWTAuth}s of the JVM, keyed by a SHA-256 of the token and of the
+ * verification options.
+ *
+ * An entry expires at the {@code exp} claim of its token, or {@code max_ttl_seconds} after it was verified when that
+ * comes first, so an expired token is always verified again, and rejected, by the wrapped provider.
+ */
+@Resource
+@Singleton
+public class VerifiedTokenCache {
+
+  public static final String CONFIG_JWT_CACHE_MAX_SIZE = "jwt.cache.max_size";
+  public static final String CONFIG_JWT_CACHE_MAX_TTL_SECONDS = "jwt.cache.max_ttl_seconds";
+
+  private static final HashFunction HASH = Hashing.sha256();
+
+  private final SharedSettings settings = new SharedSettings(VerifiedTokenCache.class, CONFIG_JWT_CACHE_MAX_SIZE,
+    CONFIG_JWT_CACHE_MAX_TTL_SECONDS);
+
+  private volatile Cache<HashCode, CachingJWTAuth.TokenUser> cache;
+  private long maxTtlNanos;
+
+  /**
+   * Create the cache, once per JVM; http verticle instances after the first one share it.
+   */
+  public synchronized VerifiedTokenCache init(JsonObject config) {
+    if (settings.apply(config)) {
+      long maxSize = config.getLong(CONFIG_JWT_CACHE_MAX_SIZE, 10_000L);
+      maxTtlNanos = TimeUnit.SECONDS.toNanos(config.getLong(CONFIG_JWT_CACHE_MAX_TTL_SECONDS, 3600L));
+      cache = Caffeine.newBuilder()
+        .maximumSize(maxSize)
+        .expireAfter(new Expiry<HashCode, CachingJWTAuth.TokenUser>() {
+          @Override
+          public long expireAfterCreate(HashCode key, CachingJWTAuth.TokenUser user, long currentTime) {
+            return ttlNanos(user);
+          }
+
+          @Override
+          public long expireAfterUpdate(HashCode key, CachingJWTAuth.TokenUser user, long currentTime,
+                                        long currentDuration) {
+            return ttlNanos(user);
+          }
+
+          @Override
+          public long expireAfterRead(HashCode key, CachingJWTAuth.TokenUser user, long currentTime,
+                                      long currentDuration) {
+            return currentDuration;
+          }
+        })
+        .recordStats()
+        .build();
+    }
+    return this;
+  }
+
+  HashCode digest(String token, JsonObject options) {
+    return HASH.newHasher()
+      .putString(token, StandardCharsets.UTF_8)
+      .putByte((byte) 0)
+      .putString(options != null ? options.encode() : "", StandardCharsets.UTF_8)
+      .hash();
+  }
+
+  CachingJWTAuth.TokenUser getIfPresent(HashCode digest) {
+    return cache.getIfPresent(digest);
+  }
+
+  void put(HashCode digest, CachingJWTAuth.TokenUser user) {
+    if (ttlNanos(user) > 0) {
+      cache.put(digest, user);
+    }
+  }
+
+  public void invalidateAll() {
+    cache.invalidateAll();
+  }
+
+  private long ttlNanos(CachingJWTAuth.TokenUser user) {
+    Long exp = user.principal().getLong("exp");
+    if (exp == null) {
+      return maxTtlNanos;
+    }
+    long remaining = TimeUnit.SECONDS.toNanos(exp) - TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis());
+    return Math.max(0L, Math.min(remaining, maxTtlNanos));
+  }
+
+  public JsonObject metrics() {
+    return CacheMetrics.toJson(cache);
+  }
+}
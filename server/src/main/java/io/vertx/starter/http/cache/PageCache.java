@@ -0,0 +1,160 @@
+package io.vertx.starter.http.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.vertx.core.json.JsonObject;
+import io.vertx.starter.CacheMetrics;
+import io.vertx.starter.database.PageEvents;
+
+import javax.annotation.Resource;
+import javax.inject.Singleton;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Rendered /wiki/:page bodies, shared by all http verticle instances.
+ *
+ * Entries are keyed by page name and the permission flags used by the template, and rendered with
+ * {@link #USERNAME_PLACEHOLDER} as username so one entry serves every user with the same permissions.
+ * Eviction is size-weighted (W-TinyLFU), entries are dropped on page events and expire after
+ * {@link #EXPIRE_AFTER_WRITE_MINUTES} in case an event is lost.
+ */
+@Resource
+@Singleton
+public class PageCache {
+
+  public static final String USERNAME_PLACEHOLDER = "\u0000username\u0000";
+
+  /**
+   * Maximum chars of cached bodies, about 32MB.
+   */
+  private static final long MAXIMUM_WEIGHT = 16 * 1024 * 1024;
+
+  private static final long EXPIRE_AFTER_WRITE_MINUTES = 10;
+
+  private final Cache<Key, Page> cache = Caffeine.newBuilder()
+    .maximumWeight(MAXIMUM_WEIGHT)
+    .<Key, Page>weigher((key, page) -> page.body.length())
+    .expireAfterWrite(EXPIRE_AFTER_WRITE_MINUTES, TimeUnit.MINUTES)
+    .recordStats()
+    .build();
+
+  /**
+   * Incremented on every invalidation, so a body rendered from data read before it is not cached.
+   */
+  private final AtomicLong generation = new AtomicLong();
+
+  public long generation() {
+    return generation.get();
+  }
+
+  /**
+   * Cached body of a page, with the username filled in.
+   *
+   * @return the body, null if not cached
+   */
+  public String get(String name, boolean canSavePage, boolean canDeletePage, String username) {
+    Page page = cache.getIfPresent(new Key(name, canSavePage, canDeletePage));
+    return page != null ? personalize(page.body, username) : null;
+  }
+
+  /**
+   * Cache a body rendered with {@link #USERNAME_PLACEHOLDER}, unless pages changed since {@code generation}.
+   *
+   * @param id the page id, -1 for a page not yet created
+   */
+  public void put(String name, boolean canSavePage, boolean canDeletePage, int id, long generation, String body) {
+    if (generation != this.generation.get()) {
+      return;
+    }
+    Key key = new Key(name, canSavePage, canDeletePage);
+    Page page = new Page(id, body);
+    cache.put(key, page);
+    // An invalidation on another event loop may have run its removal before the entry was inserted
+    if (generation != this.generation.get()) {
+      cache.asMap().remove(key, page);
+    }
+  }
+
+  public String personalize(String body, String username) {
+    return body.replace(USERNAME_PLACEHOLDER, String.valueOf(username));
+  }
+
+  public void invalidate(int id) {
+    generation.incrementAndGet();
+    cache.asMap().values().removeIf(page -> page.id == id);
+  }
+
+  public void invalidate(String name) {
+    generation.incrementAndGet();
+    cache.asMap().keySet().removeIf(key -> key.name.equals(name));
+  }
+
+  /**
+   * Drop the entries of the page of a {@link PageEvents} event, or of a page.saved event.
+   */
+  public void onPageEvent(JsonObject event) {
+    if (event.containsKey("id")) {
+      invalidate(event.getInteger("id"));
+    }
+    if (event.containsKey("name")) {
+      invalidate(event.getString("name"));
+    }
+  }
+
+  public CacheStats stats() {
+    return cache.stats();
+  }
+
+  public long size() {
+    return cache.estimatedSize();
+  }
+
+  public JsonObject metrics() {
+    return CacheMetrics.toJson(cache)
+      .put("generation", generation.get());
+  }
+
+  private static final class Key {
+
+    private final String name;
+    private final boolean canSavePage;
+    private final boolean canDeletePage;
+
+    private Key(String name, boolean canSavePage, boolean canDeletePage) {
+      this.name = name;
+      this.canSavePage = canSavePage;
+      this.canDeletePage = canDeletePage;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      Key key = (Key) o;
+      return canSavePage == key.canSavePage && canDeletePage == key.canDeletePage && name.equals(key.name);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(name, canSavePage, canDeletePage);
+    }
+  }
+
+  private static final class Page {
+
+    private final int id;
+    private final String body;
+
+    private Page(int id, String body) {
+      this.id = id;
+      this.body = body;
+    }
+  }
+}
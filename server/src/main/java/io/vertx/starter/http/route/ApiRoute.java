@@ -1,12 +1,20 @@
 package io.vertx.starter.http.route;
 
-import com.github.rjeschke.txtmark.Processor;
 import com.google.common.net.HttpHeaders;
-import io.reactivex.Observable;
+import io.reactivex.Single;
 import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
+import io.vertx.reactivex.core.http.HttpServerResponse;
 import io.vertx.reactivex.ext.web.RoutingContext;
+import io.vertx.starter.database.PageReadStream;
+import io.vertx.starter.http.auth.AuthCache;
+import io.vertx.starter.http.auth.VerifiedTokenCache;
+import io.vertx.starter.http.cache.PageCache;
+import io.vertx.starter.markdown.MarkdownCache;
+import io.vertx.starter.markdown.MarkdownRenderer;
 import io.vertx.starter.reactivex.database.WikiDatabaseService;
+import org.jspare.vertx.reactivex.web.annotation.InstanceLifecycle;
+import org.jspare.vertx.reactivex.web.annotation.Lifecycle;
 import org.jspare.vertx.reactivex.web.handler.APIHandler;
 import org.jspare.vertx.web.annotation.handler.Handler;
 import org.jspare.vertx.web.annotation.handling.Parameter;
@@ -20,22 +28,60 @@ import org.slf4j.LoggerFactory;
 import javax.inject.Inject;
 import java.util.Arrays;
 
+@InstanceLifecycle(Lifecycle.SINGLETON)
 public class ApiRoute extends APIHandler {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(ApiRoute.class);
 
+  /**
+   * Import and export of every page as NDJSON, below /api.
+   */
+  public static final String BULK_PAGES_PATH = "/pages:bulk";
+
+  private static final String NDJSON = "application/x-ndjson";
+  private static final int IMPORT_CHUNK_SIZE = 500;
+  private static final int EXPORT_CHUNK_SIZE = 500;
+  private static final int DEFAULT_SEARCH_LIMIT = 10;
+  private static final int MAX_SEARCH_LIMIT = 50;
+  private static final int DEFAULT_SUGGEST_LIMIT = 10;
+  private static final int MAX_SUGGEST_LIMIT = 50;
+
   @Inject
   private WikiDatabaseService dbService;
 
+  @Inject
+  private MarkdownCache markdownCache;
+
+  @Inject
+  private MarkdownRenderer markdownRenderer;
+
+  @Inject
+  private PageCache pageCache;
+
+  @Inject
+  private AuthCache authCache;
+
+  @Inject
+  private VerifiedTokenCache verifiedTokenCache;
+
   private void apiResponse(RoutingContext context, int statusCode, String jsonField, Object jsonData) {
+    JsonObject fields = new JsonObject();
+    if (jsonField != null && jsonData != null) fields.put(jsonField, jsonData);
+    apiResponse(context, statusCode, fields);
+  }
+
+  private void apiResponse(RoutingContext context, int statusCode, JsonObject fields) {
     context.response().setStatusCode(statusCode);
     context.response().putHeader(HttpHeaders.CONTENT_TYPE, "application/json");
-    JsonObject wrapped = new JsonObject().put("success", true);
-    if (jsonField != null && jsonData != null) wrapped.put(jsonField, jsonData);
+    JsonObject wrapped = new JsonObject().put("success", true).mergeIn(fields);
     context.response().end(wrapped.encode());
   }
 
   private void apiFailure(RoutingContext context, Throwable t) {
+    if (t instanceof MarkdownRenderer.RejectedRenderException) {
+      apiFailure(context, ((MarkdownRenderer.RejectedRenderException) t).statusCode(), t.getMessage());
+      return;
+    }
     t.printStackTrace();
     apiFailure(context, 500, t.getMessage());
   }
@@ -52,13 +98,168 @@ public class ApiRoute extends APIHandler {
   @Get("/pages")
   @Handler
   public void apiRoot(RoutingContext context) {
-    dbService.rxFetchAllPagesData()
-      .flatMapObservable(Observable::fromIterable)
-      .map(obj -> new JsonObject()
-        .put("id", obj.getInteger("ID"))
-        .put("name", obj.getString("NAME")))
-      .collect(JsonArray::new, JsonArray::add)
-      .subscribe(pages -> apiResponse(context, 200, "pages", pages), t -> apiFailure(context, t));
+    String prefix = context.request().getParam("prefix");
+    String afterName;
+    int limit;
+    try {
+      afterName = PageCursor.decode(context.request().getParam("cursor"));
+      limit = PageCursor.limit(context.request().getParam("limit"));
+    } catch (IllegalArgumentException e) {
+      apiFailure(context, 400, e.getMessage());
+      return;
+    }
+
+    // One more than asked for tells whether there is a next page
+    dbService.rxFetchPageNames(prefix, afterName, limit + 1)
+      .subscribe(pages -> {
+        JsonObject fields = new JsonObject().put("pages", new JsonArray(pages.subList(0, Math.min(limit, pages.size()))));
+        if (pages.size() > limit) {
+          String next = PageCursor.encode(pages.get(limit - 1).getString("name"));
+          fields.put("next", next);
+          context.response().putHeader(HttpHeaders.LINK,
+            "<" + context.request().path() + PageCursor.nextQuery(next, limit, prefix) + ">; rel=\"next\"");
+        }
+        apiResponse(context, 200, fields);
+      }, t -> apiFailure(context, t));
+  }
+
+  //@Auth
+  @Get("/search")
+  @Handler
+  public void apiSearch(RoutingContext context) {
+    String query = context.request().getParam("q");
+    if (query == null || query.trim().isEmpty()) {
+      apiFailure(context, 400, "Missing search query");
+      return;
+    }
+    int limit;
+    try {
+      limit = limitParam(context, DEFAULT_SEARCH_LIMIT, MAX_SEARCH_LIMIT);
+    } catch (IllegalArgumentException e) {
+      apiFailure(context, 400, e.getMessage());
+      return;
+    }
+
+    dbService.rxSearch(query, limit)
+      .subscribe(results -> apiResponse(context, 200, "results", new JsonArray(results)), t -> apiFailure(context, t));
+  }
+
+  //@Auth
+  @Get("/pages/suggest")
+  // Ahead of /pages/:id with router dispatch, the trie prefers the static segment by itself
+  @Handler(order = -1)
+  public void apiSuggestPages(RoutingContext context) {
+    String prefix = context.request().getParam("prefix");
+    int limit;
+    try {
+      limit = limitParam(context, DEFAULT_SUGGEST_LIMIT, MAX_SUGGEST_LIMIT);
+    } catch (IllegalArgumentException e) {
+      apiFailure(context, 400, e.getMessage());
+      return;
+    }
+
+    dbService.rxSuggestPageNames(prefix == null ? "" : prefix, limit)
+      .subscribe(names -> apiResponse(context, 200, "suggestions", new JsonArray(names)), t -> apiFailure(context, t));
+  }
+
+  /**
+   * The limit query param, the default when missing and at most the max.
+   *
+   * @throws IllegalArgumentException when it is not a number
+   */
+  private static int limitParam(RoutingContext context, int defaultLimit, int maxLimit) {
+    String limit = context.request().getParam("limit");
+    if (limit == null) {
+      return defaultLimit;
+    }
+    try {
+      return Math.max(1, Math.min(maxLimit, Integer.parseInt(limit)));
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("Invalid limit " + limit);
+    }
+  }
+
+  //@Auth
+  @Get("/metrics")
+  @Handler
+  public void apiMetrics(RoutingContext context) {
+    dbService.rxFetchPageCacheMetrics()
+      .subscribe(pageRecordCache -> apiResponse(context, 200, "metrics", new JsonObject()
+        .put("markdownCache", markdownCache.metrics())
+        .put("markdownRenderer", markdownRenderer.metrics())
+        .put("pageCache", pageCache.metrics())
+        .put("pageRecordCache", pageRecordCache)
+        .put("authCache", authCache.metrics())
+        .put("verifiedTokenCache", verifiedTokenCache.metrics())), t -> apiFailure(context, t));
+  }
+
+  //@Auth("create")
+  @Post(value = BULK_PAGES_PATH, regex = true)
+  @Handler
+  public void apiImportPages(RoutingContext context) {
+    // The body handler leaves this route alone, the body is read as a stream
+    new PageImport(context.request().getDelegate(), pages -> dbService.rxImportPages(pages), IMPORT_CHUNK_SIZE)
+      .run(ar -> {
+        if (ar.succeeded()) {
+          apiResponse(context, 200, "imported", ar.result());
+        } else if (ar.cause() instanceof PageImport.Failure) {
+          PageImport.Failure failure = (PageImport.Failure) ar.cause();
+          if (failure.statusCode >= 500) {
+            LOGGER.error("Page import failed at line " + failure.line, failure.getCause());
+          }
+          context.response().setStatusCode(failure.statusCode);
+          context.response().putHeader(HttpHeaders.CONTENT_TYPE, "application/json");
+          context.response().end(new JsonObject()
+            .put("success", false)
+            .put("error", failure.getMessage())
+            .put("imported", failure.imported)
+            .put("line", failure.line).encode());
+        } else {
+          apiFailure(context, ar.cause());
+        }
+      });
+  }
+
+  //@Auth
+  @Get(value = BULK_PAGES_PATH, regex = true)
+  @Handler
+  public void apiExportPages(RoutingContext context) {
+    HttpServerResponse response = context.response();
+    PageReadStream pages = new PageReadStream(PageReadStream.ChunkSource.byId(dbService.getDelegate()), EXPORT_CHUNK_SIZE);
+    boolean[] started = {false};
+    Runnable start = () -> {
+      started[0] = true;
+      response
+        .setChunked(true)
+        .putHeader(HttpHeaders.CONTENT_TYPE, NDJSON);
+    };
+    response.closeHandler(v -> pages.pause());
+    pages
+      .handler(page -> {
+        if (!started[0]) {
+          start.run();
+        }
+        response.write(page.encode() + "\n");
+        if (response.writeQueueFull()) {
+          pages.pause();
+          response.drainHandler(v -> pages.resume());
+        }
+      })
+      .endHandler(v -> {
+        if (!started[0]) {
+          start.run();
+        }
+        response.end();
+      })
+      .exceptionHandler(t -> {
+        if (!started[0]) {
+          apiFailure(context, t);
+        } else {
+          // Too late for an error document, cut the stream so the client sees it is incomplete
+          LOGGER.error("Page export failed", t);
+          response.close();
+        }
+      });
   }
 
   //@Auth
@@ -66,13 +267,19 @@ public class ApiRoute extends APIHandler {
   @Handler
   public void apiGetPage(RoutingContext context, @Parameter("id") Integer id) {
     dbService.rxFetchPageById(id)
+      .flatMap(dbObject -> {
+        if (!dbObject.getBoolean("found") || dbObject.containsKey("html")) {
+          return Single.just(dbObject);
+        }
+        return markdownRenderer.render(dbObject.getString("rawContent")).map(html -> dbObject.put("html", html));
+      })
       .subscribe(dbObject -> {
         if (dbObject.getBoolean("found")) {
           JsonObject payload = new JsonObject()
             .put("name", dbObject.getString("name"))
             .put("id", dbObject.getInteger("id"))
-            .put("markdown", dbObject.getString("content"))
-            .put("html", Processor.process(dbObject.getString("content")));
+            .put("markdown", dbObject.getString("rawContent"))
+            .put("html", dbObject.getString("html"));
           apiResponse(context, 200, "page", payload);
         } else {
           apiFailure(context, 404, "There is no page with ID " + id);
@@ -0,0 +1,88 @@
+package io.vertx.starter.http.route;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Continuation token and page size of the page lists, which walk the pages in name order.
+ *
+ * The token holds the last name of the previous page list. Clients pass it back as is, it is versioned so the
+ * ordering can change without old tokens being read the wrong way.
+ */
+final class PageCursor {
+
+  static final int DEFAULT_LIMIT = 100;
+  static final int MAX_LIMIT = 1000;
+
+  private static final String VERSION = "1:";
+
+  private PageCursor() {
+  }
+
+  static String encode(String lastName) {
+    return Base64.getUrlEncoder().withoutPadding()
+      .encodeToString((VERSION + lastName).getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * The last name of a token, null without a token.
+   *
+   * @throws IllegalArgumentException when the token was not made by {@link #encode(String)}
+   */
+  static String decode(String token) {
+    if (token == null || token.isEmpty()) {
+      return null;
+    }
+    String decoded;
+    try {
+      decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+    } catch (IllegalArgumentException e) {
+      throw new IllegalArgumentException("Invalid cursor");
+    }
+    if (!decoded.startsWith(VERSION)) {
+      throw new IllegalArgumentException("Invalid cursor");
+    }
+    return decoded.substring(VERSION.length());
+  }
+
+  /**
+   * The page size asked for, {@link #DEFAULT_LIMIT} when missing and at most {@link #MAX_LIMIT}.
+   *
+   * @throws IllegalArgumentException when it is not a positive number
+   */
+  static int limit(String limit) {
+    if (limit == null || limit.isEmpty()) {
+      return DEFAULT_LIMIT;
+    }
+    int value;
+    try {
+      value = Integer.parseInt(limit);
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("Invalid limit " + limit);
+    }
+    if (value < 1) {
+      throw new IllegalArgumentException("Invalid limit " + limit);
+    }
+    return Math.min(value, MAX_LIMIT);
+  }
+
+  /**
+   * Query string of the next page list.
+   */
+  static String nextQuery(String token, int limit, String prefix) {
+    StringBuilder query = new StringBuilder("?cursor=").append(token);
+    if (limit != DEFAULT_LIMIT) {
+      query.append("&limit=").append(limit);
+    }
+    if (prefix != null && !prefix.isEmpty()) {
+      try {
+        query.append("&prefix=").append(URLEncoder.encode(prefix, "UTF-8"));
+      } catch (UnsupportedEncodingException e) {
+        throw new IllegalStateException(e);
+      }
+    }
+    return query.toString();
+  }
+}
@@ -0,0 +1,195 @@
+package io.vertx.starter.http.route;
+
+import io.reactivex.Single;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.DecodeException;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.streams.ReadStream;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * An NDJSON page import read from a request body, one JSON page per line, imported one chunk of lines at a time.
+ *
+ * The body is paused while a chunk is imported, so at most one chunk and the lines of one buffer are held in memory
+ * whatever the size of the body. Chunks are committed one after the other: when a line is invalid or a chunk fails,
+ * the pages of the lines before it stay imported and the rest of the body is read and dropped. The failure tells the
+ * first line not imported, and the pages imported until then.
+ *
+ * Not thread safe, it is called from the event loop of the request.
+ */
+final class PageImport {
+
+  private final ReadStream<Buffer> body;
+  private final Function<List<JsonObject>, Single<JsonObject>> importer;
+  private final int chunkSize;
+
+  private Buffer partial = Buffer.buffer();
+  private int lineNumber;
+  private List<JsonObject> pending = new ArrayList<>();
+  private int pendingFirstLine;
+  private int created;
+  private int updated;
+  private boolean importing;
+  private boolean ended;
+  private Failure failure;
+  private Handler<AsyncResult<JsonObject>> resultHandler;
+
+  /**
+   * @param body     the request body, paused until {@link #run(Handler)}
+   * @param importer imports a chunk of pages, giving the number of pages {@code created} and {@code updated}
+   */
+  PageImport(ReadStream<Buffer> body, Function<List<JsonObject>, Single<JsonObject>> importer, int chunkSize) {
+    this.body = body;
+    this.importer = importer;
+    this.chunkSize = Math.max(1, chunkSize);
+  }
+
+  /**
+   * Reads the body to its end.
+   *
+   * @param resultHandler the number of pages {@code created} and {@code updated}, or a {@link Failure}
+   */
+  void run(Handler<AsyncResult<JsonObject>> resultHandler) {
+    this.resultHandler = resultHandler;
+    body.exceptionHandler(t -> {
+      if (failure == null) {
+        failure = new Failure(500, "Could not read the pages: " + t.getMessage(), firstLineNotImported(), t);
+      }
+      ended = true;
+      next();
+    });
+    body.endHandler(v -> {
+      if (partial.length() > 0) {
+        line(partial.toString("UTF-8"));
+        partial = Buffer.buffer();
+      }
+      ended = true;
+      next();
+    });
+    body.handler(this::handleData);
+    body.resume();
+  }
+
+  private void handleData(Buffer data) {
+    Buffer buffer = partial.length() == 0 ? data : partial.appendBuffer(data);
+    int start = 0;
+    for (int i = 0; i < buffer.length(); i++) {
+      if (buffer.getByte(i) == '\n') {
+        line(buffer.getString(start, i, "UTF-8"));
+        start = i + 1;
+      }
+    }
+    partial = buffer.getBuffer(start, buffer.length());
+    if (pending.size() >= chunkSize) {
+      importPending();
+    }
+  }
+
+  private void line(String text) {
+    lineNumber++;
+    String json = text.trim();
+    if (failure != null || json.isEmpty()) {
+      return;
+    }
+    JsonObject page;
+    try {
+      page = new JsonObject(json);
+    } catch (DecodeException e) {
+      reject("Line " + lineNumber + " is not a JSON object");
+      return;
+    }
+    if (!(page.getValue("name") instanceof String) || !(page.getValue("markdown") instanceof String)) {
+      reject("Line " + lineNumber + " needs a name and markdown");
+      return;
+    }
+    if (pending.isEmpty()) {
+      pendingFirstLine = lineNumber;
+    }
+    pending.add(page);
+  }
+
+  private void reject(String error) {
+    failure = new Failure(400, error, firstLineNotImported(), null);
+    pending.clear();
+  }
+
+  /**
+   * The first line of the pages not sent to the importer yet, the current line when there are none.
+   */
+  private int firstLineNotImported() {
+    return pending.isEmpty() ? lineNumber : pendingFirstLine;
+  }
+
+  private void importPending() {
+    if (importing || failure != null || pending.isEmpty()) {
+      return;
+    }
+    importing = true;
+    body.pause();
+    List<JsonObject> chunk = pending;
+    int firstLine = pendingFirstLine;
+    pending = new ArrayList<>();
+    importer.apply(chunk).subscribe(imported -> {
+      created += imported.getInteger("created", 0);
+      updated += imported.getInteger("updated", 0);
+      importing = false;
+      next();
+    }, t -> {
+      // Earlier in the body than a line rejected while it ran
+      failure = new Failure(500, t.getMessage(), firstLine, t);
+      pending.clear();
+      importing = false;
+      next();
+    });
+  }
+
+  private void next() {
+    if (importing) {
+      return;
+    }
+    if (failure == null && (pending.size() >= chunkSize || ended && !pending.isEmpty())) {
+      importPending();
+    } else if (!ended) {
+      body.resume();
+    } else {
+      complete();
+    }
+  }
+
+  private void complete() {
+    Handler<AsyncResult<JsonObject>> handler = resultHandler;
+    if (handler == null) {
+      return;
+    }
+    resultHandler = null;
+    JsonObject imported = new JsonObject().put("created", created).put("updated", updated);
+    if (failure != null) {
+      failure.imported = imported;
+      handler.handle(Future.failedFuture(failure));
+    } else {
+      handler.handle(Future.succeededFuture(imported));
+    }
+  }
+
+  /**
+   * An import stopped at a line, the pages of the lines before it are imported.
+   */
+  static final class Failure extends RuntimeException {
+
+    final int statusCode;
+    final int line;
+    JsonObject imported;
+
+    private Failure(int statusCode, String message, int line, Throwable cause) {
+      super(message, cause);
+      this.statusCode = statusCode;
+      this.line = line;
+    }
+  }
+}
@@ -1,17 +1,20 @@
 package io.vertx.starter.http.route;
 
-import com.github.rjeschke.txtmark.Processor;
 import com.google.common.net.HttpHeaders;
 import io.netty.handler.codec.http.HttpResponseStatus;
 import io.reactivex.Completable;
 import io.reactivex.Single;
 import io.vertx.core.json.JsonObject;
-import io.vertx.reactivex.ext.auth.User;
 import io.vertx.reactivex.ext.web.RoutingContext;
 import io.vertx.reactivex.ext.web.client.WebClient;
 import io.vertx.reactivex.ext.web.codec.BodyCodec;
 import io.vertx.reactivex.ext.web.templ.FreeMarkerTemplateEngine;
+import io.vertx.starter.http.auth.PermissionSnapshot;
+import io.vertx.starter.http.cache.PageCache;
+import io.vertx.starter.markdown.MarkdownRenderer;
 import io.vertx.starter.reactivex.database.WikiDatabaseService;
+import org.jspare.vertx.reactivex.web.annotation.InstanceLifecycle;
+import org.jspare.vertx.reactivex.web.annotation.Lifecycle;
 import org.jspare.vertx.reactivex.web.handler.APIHandler;
 import org.jspare.vertx.web.annotation.auth.Auth;
 import org.jspare.vertx.web.annotation.handler.Handler;
@@ -23,7 +26,9 @@ import org.slf4j.LoggerFactory;
 
 import javax.inject.Inject;
 import java.util.Date;
+import java.util.stream.Collectors;
 
+@InstanceLifecycle(Lifecycle.SINGLETON)
 public class PageRoute extends APIHandler {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(PageRoute.class);
@@ -42,6 +47,12 @@ public class PageRoute extends APIHandler {
   @Inject
   private WebClient webClient;
 
+  @Inject
+  private PageCache pageCache;
+
+  @Inject
+  private MarkdownRenderer markdownRenderer;
+
   private static final class UnauthorizedThrowable extends Throwable {
     UnauthorizedThrowable(String message) {
       super(message, null, false, false);
@@ -51,15 +62,16 @@ public class PageRoute extends APIHandler {
   private void onError(RoutingContext context, Throwable t) {
     if (t instanceof UnauthorizedThrowable) {
       context.fail(403);
+    } else if (t instanceof MarkdownRenderer.RejectedRenderException) {
+      context.fail(((MarkdownRenderer.RejectedRenderException) t).statusCode());
     } else {
       context.fail(t);
     }
   }
 
   private Completable checkAuthorised(RoutingContext context, String authority) {
-    return context.user().rxIsAuthorised(authority)
-      .flatMapCompletable(authorized ->
-              authorized ? Completable.complete() : Completable.error(new UnauthorizedThrowable(authority)));
+    return PermissionSnapshot.get(context).has(authority)
+      ? Completable.complete() : Completable.error(new UnauthorizedThrowable(authority));
   }
 
   @Get("/login")
@@ -78,14 +90,28 @@ public class PageRoute extends APIHandler {
   @Get("/")
   @Handler
   public void indexHandler(RoutingContext context) {
-    context.user().rxIsAuthorised("create")
-      .flatMap(canCreatePage -> {
-        context.put("canCreatePage", canCreatePage);
-        return dbService.rxFetchAllPages();
-      })
+    context.put("canCreatePage", PermissionSnapshot.get(context).has("create"));
+    String prefix = context.request().getParam("prefix");
+    String afterName;
+    int limit;
+    try {
+      afterName = PageCursor.decode(context.request().getParam("cursor"));
+      limit = PageCursor.limit(context.request().getParam("limit"));
+    } catch (IllegalArgumentException e) {
+      context.fail(HttpResponseStatus.BAD_REQUEST.code());
+      return;
+    }
+    dbService.rxFetchPageNames(prefix, afterName, limit + 1)
       .flatMap(result -> {
         context.put("title", "Wiki home");
-        context.put("pages", result.getList());
+        context.put("pages", result.stream()
+          .limit(limit)
+          .map(page -> page.getString("name"))
+          .collect(Collectors.toList()));
+        if (result.size() > limit) {
+          context.put("next_page", "/" + PageCursor.nextQuery(
+            PageCursor.encode(result.get(limit - 1).getString("name")), limit, prefix));
+        }
         context.put("username", context.user().principal().getString("username"));
         return templateEngine.rxRender(context, "templates", "/index.ftl");
       })
@@ -96,36 +122,54 @@ public class PageRoute extends APIHandler {
       }, context::fail);
   }
 
+
   @Auth
   @Get("/wiki/:page")
   @Handler
   public void pageRenderingHandler(@Parameter("page") String requestedPage, RoutingContext context) {
-    User user = context.user();
-
-    context.user().rxIsAuthorised("create")
-      .flatMap(canSavePage -> {
-        context.put("canSavePage", canSavePage);
-        return user.rxIsAuthorised("delete");
-      }).flatMap(canDeletePage -> {
-      context.put("canDeletePage", canDeletePage);
-      context.put("title", requestedPage);
-      return dbService.rxFetchPage(requestedPage);
-    }).flatMap(payLoad -> {
+    String username = context.user().principal().getString("username");
+    PermissionSnapshot permissions = PermissionSnapshot.get(context);
+    boolean canSavePage = permissions.has("create");
+    boolean canDeletePage = permissions.has("delete");
+    context.put("canSavePage", canSavePage);
+    context.put("canDeletePage", canDeletePage);
+
+    String cached = pageCache.get(requestedPage, canSavePage, canDeletePage, username);
+    if (cached != null) {
+      context.response()
+        .putHeader(HttpHeaders.CONTENT_TYPE, "text/html")
+        .end(cached);
+      return;
+    }
+    renderPage(context, requestedPage, canSavePage, canDeletePage)
+      .map(markup -> pageCache.personalize(markup, username))
+      .subscribe(markup -> {
+        context.response()
+          .putHeader(HttpHeaders.CONTENT_TYPE, "text/html")
+          .end(markup);
+      },
+      t -> onError(context, t));
+  }
+
+  private Single<String> renderPage(RoutingContext context, String requestedPage, boolean canSavePage,
+                                    boolean canDeletePage) {
+    long generation = pageCache.generation();
+    context.put("title", requestedPage);
+    return dbService.rxFetchPage(requestedPage).flatMap(payLoad -> {
       boolean found = payLoad.getBoolean("found");
       String rawContent = payLoad.getString("rawContent", EMPTY_PAGE_MARKDOWN);
       context.put("id", payLoad.getInteger("id", -1));
       context.put("newPage", found ? "no" : "yes");
       context.put("rawContent", rawContent);
-      context.put("content", Processor.process(rawContent));
+      String html = payLoad.getString("html");
+      return html != null ? Single.just(html) : markdownRenderer.render(rawContent);
+    }).flatMap(content -> {
+      context.put("content", content);
       context.put("timestamp", new Date().toString());
-      context.put("username", user.principal().getString("username"));
+      context.put("username", PageCache.USERNAME_PLACEHOLDER);
       return templateEngine.rxRender(context, "templates", "/page.ftl");
-    }).subscribe(markup -> {
-        context.response()
-          .putHeader(HttpHeaders.CONTENT_TYPE, "text/html")
-          .end(markup);
-      },
-      context::fail);
+    }).map(Object::toString).doOnSuccess(markup -> pageCache.put(requestedPage, canSavePage, canDeletePage, context.get("id"), generation,
+      markup));
   }
 
   @Auth
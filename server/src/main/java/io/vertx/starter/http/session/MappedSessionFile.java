@@ -0,0 +1,205 @@
+package io.vertx.starter.http.session;
+
+import io.vertx.core.buffer.Buffer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Fixed-size slots of encoded sessions in a memory-mapped file, one session per slot.
+ *
+ * The file starts with a header (magic, slot size, slot count); each slot holds the length of its session, the time
+ * it expires at and the {@link SessionCodec} bytes. The id to slot index is kept on the heap and rebuilt from the
+ * slots when the file is opened again, dropping the expired sessions. All methods are synchronized, they only copy
+ * memory.
+ */
+final class MappedSessionFile {
+
+  private static final Logger logger = LoggerFactory.getLogger(MappedSessionFile.class);
+
+  private static final int MAGIC = 0x57534553;
+  private static final int FILE_HEADER = 16;
+  private static final int SLOT_HEADER = 12;
+
+  private final RandomAccessFile file;
+  private final MappedByteBuffer buffer;
+  private final int slotSize;
+  private final int slots;
+
+  private final Map<String, Integer> index = new HashMap<>();
+  private final long[] expiresAt;
+  private final Deque<Integer> free = new ArrayDeque<>();
+
+  private MappedSessionFile(RandomAccessFile file, MappedByteBuffer buffer, int slotSize, int slots) {
+    this.file = file;
+    this.buffer = buffer;
+    this.slotSize = slotSize;
+    this.slots = slots;
+    this.expiresAt = new long[slots];
+  }
+
+  static MappedSessionFile open(Path path, int slots, int slotSize) {
+    try {
+      long length = FILE_HEADER + (long) slots * slotSize;
+      if (length > Integer.MAX_VALUE) {
+        throw new IllegalArgumentException("Session file of " + length + " bytes is too large");
+      }
+      RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw");
+      boolean reuse = file.length() == length && file.readInt() == MAGIC && file.readInt() == slotSize
+        && file.readInt() == slots;
+      if (!reuse && file.length() > 0) {
+        logger.warn("Session file {} has another layout, its sessions are dropped", path);
+      }
+      if (!reuse) {
+        file.setLength(0);
+        file.setLength(length);
+      }
+      MappedByteBuffer buffer = file.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, length);
+      buffer.putInt(0, MAGIC).putInt(4, slotSize).putInt(8, slots);
+
+      MappedSessionFile sessionFile = new MappedSessionFile(file, buffer, slotSize, slots);
+      sessionFile.load(System.currentTimeMillis());
+      return sessionFile;
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private void load(long now) {
+    for (int slot = slots - 1; slot >= 0; slot--) {
+      int offset = offset(slot);
+      int length = buffer.getInt(offset);
+      if (length <= 0 || length > slotSize - SLOT_HEADER || buffer.getLong(offset + 4) < now) {
+        buffer.putInt(offset, 0);
+        free.push(slot);
+        continue;
+      }
+      try {
+        String id = SessionCodec.decodeHeader(read(slot, length)).id;
+        Integer previous = index.put(id, slot);
+        if (previous != null) {
+          release(previous);
+        }
+        expiresAt[slot] = buffer.getLong(offset + 4);
+      } catch (RuntimeException e) {
+        buffer.putInt(offset, 0);
+        free.push(slot);
+      }
+    }
+    if (!index.isEmpty()) {
+      logger.info("Loaded {} sessions", index.size());
+    }
+  }
+
+  synchronized Buffer get(String id, long now) {
+    Integer slot = index.get(id);
+    if (slot == null) {
+      return null;
+    }
+    if (expiresAt[slot] < now) {
+      index.remove(id);
+      release(slot);
+      return null;
+    }
+    return read(slot, buffer.getInt(offset(slot)));
+  }
+
+  synchronized void put(String id, Buffer session, long expiresAt) {
+    int length = session.length();
+    if (length > slotSize - SLOT_HEADER) {
+      throw new IllegalStateException("Session of " + length + " bytes does not fit in slots of " + slotSize);
+    }
+    Integer slot = index.get(id);
+    if (slot == null) {
+      slot = free.poll();
+      if (slot == null) {
+        throw new IllegalStateException("Session file is full, " + slots + " sessions");
+      }
+      index.put(id, slot);
+    }
+    int offset = offset(slot);
+    // Length last, so a slot read after a crash holds a whole session or is free
+    buffer.putInt(offset, 0);
+    buffer.putLong(offset + 4, expiresAt);
+    ByteBuffer slice = buffer.duplicate();
+    slice.position(offset + SLOT_HEADER);
+    slice.put(session.getBytes());
+    buffer.putInt(offset, length);
+    this.expiresAt[slot] = expiresAt;
+  }
+
+  synchronized void remove(String id) {
+    Integer slot = index.remove(id);
+    if (slot != null) {
+      release(slot);
+    }
+  }
+
+  synchronized void clear() {
+    for (Integer slot : index.values()) {
+      release(slot);
+    }
+    index.clear();
+  }
+
+  synchronized int size() {
+    return index.size();
+  }
+
+  /**
+   * Drop the expired sessions.
+   *
+   * @return the number of sessions dropped
+   */
+  synchronized int reap(long now) {
+    int reaped = 0;
+    for (Iterator<Integer> it = index.values().iterator(); it.hasNext(); ) {
+      int slot = it.next();
+      if (expiresAt[slot] < now) {
+        it.remove();
+        release(slot);
+        reaped++;
+      }
+    }
+    return reaped;
+  }
+
+  synchronized void close() {
+    buffer.force();
+    try {
+      file.close();
+    } catch (IOException e) {
+      logger.warn("Could not close the session file", e);
+    }
+  }
+
+  private Buffer read(int slot, int length) {
+    byte[] bytes = new byte[length];
+    ByteBuffer slice = buffer.duplicate();
+    slice.position(offset(slot) + SLOT_HEADER);
+    slice.get(bytes);
+    return Buffer.buffer(bytes);
+  }
+
+  private void release(int slot) {
+    buffer.putInt(offset(slot), 0);
+    expiresAt[slot] = 0;
+    free.push(slot);
+  }
+
+  private int offset(int slot) {
+    return FILE_HEADER + slot * slotSize;
+  }
+}
@@ -0,0 +1,138 @@
+package io.vertx.starter.http.session;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.ext.auth.PRNG;
+import io.vertx.ext.web.Session;
+import io.vertx.ext.web.sstore.SessionStore;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Session store over a memory-mapped {@link MappedSessionFile}. Sessions live off-heap, are read and written without
+ * leaving the event loop, and survive a restart of the JVM. The stores of every http verticle of the JVM share the
+ * file of a path.
+ */
+public class MappedSessionStore implements SessionStore {
+
+  public static final long DEFAULT_REAPER_INTERVAL = 1_000;
+
+  private static final Map<Path, SharedFile> FILES = new HashMap<>();
+
+  private final Vertx vertx;
+  private final Path path;
+  private final MappedSessionFile file;
+  private final PRNG random;
+  private final long timerId;
+
+  private static final class SharedFile {
+
+    private final MappedSessionFile file;
+    private int references;
+
+    private SharedFile(MappedSessionFile file) {
+      this.file = file;
+    }
+  }
+
+  public MappedSessionStore(Vertx vertx, Path path, int slots, int slotSize, long reaperInterval) {
+    this.vertx = vertx;
+    this.path = path.toAbsolutePath().normalize();
+    this.file = acquire(this.path, slots, slotSize);
+    this.random = new PRNG(vertx);
+    this.timerId = vertx.setPeriodic(reaperInterval, id -> file.reap(System.currentTimeMillis()));
+  }
+
+  private static MappedSessionFile acquire(Path path, int slots, int slotSize) {
+    synchronized (FILES) {
+      SharedFile shared = FILES.computeIfAbsent(path, p -> new SharedFile(MappedSessionFile.open(p, slots, slotSize)));
+      shared.references++;
+      return shared.file;
+    }
+  }
+
+  private static void release(Path path) {
+    synchronized (FILES) {
+      SharedFile shared = FILES.get(path);
+      if (shared != null && --shared.references == 0) {
+        FILES.remove(path);
+        shared.file.close();
+      }
+    }
+  }
+
+  @Override
+  public long retryTimeout() {
+    return 0;
+  }
+
+  @Override
+  public Session createSession(long timeout) {
+    return createSession(timeout, DEFAULT_SESSIONID_LENGTH);
+  }
+
+  @Override
+  public Session createSession(long timeout, int length) {
+    return new StoredSession(random, timeout, length);
+  }
+
+  @Override
+  public void get(String id, Handler<AsyncResult<Session>> resultHandler) {
+    Buffer buffer = file.get(id, System.currentTimeMillis());
+    resultHandler.handle(Future.succeededFuture(buffer != null ? StoredSession.decode(random, buffer) : null));
+  }
+
+  @Override
+  public void delete(String id, Handler<AsyncResult<Void>> resultHandler) {
+    file.remove(id);
+    resultHandler.handle(Future.succeededFuture());
+  }
+
+  @Override
+  public void put(Session session, Handler<AsyncResult<Void>> resultHandler) {
+    StoredSession newSession = (StoredSession) session;
+    boolean stored;
+    try {
+      stored = put(newSession);
+    } catch (RuntimeException e) {
+      resultHandler.handle(Future.failedFuture(e));
+      return;
+    }
+    resultHandler.handle(stored ? Future.succeededFuture() : Future.failedFuture("Version mismatch"));
+  }
+
+  private boolean put(StoredSession session) {
+    synchronized (file) {
+      Buffer stored = file.get(session.id(), System.currentTimeMillis());
+      if (stored != null && SessionCodec.decodeHeader(stored).version != session.version()) {
+        return false;
+      }
+      session.incrementVersion();
+      file.put(session.id(), session.encode(), session.lastAccessed() + session.timeout());
+    }
+    return true;
+  }
+
+  @Override
+  public void clear(Handler<AsyncResult<Void>> resultHandler) {
+    file.clear();
+    resultHandler.handle(Future.succeededFuture());
+  }
+
+  @Override
+  public void size(Handler<AsyncResult<Integer>> resultHandler) {
+    resultHandler.handle(Future.succeededFuture(file.size()));
+  }
+
+  @Override
+  public void close() {
+    vertx.cancelTimer(timerId);
+    random.close();
+    release(path);
+  }
+}
@@ -0,0 +1,239 @@
+package io.vertx.starter.http.session;
+
+import io.vertx.core.VertxException;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.shareddata.impl.ClusterSerializable;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Binary encoding of the sessions written by the wiki session stores.
+ *
+ * A session is a small header (id, timeout, last access, version) followed by the length of its data section, so a
+ * store can read the header and keep the data as bytes until a handler uses it. Lengths and numbers are varints and
+ * booleans are part of the type tag, so a session holding a user and a few flags fits in a few hundred bytes.
+ */
+final class SessionCodec {
+
+  private static final byte FORMAT = 1;
+
+  private static final byte TYPE_STRING = 1;
+  private static final byte TYPE_INT = 2;
+  private static final byte TYPE_LONG = 3;
+  private static final byte TYPE_TRUE = 4;
+  private static final byte TYPE_FALSE = 5;
+  private static final byte TYPE_DOUBLE = 6;
+  private static final byte TYPE_JSON_OBJECT = 7;
+  private static final byte TYPE_JSON_ARRAY = 8;
+  private static final byte TYPE_BUFFER = 9;
+  private static final byte TYPE_BYTES = 10;
+  private static final byte TYPE_CLUSTER_SERIALIZABLE = 11;
+
+  private SessionCodec() {
+  }
+
+  /**
+   * Decoded header of an encoded session, with the bounds of its data section.
+   */
+  static final class Header {
+
+    final String id;
+    final long timeout;
+    final long lastAccessed;
+    final int version;
+    final int dataStart;
+    final int dataEnd;
+
+    private Header(String id, long timeout, long lastAccessed, int version, int dataStart, int dataEnd) {
+      this.id = id;
+      this.timeout = timeout;
+      this.lastAccessed = lastAccessed;
+      this.version = version;
+      this.dataStart = dataStart;
+      this.dataEnd = dataEnd;
+    }
+  }
+
+  static Buffer encode(String id, long timeout, long lastAccessed, int version, Buffer data) {
+    Buffer buffer = Buffer.buffer(32 + id.length() + data.length());
+    buffer.appendByte(FORMAT);
+    writeString(buffer, id);
+    writeVarLong(buffer, timeout);
+    buffer.appendLong(lastAccessed);
+    writeVarLong(buffer, version);
+    writeVarLong(buffer, data.length());
+    buffer.appendBuffer(data);
+    return buffer;
+  }
+
+  static Header decodeHeader(Buffer buffer) {
+    int[] pos = {0};
+    byte format = buffer.getByte(pos[0]++);
+    if (format != FORMAT) {
+      throw new VertxException("Unknown session format " + format);
+    }
+    String id = readString(buffer, pos);
+    long timeout = readVarLong(buffer, pos);
+    long lastAccessed = buffer.getLong(pos[0]);
+    pos[0] += 8;
+    int version = (int) readVarLong(buffer, pos);
+    int length = (int) readVarLong(buffer, pos);
+    return new Header(id, timeout, lastAccessed, version, pos[0], pos[0] + length);
+  }
+
+  static Buffer encodeData(Map<String, Object> data) {
+    Buffer buffer = Buffer.buffer();
+    writeVarLong(buffer, data.size());
+    for (Map.Entry<String, Object> entry : data.entrySet()) {
+      writeString(buffer, entry.getKey());
+      writeValue(buffer, entry.getKey(), entry.getValue());
+    }
+    return buffer;
+  }
+
+  static Map<String, Object> decodeData(Buffer buffer) {
+    int[] pos = {0};
+    int size = (int) readVarLong(buffer, pos);
+    Map<String, Object> data = new ConcurrentHashMap<>(Math.max(16, size * 2));
+    for (int i = 0; i < size; i++) {
+      String key = readString(buffer, pos);
+      data.put(key, readValue(buffer, pos));
+    }
+    return data;
+  }
+
+  private static void writeValue(Buffer buffer, String key, Object value) {
+    if (value instanceof String) {
+      buffer.appendByte(TYPE_STRING);
+      writeString(buffer, (String) value);
+    } else if (value instanceof Integer) {
+      buffer.appendByte(TYPE_INT);
+      writeVarLong(buffer, zigZag((Integer) value));
+    } else if (value instanceof Long) {
+      buffer.appendByte(TYPE_LONG);
+      writeVarLong(buffer, zigZag((Long) value));
+    } else if (value instanceof Boolean) {
+      buffer.appendByte((Boolean) value ? TYPE_TRUE : TYPE_FALSE);
+    } else if (value instanceof Double) {
+      buffer.appendByte(TYPE_DOUBLE);
+      buffer.appendDouble((Double) value);
+    } else if (value instanceof JsonObject) {
+      buffer.appendByte(TYPE_JSON_OBJECT);
+      writeString(buffer, ((JsonObject) value).encode());
+    } else if (value instanceof JsonArray) {
+      buffer.appendByte(TYPE_JSON_ARRAY);
+      writeString(buffer, ((JsonArray) value).encode());
+    } else if (value instanceof Buffer) {
+      buffer.appendByte(TYPE_BUFFER);
+      writeVarLong(buffer, ((Buffer) value).length());
+      buffer.appendBuffer((Buffer) value);
+    } else if (value instanceof byte[]) {
+      buffer.appendByte(TYPE_BYTES);
+      writeVarLong(buffer, ((byte[]) value).length);
+      buffer.appendBytes((byte[]) value);
+    } else if (value instanceof ClusterSerializable) {
+      buffer.appendByte(TYPE_CLUSTER_SERIALIZABLE);
+      writeString(buffer, value.getClass().getName());
+      Buffer serialized = Buffer.buffer();
+      ((ClusterSerializable) value).writeToBuffer(serialized);
+      writeVarLong(buffer, serialized.length());
+      buffer.appendBuffer(serialized);
+    } else {
+      throw new IllegalStateException("Session value " + key + " of type "
+        + (value == null ? null : value.getClass().getName()) + " cannot be stored");
+    }
+  }
+
+  private static Object readValue(Buffer buffer, int[] pos) {
+    byte type = buffer.getByte(pos[0]++);
+    switch (type) {
+      case TYPE_STRING:
+        return readString(buffer, pos);
+      case TYPE_INT:
+        return (int) unZigZag(readVarLong(buffer, pos));
+      case TYPE_LONG:
+        return unZigZag(readVarLong(buffer, pos));
+      case TYPE_TRUE:
+        return true;
+      case TYPE_FALSE:
+        return false;
+      case TYPE_DOUBLE: {
+        double value = buffer.getDouble(pos[0]);
+        pos[0] += 8;
+        return value;
+      }
+      case TYPE_JSON_OBJECT:
+        return new JsonObject(readString(buffer, pos));
+      case TYPE_JSON_ARRAY:
+        return new JsonArray(readString(buffer, pos));
+      case TYPE_BUFFER:
+        return Buffer.buffer(readBytes(buffer, pos));
+      case TYPE_BYTES:
+        return readBytes(buffer, pos);
+      case TYPE_CLUSTER_SERIALIZABLE: {
+        String className = readString(buffer, pos);
+        byte[] bytes = readBytes(buffer, pos);
+        try {
+          ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+          ClusterSerializable value = (ClusterSerializable) Class.forName(className, true,
+            classLoader != null ? classLoader : SessionCodec.class.getClassLoader()).newInstance();
+          value.readFromBuffer(0, Buffer.buffer(bytes));
+          return value;
+        } catch (ReflectiveOperationException e) {
+          throw new VertxException(e);
+        }
+      }
+      default:
+        throw new VertxException("Unknown session value type " + type);
+    }
+  }
+
+  private static void writeString(Buffer buffer, String value) {
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    writeVarLong(buffer, bytes.length);
+    buffer.appendBytes(bytes);
+  }
+
+  private static String readString(Buffer buffer, int[] pos) {
+    return new String(readBytes(buffer, pos), StandardCharsets.UTF_8);
+  }
+
+  private static byte[] readBytes(Buffer buffer, int[] pos) {
+    int length = (int) readVarLong(buffer, pos);
+    byte[] bytes = buffer.getBytes(pos[0], pos[0] + length);
+    pos[0] += length;
+    return bytes;
+  }
+
+  private static void writeVarLong(Buffer buffer, long value) {
+    while ((value & ~0x7FL) != 0) {
+      buffer.appendByte((byte) ((value & 0x7F) | 0x80));
+      value >>>= 7;
+    }
+    buffer.appendByte((byte) value);
+  }
+
+  private static long readVarLong(Buffer buffer, int[] pos) {
+    long value = 0;
+    int shift = 0;
+    byte b;
+    do {
+      b = buffer.getByte(pos[0]++);
+      value |= (long) (b & 0x7F) << shift;
+      shift += 7;
+    } while ((b & 0x80) != 0);
+    return value;
+  }
+
+  private static long zigZag(long value) {
+    return (value << 1) ^ (value >> 63);
+  }
+
+  private static long unZigZag(long value) {
+    return (value >>> 1) ^ -(value & 1);
+  }
+}
@@ -0,0 +1,52 @@
+package io.vertx.starter.http.session;
+
+import io.vertx.core.json.JsonObject;
+import io.vertx.reactivex.core.Vertx;
+import io.vertx.reactivex.ext.web.sstore.LocalSessionStore;
+import io.vertx.reactivex.ext.web.sstore.SessionStore;
+
+import java.nio.file.Paths;
+
+/**
+ * Session store of the http verticles, chosen by {@link #CONFIG_SESSION_STORE}:
+ * <ul>
+ * <li>{@code local} (default): the vert.x local store, sessions of one JVM;</li>
+ * <li>{@code shared}: a {@link SharedDataSessionStore}, sessions of every node of the cluster;</li>
+ * <li>{@code mmap}: a {@link MappedSessionStore}, sessions of one JVM kept in a file across restarts.</li>
+ * </ul>
+ */
+public final class SessionStores {
+
+  public static final String CONFIG_SESSION_STORE = "http.server.session_store";
+  public static final String CONFIG_SESSION_STORE_MAP = "http.server.session_store.map";
+  public static final String CONFIG_SESSION_STORE_RETRY_TIMEOUT = "http.server.session_store.retry_timeout";
+  public static final String CONFIG_SESSION_STORE_PATH = "http.server.session_store.path";
+  public static final String CONFIG_SESSION_STORE_SLOTS = "http.server.session_store.slots";
+  public static final String CONFIG_SESSION_STORE_SLOT_SIZE = "http.server.session_store.slot_size";
+
+  private SessionStores() {
+  }
+
+  public static SessionStore create(Vertx vertx, JsonObject config) {
+    String type = config.getString(CONFIG_SESSION_STORE, "local");
+    switch (type) {
+      case "local":
+        return LocalSessionStore.create(vertx);
+      case "shared": {
+        // The cluster wide map may lag behind a write on another node, a clustered store waits for it
+        long defaultRetryTimeout = vertx.isClustered() ? SharedDataSessionStore.DEFAULT_RETRY_TIMEOUT : 0;
+        return SessionStore.newInstance(new SharedDataSessionStore(vertx.getDelegate(),
+          config.getString(CONFIG_SESSION_STORE_MAP, SharedDataSessionStore.DEFAULT_MAP_NAME),
+          config.getLong(CONFIG_SESSION_STORE_RETRY_TIMEOUT, defaultRetryTimeout)));
+      }
+      case "mmap":
+        return SessionStore.newInstance(new MappedSessionStore(vertx.getDelegate(),
+          Paths.get(config.getString(CONFIG_SESSION_STORE_PATH, "sessions.dat")),
+          config.getInteger(CONFIG_SESSION_STORE_SLOTS, 8192),
+          config.getInteger(CONFIG_SESSION_STORE_SLOT_SIZE, 4096),
+          MappedSessionStore.DEFAULT_REAPER_INTERVAL));
+      default:
+        throw new IllegalArgumentException("Unknown session store " + type);
+    }
+  }
+}
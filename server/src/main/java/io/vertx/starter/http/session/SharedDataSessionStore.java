@@ -0,0 +1,117 @@
+package io.vertx.starter.http.session;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.shareddata.AsyncMap;
+import io.vertx.ext.auth.PRNG;
+import io.vertx.ext.web.Session;
+import io.vertx.ext.web.sstore.SessionStore;
+
+/**
+ * Session store over a shared-data async map: cluster wide when Vert.x is clustered, shared by the verticles of the
+ * JVM otherwise. Sessions are kept as {@link SessionCodec} buffers and expire with the map entry.
+ */
+public class SharedDataSessionStore implements SessionStore {
+
+  public static final String DEFAULT_MAP_NAME = "wiki.sessions";
+  public static final long DEFAULT_RETRY_TIMEOUT = 5_000;
+
+  private final Vertx vertx;
+  private final String mapName;
+  private final long retryTimeout;
+  private final PRNG random;
+  private volatile AsyncMap<String, Buffer> map;
+
+  public SharedDataSessionStore(Vertx vertx, String mapName, long retryTimeout) {
+    this.vertx = vertx;
+    this.mapName = mapName;
+    this.retryTimeout = retryTimeout;
+    this.random = new PRNG(vertx);
+  }
+
+  @Override
+  public long retryTimeout() {
+    return retryTimeout;
+  }
+
+  @Override
+  public Session createSession(long timeout) {
+    return createSession(timeout, DEFAULT_SESSIONID_LENGTH);
+  }
+
+  @Override
+  public Session createSession(long timeout, int length) {
+    return new StoredSession(random, timeout, length);
+  }
+
+  @Override
+  public void get(String id, Handler<AsyncResult<Session>> resultHandler) {
+    withMap(resultHandler, map -> map.get(id, ar -> {
+      if (ar.failed()) {
+        resultHandler.handle(Future.failedFuture(ar.cause()));
+        return;
+      }
+      Buffer buffer = ar.result();
+      StoredSession session = buffer != null ? StoredSession.decode(random, buffer) : null;
+      resultHandler.handle(Future.succeededFuture(session));
+    }));
+  }
+
+  @Override
+  public void delete(String id, Handler<AsyncResult<Void>> resultHandler) {
+    withMap(resultHandler, map -> map.remove(id, ar -> resultHandler.handle(ar.map((Void) null))));
+  }
+
+  @Override
+  public void put(Session session, Handler<AsyncResult<Void>> resultHandler) {
+    StoredSession newSession = (StoredSession) session;
+    withMap(resultHandler, map -> map.get(newSession.id(), ar -> {
+      if (ar.failed()) {
+        resultHandler.handle(Future.failedFuture(ar.cause()));
+        return;
+      }
+      // Same optimistic check as the vert.x stores: a concurrent request saved the session first
+      Buffer stored = ar.result();
+      if (stored != null && SessionCodec.decodeHeader(stored).version != newSession.version()) {
+        resultHandler.handle(Future.failedFuture("Version mismatch"));
+        return;
+      }
+      newSession.incrementVersion();
+      map.put(newSession.id(), newSession.encode(), newSession.timeout(), resultHandler);
+    }));
+  }
+
+  @Override
+  public void clear(Handler<AsyncResult<Void>> resultHandler) {
+    withMap(resultHandler, map -> map.clear(resultHandler));
+  }
+
+  @Override
+  public void size(Handler<AsyncResult<Integer>> resultHandler) {
+    withMap(resultHandler, map -> map.size(resultHandler));
+  }
+
+  @Override
+  public void close() {
+    random.close();
+  }
+
+  private <T> void withMap(Handler<AsyncResult<T>> resultHandler, Handler<AsyncMap<String, Buffer>> action) {
+    AsyncMap<String, Buffer> current = map;
+    if (current != null) {
+      action.handle(current);
+      return;
+    }
+    vertx.sharedData().<String, Buffer>getAsyncMap(mapName, ar -> {
+      if (ar.failed()) {
+        resultHandler.handle(Future.failedFuture(ar.cause()));
+        return;
+      }
+      map = ar.result();
+      action.handle(map);
+    });
+  }
+}
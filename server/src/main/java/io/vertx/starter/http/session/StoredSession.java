@@ -0,0 +1,183 @@
+package io.vertx.starter.http.session;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.ext.auth.PRNG;
+import io.vertx.ext.web.Session;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Session of the wiki session stores. A session read from a store keeps its data encoded until a handler reads or
+ * writes it, and is written back from those bytes when it was not touched.
+ */
+final class StoredSession implements Session {
+
+  private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+  private final PRNG random;
+  private final int idLength;
+  private final long timeout;
+  private String id;
+  private long lastAccessed;
+  private int version;
+  private boolean destroyed;
+  private boolean regenerated;
+  private String oldId;
+
+  private Buffer encodedData;
+  private volatile Map<String, Object> data;
+
+  StoredSession(PRNG random, long timeout, int idLength) {
+    this.random = random;
+    this.idLength = idLength;
+    this.timeout = timeout;
+    this.id = generateId();
+    this.lastAccessed = System.currentTimeMillis();
+    this.data = new ConcurrentHashMap<>();
+  }
+
+  private StoredSession(PRNG random, SessionCodec.Header header, Buffer encodedData) {
+    this.random = random;
+    this.idLength = header.id.length() / 2;
+    this.timeout = header.timeout;
+    this.id = header.id;
+    this.lastAccessed = header.lastAccessed;
+    this.version = header.version;
+    this.encodedData = encodedData;
+  }
+
+  /**
+   * Session of an encoded buffer, only its header is decoded.
+   */
+  static StoredSession decode(PRNG random, Buffer buffer) {
+    SessionCodec.Header header = SessionCodec.decodeHeader(buffer);
+    return new StoredSession(random, header, buffer.getBuffer(header.dataStart, header.dataEnd));
+  }
+
+  Buffer encode() {
+    Buffer encoded = data == null ? encodedData : SessionCodec.encodeData(data);
+    return SessionCodec.encode(id, timeout, lastAccessed, version, encoded);
+  }
+
+  int version() {
+    return version;
+  }
+
+  void incrementVersion() {
+    version++;
+  }
+
+  /**
+   * Whether the data was decoded, for tests.
+   */
+  boolean decoded() {
+    return data != null;
+  }
+
+  private Map<String, Object> data0() {
+    Map<String, Object> decoded = data;
+    if (decoded == null) {
+      synchronized (this) {
+        decoded = data;
+        if (decoded == null) {
+          decoded = SessionCodec.decodeData(encodedData);
+          data = decoded;
+          encodedData = null;
+        }
+      }
+    }
+    return decoded;
+  }
+
+  @Override
+  public Session regenerateId() {
+    if (oldId == null) {
+      oldId = id;
+    }
+    id = generateId();
+    regenerated = true;
+    return this;
+  }
+
+  @Override
+  public String id() {
+    return id;
+  }
+
+  @Override
+  public Session put(String key, Object obj) {
+    if (obj == null) {
+      data0().remove(key);
+    } else {
+      data0().put(key, obj);
+    }
+    return this;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public <T> T get(String key) {
+    return (T) data0().get(key);
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public <T> T remove(String key) {
+    return (T) data0().remove(key);
+  }
+
+  @Override
+  public Map<String, Object> data() {
+    return data0();
+  }
+
+  @Override
+  public long lastAccessed() {
+    return lastAccessed;
+  }
+
+  @Override
+  public void destroy() {
+    destroyed = true;
+    data = new ConcurrentHashMap<>();
+    encodedData = null;
+  }
+
+  @Override
+  public boolean isDestroyed() {
+    return destroyed;
+  }
+
+  @Override
+  public boolean isRegenerated() {
+    return regenerated;
+  }
+
+  @Override
+  public String oldId() {
+    return oldId;
+  }
+
+  @Override
+  public long timeout() {
+    return timeout;
+  }
+
+  @Override
+  public void setAccessed() {
+    lastAccessed = System.currentTimeMillis();
+  }
+
+  private String generateId() {
+    byte[] bytes = new byte[idLength];
+    random.nextBytes(bytes);
+    char[] hex = new char[bytes.length * 2];
+    for (int i = 0; i < bytes.length; i++) {
+      int b = bytes[i] & 0xFF;
+      hex[i * 2] = HEX[b >>> 4];
+      hex[i * 2 + 1] = HEX[b & 0x0F];
+    }
+    return new String(hex);
+  }
+}
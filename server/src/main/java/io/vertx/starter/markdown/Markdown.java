@@ -0,0 +1,22 @@
+package io.vertx.starter.markdown;
+
+import com.github.rjeschke.txtmark.Processor;
+
+/**
+ * The markdown to HTML conversion of the wiki.
+ */
+public final class Markdown {
+
+  /**
+   * Version of the HTML produced by {@link #toHtml(String)}, stored with pre-rendered pages. Increment it when the
+   * output changes (txtmark upgrade or configuration), so stored pages are rendered again.
+   */
+  public static final int VERSION = 1;
+
+  private Markdown() {
+  }
+
+  public static String toHtml(String markdown) {
+    return Processor.process(markdown);
+  }
+}
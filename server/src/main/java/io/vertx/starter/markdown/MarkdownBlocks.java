@@ -0,0 +1,157 @@
+package io.vertx.starter.markdown;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Splits markdown into top-level blocks that render the same alone as within the document.
+ *
+ * Blocks are separated by blank lines, except before indented lines (code or list continuation), between list items,
+ * between the quoted lines of a blockquote, inside fences and inside HTML blocks and comments, as txtmark reads them.
+ * Documents with link reference definitions are not split, as a definition applies to all blocks.
+ */
+final class MarkdownBlocks {
+
+  private static final Pattern REFERENCE_DEFINITION = Pattern.compile("(?m)^ {0,3}\\[[^\\]]+\\]:");
+  private static final Pattern LIST_ITEM = Pattern.compile("^ {0,3}([*+-]|\\d+\\.)\\s.*");
+  private static final Pattern QUOTE = Pattern.compile("^ {0,3}>.*");
+
+  /**
+   * The block-level elements txtmark leaves as is, up to their closing tag; hr has none.
+   */
+  private static final Pattern HTML_BLOCK = Pattern.compile(
+    "^<(address|blockquote|del|div|dl|fieldset|form|h[1-6]|ins|noscript|ol|p|pre|table|ul)(?=[\\s>/])",
+    Pattern.CASE_INSENSITIVE);
+
+  private MarkdownBlocks() {
+  }
+
+  /**
+   * The blocks, each ending with a line break.
+   *
+   * @return the blocks, null if the document cannot be split
+   */
+  static List<String> split(String markdown) {
+    if (REFERENCE_DEFINITION.matcher(markdown).find()) {
+      return null;
+    }
+
+    List<String> blocks = new ArrayList<>();
+    StringBuilder block = new StringBuilder();
+    StringBuilder blankLines = new StringBuilder();
+    boolean listBlock = false;
+    boolean quoteBlock = false;
+    String fence = null;
+    Html html = null;
+
+    for (String line : markdown.split("\r?\n", -1)) {
+      if (fence != null) {
+        block.append(line).append('\n');
+        if (line.trim().startsWith(fence)) {
+          fence = null;
+        }
+        continue;
+      }
+      if (html != null) {
+        block.append(line).append('\n');
+        if (html.closedBy(line)) {
+          html = null;
+        }
+        continue;
+      }
+
+      if (line.trim().isEmpty()) {
+        if (block.length() > 0) {
+          blankLines.append(line).append('\n');
+        }
+        continue;
+      }
+
+      boolean listItem = LIST_ITEM.matcher(line).matches();
+      boolean quote = QUOTE.matcher(line).matches();
+      if (blankLines.length() > 0) {
+        boolean continuation = line.startsWith(" ") || line.startsWith("\t") || (listBlock && listItem)
+          || (quoteBlock && quote);
+        if (continuation) {
+          block.append(blankLines);
+        } else {
+          blocks.add(block.toString());
+          block.setLength(0);
+        }
+        blankLines.setLength(0);
+      }
+
+      if (block.length() == 0) {
+        listBlock = listItem;
+        quoteBlock = quote;
+        html = Html.openedBy(line);
+        if (html != null) {
+          block.append(line).append('\n');
+          if (html.closedBy(line)) {
+            html = null;
+          }
+          continue;
+        }
+      }
+      String trimmed = line.trim();
+      if (trimmed.startsWith("```") || trimmed.startsWith("~~~")) {
+        fence = trimmed.substring(0, 3);
+      }
+      block.append(line).append('\n');
+    }
+
+    if (block.length() > 0) {
+      blocks.add(block.toString());
+    }
+    return blocks;
+  }
+
+  /**
+   * An HTML block or comment being read, blank lines included.
+   */
+  private static final class Html {
+
+    private final Pattern open;
+    private final Pattern close;
+    private int depth;
+
+    private Html(Pattern open, Pattern close) {
+      this.open = open;
+      this.close = close;
+    }
+
+    /**
+     * The HTML block a line opens, null if it opens none.
+     */
+    static Html openedBy(String line) {
+      if (line.startsWith("<!--")) {
+        return new Html(Pattern.compile("<!--"), Pattern.compile("-->"));
+      }
+      Matcher matcher = HTML_BLOCK.matcher(line);
+      if (!matcher.find()) {
+        return null;
+      }
+      String tag = Pattern.quote(matcher.group(1));
+      return new Html(Pattern.compile("(?i)<" + tag + "(?=[\\s>/])"), Pattern.compile("(?i)</" + tag + "\\s*>"));
+    }
+
+    /**
+     * Reads a line of the block, nested elements of the same name included.
+     *
+     * @return true when the line closes the block
+     */
+    boolean closedBy(String line) {
+      Matcher opened = open.matcher(line);
+      while (opened.find()) {
+        depth++;
+      }
+      Matcher closed = close.matcher(line);
+      while (closed.find()) {
+        depth--;
+      }
+      return depth <= 0;
+    }
+  }
+}
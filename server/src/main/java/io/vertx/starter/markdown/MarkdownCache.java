@@ -0,0 +1,79 @@
+package io.vertx.starter.markdown;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import io.vertx.core.json.JsonObject;
+import io.vertx.starter.CacheMetrics;
+
+import javax.annotation.Resource;
+import javax.inject.Singleton;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Markdown to HTML renderings, keyed by a 128 bits murmur3 hash of the markdown and shared by every caller of the JVM.
+ *
+ * The cache is bounded by the size of the cached HTML, so a few large documents cannot push out many small ones.
+ */
+@Resource
+@Singleton
+public class MarkdownCache {
+
+  /**
+   * Maximum chars of cached HTML, about 16MB.
+   */
+  private static final long MAXIMUM_WEIGHT = 8 * 1024 * 1024;
+
+  /**
+   * Weight of a key and entry, besides the HTML.
+   */
+  private static final int ENTRY_OVERHEAD = 64;
+
+  private static final HashFunction HASH = Hashing.murmur3_128();
+
+  private final Cache<HashCode, String> cache = Caffeine.newBuilder()
+    .maximumWeight(MAXIMUM_WEIGHT)
+    .<HashCode, String>weigher((hash, html) -> ENTRY_OVERHEAD + html.length())
+    .recordStats()
+    .build();
+
+  /**
+   * Hits of {@link #peek(HashCode)}, which the cache stats do not see.
+   */
+  private final LongAdder peekHits = new LongAdder();
+
+  /**
+   * Cached HTML of a hash, null if not cached. A miss is not counted, as the caller goes on with
+   * {@link #get(HashCode, Supplier)}.
+   */
+  public String peek(HashCode hash) {
+    String html = cache.asMap().get(hash);
+    if (html != null) {
+      peekHits.increment();
+    }
+    return html;
+  }
+
+  /**
+   * Cached HTML of a hash, rendered by {@code renderer} on a miss.
+   */
+  public String get(HashCode hash, Supplier<String> renderer) {
+    return cache.get(hash, key -> renderer.get());
+  }
+
+  public HashCode hash(String markdown) {
+    return HASH.hashString(markdown, StandardCharsets.UTF_8);
+  }
+
+  public JsonObject metrics() {
+    CacheStats stats = cache.stats().plus(new CacheStats(peekHits.sum(), 0, 0, 0, 0, 0));
+    return CacheMetrics.toJson(cache.estimatedSize(), stats)
+      .put("weight", cache.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0L)).orElse(0L))
+      .put("loadTimeNanos", stats.totalLoadTime());
+  }
+}
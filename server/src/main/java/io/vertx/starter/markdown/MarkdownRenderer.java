@@ -0,0 +1,251 @@
+package io.vertx.starter.markdown;
+
+import com.google.common.hash.HashCode;
+import io.reactivex.Single;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.reactivex.core.Vertx;
+import io.vertx.reactivex.core.WorkerExecutor;
+import io.vertx.starter.SharedSettings;
+
+import javax.annotation.Resource;
+import javax.inject.Singleton;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import static org.jspare.core.Environment.my;
+
+/**
+ * Renders markdown on a dedicated worker pool, so large documents do not hold an event loop.
+ *
+ * Cached renderings are answered without leaving the caller thread. Other renders are admitted while less than
+ * {@code max_pending} are queued or running; beyond that, or above {@code max_input_chars}, the render fails with a
+ * {@link RejectedRenderException} holding the http status to answer.
+ */
+@Resource
+@Singleton
+public class MarkdownRenderer {
+
+  public static final String CONFIG_MARKDOWN_POOL_SIZE = "markdown.renderer.pool_size";
+  public static final String CONFIG_MARKDOWN_MAX_PENDING = "markdown.renderer.max_pending";
+  public static final String CONFIG_MARKDOWN_MAX_INPUT_CHARS = "markdown.renderer.max_input_chars";
+
+  private static final String EXECUTOR_NAME = "markdown-renderer";
+
+  private final MarkdownCache markdownCache = my(MarkdownCache.class);
+  private final SharedSettings settings = new SharedSettings(MarkdownRenderer.class, CONFIG_MARKDOWN_POOL_SIZE,
+    CONFIG_MARKDOWN_MAX_PENDING, CONFIG_MARKDOWN_MAX_INPUT_CHARS);
+
+  private volatile WorkerExecutor executor;
+  private int poolSize;
+  private int maxPending;
+  private int maxInputChars;
+
+  private final AtomicInteger pending = new AtomicInteger();
+  private final AtomicInteger active = new AtomicInteger();
+  private final LongAdder rendered = new LongAdder();
+  private final LongAdder rejected = new LongAdder();
+  private final LongAdder tooLarge = new LongAdder();
+  private final LongAdder renderTimeNanos = new LongAdder();
+  private final AtomicLong maxRenderTimeNanos = new AtomicLong();
+
+  public static final class RejectedRenderException extends RuntimeException {
+
+    private final int statusCode;
+
+    RejectedRenderException(int statusCode, String message) {
+      super(message, null, false, false);
+      this.statusCode = statusCode;
+    }
+
+    public int statusCode() {
+      return statusCode;
+    }
+  }
+
+  /**
+   * Create the worker pool, once per JVM; http verticle instances after the first one share it.
+   */
+  public synchronized MarkdownRenderer init(Vertx vertx, JsonObject config) {
+    if (settings.apply(config)) {
+      poolSize = config.getInteger(CONFIG_MARKDOWN_POOL_SIZE, 4);
+      maxPending = config.getInteger(CONFIG_MARKDOWN_MAX_PENDING, 256);
+      maxInputChars = config.getInteger(CONFIG_MARKDOWN_MAX_INPUT_CHARS, 512 * 1024);
+      executor = vertx.createSharedWorkerExecutor(EXECUTOR_NAME, poolSize);
+    }
+    return this;
+  }
+
+  public Single<String> render(String markdown) {
+    return Single.defer(() -> {
+      checkInput(markdown);
+
+      HashCode hash = markdownCache.hash(markdown);
+      String cached = markdownCache.peek(hash);
+      if (cached != null) {
+        return Single.just(cached);
+      }
+      return submit(() -> markdownCache.get(hash, () -> Markdown.toHtml(markdown)));
+    });
+  }
+
+  /**
+   * Render a document block by block, so an edit only renders the blocks it changed.
+   *
+   * @return the blocks, in document order
+   */
+  public Single<List<Block>> renderBlocks(String markdown) {
+    return Single.defer(() -> {
+      checkInput(markdown);
+
+      List<String> sources = MarkdownBlocks.split(markdown);
+      if (sources == null) {
+        sources = Collections.singletonList(markdown);
+      }
+
+      List<Block> blocks = new ArrayList<>(sources.size());
+      boolean missing = false;
+      for (String source : sources) {
+        HashCode hash = markdownCache.hash(source);
+        Block block = new Block(hash, source, markdownCache.peek(hash));
+        missing |= block.html == null;
+        blocks.add(block);
+      }
+      if (!missing) {
+        return Single.just(blocks);
+      }
+      return submit(() -> {
+        for (Block block : blocks) {
+          if (block.html == null) {
+            block.html = markdownCache.get(block.hash, () -> Markdown.toHtml(block.source));
+          }
+        }
+        return blocks;
+      });
+    });
+  }
+
+  /**
+   * Document HTML, rendered block by block.
+   */
+  public Single<String> renderIncremental(String markdown) {
+    return renderBlocks(markdown).map(blocks -> {
+      StringBuilder html = new StringBuilder();
+      blocks.forEach(block -> html.append(block.html));
+      return html.toString();
+    });
+  }
+
+  /**
+   * Document blocks as {@code {"blocks": [{"id": ..., "html": ...}]}}, without the html of the {@code known} ids.
+   */
+  public Single<JsonObject> renderPatch(String markdown, Collection<?> known) {
+    return renderBlocks(markdown).map(blocks -> {
+      Set<Object> knownIds = new HashSet<>(known);
+      JsonArray patch = new JsonArray();
+      blocks.forEach(block -> {
+        JsonObject entry = new JsonObject().put("id", block.id());
+        if (!knownIds.contains(block.id())) {
+          entry.put("html", block.html);
+        }
+        patch.add(entry);
+      });
+      return new JsonObject().put("blocks", patch);
+    });
+  }
+
+  public JsonObject metrics() {
+    long count = rendered.sum();
+    long total = renderTimeNanos.sum();
+    return new JsonObject()
+      .put("poolSize", poolSize)
+      .put("maxPending", maxPending)
+      .put("pending", pending.get())
+      .put("queued", Math.max(0, pending.get() - active.get()))
+      .put("rendered", count)
+      .put("rejected", rejected.sum())
+      .put("tooLarge", tooLarge.sum())
+      .put("renderTimeMeanMicros", count == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(total / count))
+      .put("renderTimeMaxMicros", TimeUnit.NANOSECONDS.toMicros(maxRenderTimeNanos.get()));
+  }
+
+  private void checkInput(String markdown) {
+    if (markdown == null) {
+      throw new NullPointerException("markdown");
+    }
+    if (markdown.length() > maxInputChars) {
+      tooLarge.increment();
+      throw new RejectedRenderException(413,
+        "Markdown of " + markdown.length() + " chars is larger than " + maxInputChars);
+    }
+  }
+
+  /**
+   * Run a render on the pool, if admitted.
+   */
+  private <T> Single<T> submit(Supplier<T> render) {
+    if (pending.incrementAndGet() > maxPending) {
+      pending.decrementAndGet();
+      rejected.increment();
+      return Single.error(new RejectedRenderException(503, "Markdown renderer is busy"));
+    }
+    return executor().<T>rxExecuteBlocking(future -> {
+      active.incrementAndGet();
+      try {
+        long start = System.nanoTime();
+        T result = render.get();
+        record(System.nanoTime() - start);
+        future.complete(result);
+      } finally {
+        active.decrementAndGet();
+      }
+    }, false).doFinally(pending::decrementAndGet);
+  }
+
+  private void record(long nanos) {
+    rendered.increment();
+    renderTimeNanos.add(nanos);
+    maxRenderTimeNanos.accumulateAndGet(nanos, Math::max);
+  }
+
+  private WorkerExecutor executor() {
+    WorkerExecutor current = executor;
+    if (current == null) {
+      throw new IllegalStateException("MarkdownRenderer is not initialized");
+    }
+    return current;
+  }
+
+  /**
+   * One top-level block of a document.
+   */
+  public static final class Block {
+
+    private final HashCode hash;
+    private final String source;
+    private volatile String html;
+
+    private Block(HashCode hash, String source, String html) {
+      this.hash = hash;
+      this.source = source;
+      this.html = html;
+    }
+
+    public String id() {
+      return hash.toString();
+    }
+
+    public String html() {
+      return html;
+    }
+  }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2016 JSpare.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.jspare.vertx.reactivex.web.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * <p>Sets how instances of one route class are created.</p>
+ *
+ * <p>Route classes without this annotation are {@link Lifecycle#PER_REQUEST}. Shared instances
+ * ({@link Lifecycle#SINGLETON} and {@link Lifecycle#POOLED}) must not keep request state in fields. A pooled
+ * instance serves one request at a time, until its response ended; a singleton serves every request at once.</p>
+ *
+ * <pre>
+ * &#64;InstanceLifecycle(Lifecycle.SINGLETON)
+ * public class ApiRoute extends APIHandler {
+ * </pre>
+ *
+ * @author <a href="https://pflima92.github.io/">Paulo Lima</a>
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface InstanceLifecycle {
+
+  /**
+   * Lifecycle.
+   *
+   * @return the lifecycle
+   */
+  Lifecycle value() default Lifecycle.PER_REQUEST;
+
+  /**
+   * Maximum number of idle instances kept when {@link Lifecycle#POOLED}.
+   *
+   * @return the int
+   */
+  int poolSize() default 16;
+}
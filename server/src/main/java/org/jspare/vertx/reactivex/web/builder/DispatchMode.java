@@ -0,0 +1,35 @@
+/*
+ * Copyright 2016 JSpare.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.jspare.vertx.reactivex.web.builder;
+
+/**
+ * How a {@link RouterBuilder} dispatches the mapped handlers.
+ *
+ * @author <a href="https://pflima92.github.io/">Paulo Lima</a>
+ */
+public enum DispatchMode {
+
+  /**
+   * One router route per mapped handler.
+   */
+  ROUTER,
+
+  /**
+   * Mapped handlers with plain paths are dispatched from a {@link RouteTrie}, the others from the router. The tree
+   * prefers static segments over params and does not read {@link HandlerData#order()}.
+   */
+  TRIE
+}
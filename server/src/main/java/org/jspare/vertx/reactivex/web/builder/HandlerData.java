@@ -25,9 +25,14 @@ import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 import lombok.experimental.Accessors;
 import org.apache.commons.lang.StringUtils;
+import org.jspare.vertx.reactivex.web.handler.HandlerInstanceProvider;
+import org.jspare.vertx.reactivex.web.handler.HandlerInvoker;
+import org.jspare.vertx.reactivex.web.handler.ParameterResolver;
 import org.jspare.vertx.web.builder.HandlerType;
 
 import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.Set;
 
 /* (non-Javadoc)
  * @see java.lang.Object#toString()
@@ -67,8 +72,18 @@ import java.lang.reflect.Method;
  *          the produces
  * @param authHandler
  *          the auth handler
+ * @param authIdentity
+ *          the auth identity
+ * @param authorities
+ *          the authorities
  * @param documentation
  *          the documentation
+ * @param invoker
+ *          the invoker
+ * @param instanceProvider
+ *          the instance provider
+ * @param parameterResolvers
+ *          the parameter resolvers
  */
 @AllArgsConstructor
 
@@ -140,6 +155,31 @@ public class HandlerData implements Cloneable {
    */
   private AuthHandler authHandler;
 
+  /**
+   * The identity of the auth handler on the RouterBuilder, null when the handler is not authenticated.
+   */
+  private String authIdentity;
+
+  /**
+   * The authorities required by the auth handler.
+   */
+  private Set<String> authorities = Collections.emptySet();
+
+  /**
+   * The compiled invoker of clazz and method.
+   */
+  private HandlerInvoker invoker;
+
+  /**
+   * The provider of clazz instances.
+   */
+  private HandlerInstanceProvider instanceProvider;
+
+  /**
+   * The resolvers of method parameters, in declaration order.
+   */
+  private ParameterResolver[] parameterResolvers;
+
   /**
    * To string line.
    *
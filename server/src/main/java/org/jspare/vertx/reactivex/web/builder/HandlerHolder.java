@@ -4,8 +4,8 @@ import lombok.Getter;
 
 import javax.annotation.Resource;
 import javax.inject.Singleton;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * <p>Handler Holder is used to hold Handlers mapped by RouterBuilder</p>
@@ -20,6 +20,7 @@ public class HandlerHolder {
   private Map<String, HandlerMap> handlerMap;
 
   public HandlerHolder() {
-    this.handlerMap = new HashMap<>();
+    // Builders of all verticle instances register here, from their own event loops
+    this.handlerMap = new ConcurrentHashMap<>();
   }
 }
@@ -24,4 +24,22 @@ public class HandlerMap {
   public void add(HandlerData handlerData) {
     handlerDataList.add(handlerData);
   }
+
+  /**
+   * Route table, one line per global handler and mapped handler, in registration order.
+   *
+   * @return the string
+   */
+  public String dump() {
+    StringBuilder table = new StringBuilder();
+    defaultHandlersClassList.forEach(clazz -> table.append(String.format("[*] %s%n", clazz.getName())));
+    handlerDataList.forEach(hd -> {
+      table.append(hd.toStringLine());
+      if (hd.authHandler() != null) {
+        table.append("[auth]");
+      }
+      table.append(System.lineSeparator());
+    });
+    return table.toString();
+  }
 }
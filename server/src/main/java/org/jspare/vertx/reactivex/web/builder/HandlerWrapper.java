@@ -20,6 +20,7 @@ import io.vertx.core.http.HttpMethod;
 import io.vertx.reactivex.ext.web.Route;
 import io.vertx.reactivex.ext.web.Router;
 import io.vertx.reactivex.ext.web.RoutingContext;
+import io.vertx.reactivex.ext.web.handler.AuthHandler;
 import lombok.SneakyThrows;
 import lombok.experimental.UtilityClass;
 import org.apache.commons.lang.StringUtils;
@@ -105,29 +106,26 @@ public class HandlerWrapper {
   }
 
   /**
-   * Sets the handler.
+   * Sets the handler. Every endpoint is registered as one route whose handler chain runs the auth handler, when
+   * setted, before the mapped handler, so the router only matches the endpoint path and method once per request.
    *
    * @param router the router
    * @param data   the data
    */
   protected void setHandler(Router router, HandlerData data) {
 
-    // Create auth handler if is setted
+    Route route = createRoute(router, data);
+
+    // Chain auth handler if is setted, auth handlers call next() to continue on this same route
     if (data.authHandler() != null) {
 
-      Route authRoute = createRoute(router, data);
-      authRoute.handler(data.authHandler());
+      AuthHandler authHandler = data.authHandler();
+      route.handler(ctx -> {
+        ctx.put(HANDLER_DATA, data);
+        authHandler.handle(ctx);
+      });
     }
 
-    // Create route handler
-    Route hdRegRoute = createRoute(router, data);
-    Route route = createRoute(router, data);
-
-    hdRegRoute.order(Integer.MIN_VALUE).handler(ctx -> {
-      ctx.put(HANDLER_DATA, data);
-      ctx.next();
-    });
-
     if (HandlerType.HANDLER.equals(data.handlerType())) {
 
       route.handler(prepareHandler(data));
@@ -187,7 +185,7 @@ public class HandlerWrapper {
    */
   @SneakyThrows({InstantiationException.class, IllegalAccessException.class, IllegalArgumentException.class,
     InvocationTargetException.class, NoSuchMethodException.class})
-  private Handler<RoutingContext> prepareHandler(HandlerData handlerData) {
+  protected Handler<RoutingContext> prepareHandler(HandlerData handlerData) {
     return handlerData.routeHandlerClass().getConstructor(HandlerData.class).newInstance(handlerData);
   }
 
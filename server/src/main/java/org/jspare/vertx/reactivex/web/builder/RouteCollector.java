@@ -28,6 +28,8 @@ import io.vertx.reactivex.ext.web.handler.AuthHandler;
 import io.vertx.reactivex.ext.web.handler.sockjs.SockJSHandler;
 import org.apache.commons.lang.StringUtils;
 import org.jspare.vertx.builder.Collector;
+import org.jspare.vertx.reactivex.web.handler.HandlerInvoker;
+import org.jspare.vertx.reactivex.web.handler.ParameterResolvers;
 import org.jspare.vertx.web.annotation.auth.Auth;
 import org.jspare.vertx.web.annotation.auth.IgnoreAuth;
 import org.jspare.vertx.web.annotation.content.Consumes;
@@ -49,6 +51,21 @@ import org.jspare.vertx.web.builder.HttpMethodType;
 @Slf4j
 public class RouteCollector implements Collector<Collection<HandlerData>> {
 
+  /**
+   * Handlers collected per route class, shared by every RouterBuilder of the JVM. The prototypes carry only what the
+   * annotations and the class define; each builder gets copies with its own auth and SockJS handlers.
+   *
+   * Held by the route class itself rather than by a map of this class, so a redeployed verticle class loader is
+   * collected along with its prototypes.
+   */
+  private static final ClassValue<List<HandlerData>> PROTOTYPES = new ClassValue<List<HandlerData>>() {
+
+    @Override
+    protected List<HandlerData> computeValue(Class<?> type) {
+      return new RouteCollector().collectPrototypes(type);
+    }
+  };
+
   /*
    * (non-Javadoc)
    *
@@ -66,10 +83,68 @@ public class RouteCollector implements Collector<Collection<HandlerData>> {
 
     final RouterBuilder builder = (RouterBuilder) args[0];
 
-    // Retrieve required parameters to collect handlers
+    List<HandlerData> prototypes = PROTOTYPES.get(clazz);
+
+    // Handlers of the same method share one auth handler, as their authorities are the same
+    Map<Method, AuthHandler> authHandlers = new HashMap<>();
+    List<HandlerData> collectedHandlers = new ArrayList<>(prototypes.size());
+    for (HandlerData prototype : prototypes) {
+
+      try {
+
+        HandlerData handlerData = (HandlerData) prototype.clone();
+        handlerData.routeHandlerClass(builder.handlerClass());
+
+        if (handlerData.authIdentity() != null) {
+
+          handlerData.authHandler(authHandlers.computeIfAbsent(handlerData.method(),
+            m -> createAuthHandler(builder, prototype)));
+        }
+        if (HandlerType.SOCKETJS_HANDLER.equals(handlerData.handlerType())) {
+
+          SockJSHandlerOptions sockJSHandlerOptions = builder.sockJSHandlerOptions();
+          handlerData.sockJSHandler(SockJSHandler.create(builder.vertx(),
+            sockJSHandlerOptions != null ? sockJSHandlerOptions : new SockJSHandlerOptions()));
+        }
+        collectedHandlers.add(handlerData);
+      } catch (CloneNotSupportedException e) {
+
+        log.warn("Ignoring handler class {} method {} - {}", clazz.getName(), prototype.method().getName(),
+          e.toString());
+      }
+    }
+    return collectedHandlers;
+  }
+
+  /**
+   * Creates the auth handler of one handler, from the suppliers of the builder.
+   *
+   * @param builder   the builder
+   * @param prototype the prototype
+   * @return the auth handler, null when the builder has no auth handler with the identity
+   */
+  private AuthHandler createAuthHandler(RouterBuilder builder, HandlerData prototype) {
+
+    // Get authHandler from RouterBuilderAware
+    Supplier<AuthHandler> authHandlerSupplier = builder.authHandlerMap().get(prototype.authIdentity());
+    if (authHandlerSupplier == null) {
+
+      return null;
+    }
+
+    // Add authorities if is present on metadata
+    AuthHandler authHandler = authHandlerSupplier.get();
+    authHandler.addAuthorities(prototype.authorities());
+    return authHandler;
+  }
 
-    final Class<? extends Handler<RoutingContext>> routeHandlerClass = builder.handlerClass();
-    final SockJSHandlerOptions sockJSHandlerOptions = builder.sockJSHandlerOptions();
+  /**
+   * Collect the prototypes of one route class.
+   *
+   * @param clazz the clazz
+   * @return the list
+   */
+  private List<HandlerData> collectPrototypes(Class<?> clazz) {
 
     // Initialize collected handlers
 
@@ -91,7 +166,8 @@ public class RouteCollector implements Collector<Collection<HandlerData>> {
       String produces = method.isAnnotationPresent(Produces.class) ? method.getAnnotation(Produces.class).value()
         : StringUtils.EMPTY;
 
-      AuthHandler authHandler = null;
+      HandlerData defaultHandlerData = new HandlerData().clazz(clazz).method(method).consumes(consumes)
+        .produces(produces);
 
       // Validate if route has auth module
       if (hasAuth(clazz, method) && !method.isAnnotationPresent(IgnoreAuth.class)) {
@@ -99,25 +175,15 @@ public class RouteCollector implements Collector<Collection<HandlerData>> {
         // Retrieve auth metadata
         Auth auth = method.isAnnotationPresent(Auth.class) ? getAuth(method) : getAuth(clazz);
 
-        // Retrieve auth identity
-        String identity = auth.authHandler();
-
-        // Get authHandler from RouterBuilderAware
-        Optional<Supplier<AuthHandler>> oAuthHandler = Optional.ofNullable(builder.authHandlerMap().get(identity));
-
-        // Add authorities if is present on metadata
-        if (oAuthHandler.isPresent()) {
-
-          Supplier<AuthHandler> authHandlerSupplier = oAuthHandler.get();
-          authHandler = authHandlerSupplier.get();
-          authHandler.addAuthorities(
-            Arrays.asList(auth.value()).stream().filter(a -> StringUtils.isNotEmpty(a)).collect(Collectors.toSet()));
-        }
+        // Retrieve auth identity and authorities, the auth handler is created per builder
+        defaultHandlerData.authIdentity(auth.authHandler());
+        defaultHandlerData.authorities(Collections.unmodifiableSet(
+          Arrays.stream(auth.value()).filter(StringUtils::isNotEmpty).collect(Collectors.toSet())));
       }
 
-      HandlerData defaultHandlerData = new HandlerData().clazz(clazz).method(method).consumes(consumes)
-        .produces(produces).authHandler(authHandler)
-        .routeHandlerClass(routeHandlerClass);
+      // Compiled once per method, both are stateless and shared by all copies
+      compileInvoker(defaultHandlerData);
+      defaultHandlerData.parameterResolvers(ParameterResolvers.of(method));
 
       if (hasHttpMethodsPresents(method)) {
 
@@ -136,10 +202,8 @@ public class RouteCollector implements Collector<Collection<HandlerData>> {
           if (isHandlerAnnotation(handlerType, SockJsHandler.class)) {
 
             // If SockJs type set other attributes and add to
-            // collection
+            // collection, the SockJSHandler is created per builder
             handlerData.handlerType(HandlerType.SOCKETJS_HANDLER);
-            handlerData.sockJSHandler(SockJSHandler.create(builder.vertx(),
-              sockJSHandlerOptions != null ? sockJSHandlerOptions : new SockJSHandlerOptions()));
             handlerData.path(method.getAnnotation(SockJsHandler.class).value());
             collectedHandlers.add(handlerData);
             return;
@@ -166,7 +230,9 @@ public class RouteCollector implements Collector<Collection<HandlerData>> {
             collectedHandlers.add(handlerData);
           } else {
 
-            collectedHandlers.addAll(collectByMethods(handlerData, handlerHttpMethodsAnnotations));
+            collectByMethods(handlerData, handlerHttpMethodsAnnotations).stream()
+              .filter(Objects::nonNull)
+              .forEach(collectedHandlers::add);
           }
         } catch (Exception e) {
 
@@ -175,7 +241,23 @@ public class RouteCollector implements Collector<Collection<HandlerData>> {
         }
       });
     }
-    return collectedHandlers;
+    return Collections.unmodifiableList(collectedHandlers);
+  }
+
+  /**
+   * Compile invoker. Failing to compile is not fatal, the handler falls back to reflective invocation.
+   *
+   * @param handlerData the handler data
+   */
+  private void compileInvoker(HandlerData handlerData) {
+    try {
+
+      handlerData.invoker(HandlerInvoker.compile(handlerData));
+    } catch (ReflectiveOperationException | RuntimeException e) {
+
+      log.warn("Cannot compile invoker for [{}.{}], using reflection - {}", handlerData.clazz().getSimpleName(),
+        handlerData.method().getName(), e.toString());
+    }
   }
 
   /**
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2016 JSpare.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.jspare.vertx.reactivex.web.builder;
+
+import lombok.experimental.UtilityClass;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * <p>Route classes listed at compile time by the RouteIndexProcessor.</p>
+ *
+ * <p>The index files of every classpath entry are read once per JVM. A route package without indexed classes, or a
+ * classpath without index, is left to the classpath scanner.</p>
+ *
+ * @author <a href="https://pflima92.github.io/">Paulo Lima</a>
+ */
+@Slf4j
+@UtilityClass
+public class RouteIndex {
+
+  /**
+   * Location of the index files on the classpath.
+   */
+  public final String LOCATION = "META-INF/jspare/route-index";
+
+  /**
+   * Scan spec of the whole classpath.
+   */
+  private final String ALL_PACKAGES = ".*";
+
+  /**
+   * The indexed class names, loaded on first use.
+   */
+  private volatile Set<String> classNames;
+
+  /**
+   * Indexed route classes matching one scan spec.
+   *
+   * @param scanSpec the scan spec, a package name or ".*"
+   * @return the classes, empty if none is indexed
+   */
+  public List<Class<?>> classes(String scanSpec) {
+
+    List<Class<?>> classes = new ArrayList<>();
+    for (String className : classNames()) {
+
+      if (ALL_PACKAGES.equals(scanSpec) || className.startsWith(scanSpec + ".")) {
+
+        try {
+
+          classes.add(Class.forName(className, false, classLoader()));
+        } catch (ClassNotFoundException | LinkageError e) {
+
+          log.warn("Indexed route class [{}] cannot be loaded - {}", className, e.toString());
+        }
+      }
+    }
+    return classes;
+  }
+
+  /**
+   * Class names, reading the index files once.
+   *
+   * @return the set
+   */
+  private Set<String> classNames() {
+    Set<String> names = classNames;
+    if (names == null) {
+
+      synchronized (RouteIndex.class) {
+
+        names = classNames;
+        if (names == null) {
+
+          names = Collections.unmodifiableSet(load());
+          classNames = names;
+        }
+      }
+    }
+    return names;
+  }
+
+  /**
+   * Load the class names of all index files.
+   *
+   * @return the set
+   */
+  private Set<String> load() {
+
+    Set<String> names = new LinkedHashSet<>();
+    try {
+
+      Enumeration<URL> indexes = classLoader().getResources(LOCATION);
+      while (indexes.hasMoreElements()) {
+
+        URL index = indexes.nextElement();
+        try (BufferedReader reader = new BufferedReader(
+          new InputStreamReader(index.openStream(), StandardCharsets.UTF_8))) {
+
+          String line;
+          while ((line = reader.readLine()) != null) {
+
+            // Lines are className#methodName, the methods are collected by RouteCollector
+            int separator = line.indexOf('#');
+            String className = (separator < 0 ? line : line.substring(0, separator)).trim();
+            if (!className.isEmpty()) {
+
+              names.add(className);
+            }
+          }
+        }
+      }
+    } catch (IOException e) {
+
+      log.warn("Cannot read route index, scanning classpath - {}", e.toString());
+      names.clear();
+    }
+    log.debug("Route index with {} classes", names.size());
+    return names;
+  }
+
+  /**
+   * Class loader of the route classes.
+   *
+   * @return the class loader
+   */
+  private ClassLoader classLoader() {
+    ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+    return classLoader != null ? classLoader : RouteIndex.class.getClassLoader();
+  }
+}
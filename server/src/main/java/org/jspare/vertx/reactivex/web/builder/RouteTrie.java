@@ -0,0 +1,307 @@
+/*
+ * Copyright 2016 JSpare.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.jspare.vertx.reactivex.web.builder;
+
+import io.vertx.core.http.HttpMethod;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * <p>Tree of route paths, one level per path segment, with the values of each node keyed by http method.</p>
+ *
+ * <p>Only plain paths are accepted: every segment is either static text or a whole <code>:param</code> segment.
+ * Matching walks the request path once, preferring static segments over params at every level, and captures param
+ * values by offset, without regular expressions.</p>
+ *
+ * @param <T> the value type
+ * @author <a href="https://pflima92.github.io/">Paulo Lima</a>
+ */
+public class RouteTrie<T> {
+
+  /**
+   * The root node, matching "/".
+   */
+  private final Node<T> root = new Node<>();
+
+  /**
+   * The size.
+   */
+  private int size;
+
+  /**
+   * Adds the value of one method and path.
+   *
+   * @param method the method
+   * @param path   the path
+   * @param value  the value
+   * @return true, if added; false if the path is not supported or conflicts with an added one
+   */
+  public boolean add(HttpMethod method, String path, T value) {
+
+    if (!supports(path)) {
+
+      return false;
+    }
+
+    Node<T> node = root;
+    for (String segment : path.split("/")) {
+
+      if (segment.isEmpty()) {
+
+        continue;
+      }
+      if (segment.charAt(0) == ':') {
+
+        String paramName = segment.substring(1);
+        if (node.param == null) {
+
+          node.param = new Node<>();
+          node.paramName = paramName;
+        } else if (!node.paramName.equals(paramName)) {
+
+          // Different names on the same level cannot share captures
+          return false;
+        }
+        node = node.param;
+      } else {
+
+        if (node.statics == null) {
+
+          node.statics = new HashMap<>();
+        }
+        node = node.statics.computeIfAbsent(segment, s -> new Node<>());
+      }
+    }
+
+    if (node.values == null) {
+
+      node.values = new EnumMap<>(HttpMethod.class);
+    }
+    if (node.values.containsKey(method)) {
+
+      return false;
+    }
+    node.values.put(method, value);
+    size++;
+    return true;
+  }
+
+  /**
+   * Match one request.
+   *
+   * @param method the method
+   * @param path   the normalised path, starting with "/"
+   * @return the match, null if there is not one
+   */
+  public Match<T> match(HttpMethod method, String path) {
+
+    Match<T> match = new Match<>();
+    T value = find(root, method, path, 0, match);
+    if (value == null) {
+
+      return null;
+    }
+    match.value = value;
+    return match;
+  }
+
+  /**
+   * Checks if is empty.
+   *
+   * @return true, if is empty
+   */
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  /**
+   * Size.
+   *
+   * @return the int
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Supports the path. Wildcards, partial params and optional segments are left to the router.
+   *
+   * @param path the path
+   * @return true, if successful
+   */
+  public static boolean supports(String path) {
+
+    if (path == null || !path.startsWith("/") || path.indexOf('*') >= 0) {
+
+      return false;
+    }
+    for (String segment : path.split("/")) {
+
+      int colon = segment.indexOf(':');
+      if (colon > 0) {
+
+        return false;
+      }
+      if (colon == 0) {
+
+        if (segment.length() == 1) {
+
+          return false;
+        }
+        for (int i = 1; i < segment.length(); i++) {
+
+          char c = segment.charAt(i);
+          if (!Character.isLetterOrDigit(c) && c != '_' && c != '$') {
+
+            return false;
+          }
+        }
+      }
+    }
+    return true;
+  }
+
+  private T find(Node<T> node, HttpMethod method, String path, int from, Match<T> match) {
+
+    int start = from + 1;
+    if (start >= path.length()) {
+
+      // End of path, ignoring a trailing slash
+      return node.values != null ? node.values.get(method) : null;
+    }
+
+    int end = path.indexOf('/', start);
+    if (end < 0) {
+
+      end = path.length();
+    }
+
+    if (node.statics != null) {
+
+      Node<T> child = node.statics.get(path.substring(start, end));
+      if (child != null) {
+
+        T value = find(child, method, path, end, match);
+        if (value != null) {
+
+          return value;
+        }
+      }
+    }
+
+    if (node.param != null && end > start) {
+
+      match.push(node.paramName, start, end);
+      T value = find(node.param, method, path, end, match);
+      if (value != null) {
+
+        return value;
+      }
+      match.pop();
+    }
+    return null;
+  }
+
+  /**
+   * One node of the tree.
+   *
+   * @param <T> the value type
+   */
+  private static final class Node<T> {
+
+    private Map<String, Node<T>> statics;
+
+    private Node<T> param;
+
+    private String paramName;
+
+    private Map<HttpMethod, T> values;
+  }
+
+  /**
+   * A matched value and its path params.
+   *
+   * @param <T> the value type
+   */
+  public static final class Match<T> {
+
+    private T value;
+
+    private String[] names = new String[4];
+
+    private int[] offsets = new int[8];
+
+    private int count;
+
+    /**
+     * Value.
+     *
+     * @return the t
+     */
+    public T value() {
+      return value;
+    }
+
+    /**
+     * Param count.
+     *
+     * @return the int
+     */
+    public int paramCount() {
+      return count;
+    }
+
+    /**
+     * Param name.
+     *
+     * @param index the index
+     * @return the string
+     */
+    public String paramName(int index) {
+      return names[index];
+    }
+
+    /**
+     * Raw param value, as present on the matched path.
+     *
+     * @param index the index
+     * @param path  the matched path
+     * @return the string
+     */
+    public String paramValue(int index, String path) {
+      return path.substring(offsets[index * 2], offsets[index * 2 + 1]);
+    }
+
+    private void push(String name, int start, int end) {
+      if (count == names.length) {
+
+        names = Arrays.copyOf(names, count * 2);
+        offsets = Arrays.copyOf(offsets, count * 4);
+      }
+      names[count] = name;
+      offsets[count * 2] = start;
+      offsets[count * 2 + 1] = end;
+      count++;
+    }
+
+    private void pop() {
+      count--;
+    }
+  }
+}
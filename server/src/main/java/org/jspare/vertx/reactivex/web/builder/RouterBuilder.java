@@ -26,10 +26,14 @@ import io.vertx.reactivex.ext.web.handler.AuthHandler;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.Setter;
+import lombok.SneakyThrows;
 import lombok.experimental.Accessors;
 import lombok.extern.slf4j.Slf4j;
+import org.jspare.core.Environment;
 import org.jspare.vertx.builder.AbstractBuilder;
+import org.jspare.vertx.reactivex.web.handler.APIHandler;
 import org.jspare.vertx.reactivex.web.handler.DefaultHandler;
+import org.jspare.vertx.reactivex.web.handler.HandlerInstanceProvider;
 import org.jspare.vertx.utils.ClasspathScannerUtils;
 
 import java.util.*;
@@ -207,6 +211,22 @@ public class RouterBuilder extends AbstractBuilder<Router> {
    */
   @Setter
   private List<String> routePackages;
+  /**
+   * Dispatch mode of the mapped handlers.
+   *
+   * @return the dispatch mode
+   */
+  @Getter
+
+  /**
+   * Dispatch mode.
+   *
+   * @param dispatchMode
+   *          the dispatch mode
+   * @return the router builder
+   */
+  @Setter
+  private DispatchMode dispatchMode;
 
   /**
    * Instantiates a new router builder.
@@ -227,6 +247,7 @@ public class RouterBuilder extends AbstractBuilder<Router> {
     handlerClass = DefaultHandler.class;
     sockJSHandlerOptions = new SockJSHandlerOptions();
     authHandlerMap = new HashMap<>();
+    dispatchMode = DispatchMode.ROUTER;
   }
 
   /**
@@ -340,20 +361,71 @@ public class RouterBuilder extends AbstractBuilder<Router> {
       .filter(c -> !skipRoutes.contains(c)).collect(Collectors.toSet())
       .forEach(c -> handlerDataList.addAll(my(RouteCollector.class).collect(c, this)));
 
+    // The dispatcher route goes before the handler routes, handlers it does not match fall through to them
+    TrieDispatcher dispatcher = null;
+    Route dispatcherRoute = null;
+    if (DispatchMode.TRIE.equals(dispatchMode)) {
+
+      dispatcher = new TrieDispatcher();
+      dispatcherRoute = router.route();
+    }
+
+    Map<Class<?>, HandlerInstanceProvider> instanceProviders = new HashMap<>();
+    TrieDispatcher trie = dispatcher;
     handlerDataList.forEach(hd -> {
       if (log.isDebugEnabled()) {
         log.debug("Routing handler {}", hd.toStringLine());
       }
-      HandlerWrapper.prepareHandler(router, hd);
+      hd.instanceProvider(instanceProviders.computeIfAbsent(hd.clazz(),
+        c -> HandlerInstanceProvider.create(c, () -> newRouteInstance(hd))));
+      if (trie == null || !trie.add(hd)) {
+
+        HandlerWrapper.prepareHandler(router, hd);
+      }
       map.add(hd);
     });
 
+    if (dispatcher != null) {
+
+      if (dispatcher.isEmpty()) {
+
+        dispatcherRoute.remove();
+      } else {
+
+        dispatcher.register(dispatcherRoute);
+        log.debug("Dispatching {} handlers of [{}] from trie", dispatcher.size(), name);
+      }
+    }
+
     my(HandlerHolder.class).getHandlerMap()
       .put(name, map);
 
+    if (log.isDebugEnabled()) {
+      log.debug("Route table of [{}], {} routes:{}{}", name, router.getRoutes().size(), System.lineSeparator(),
+        map.dump());
+    }
+
     return router;
   }
 
+  /**
+   * New route instance, injected and bound to the builder vertx.
+   *
+   * @param handlerData the handler data
+   * @return the object
+   */
+  @SneakyThrows
+  private Object newRouteInstance(HandlerData handlerData) {
+    Object instance = handlerData.invoker() != null ? handlerData.invoker().newInstance()
+      : handlerData.clazz().newInstance();
+    Environment.inject(instance);
+    if (instance instanceof APIHandler) {
+
+      ((APIHandler) instance).setVertx(vertx);
+    }
+    return instance;
+  }
+
   /**
    * Removes the auth handler.
    *
@@ -392,7 +464,7 @@ public class RouterBuilder extends AbstractBuilder<Router> {
   }
 
   /**
-   * Collect routes.
+   * Collect routes. Packages with classes on the {@link RouteIndex} are taken from it, the others are scanned.
    */
   private void collectRoutes() {
 
@@ -409,6 +481,13 @@ public class RouterBuilder extends AbstractBuilder<Router> {
     MethodAnnotationMatchProcessor processor = (c, m) -> routes.add(c);
     routePackages.forEach(scanSpec -> {
 
+      List<Class<?>> indexed = RouteIndex.classes(scanSpec);
+      if (!indexed.isEmpty()) {
+
+        routes.addAll(indexed);
+        return;
+      }
+
       ClasspathScannerUtils.scanner(scanSpec)
         .matchClassesWithMethodAnnotation(org.jspare.vertx.web.annotation.handler.Handler.class, processor)
         .matchClassesWithMethodAnnotation(org.jspare.vertx.web.annotation.handler.FailureHandler.class, processor)
@@ -0,0 +1,218 @@
+/*
+ * Copyright 2016 JSpare.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.jspare.vertx.reactivex.web.builder;
+
+import io.vertx.core.Handler;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.reactivex.ext.web.Route;
+import io.vertx.reactivex.ext.web.RoutingContext;
+import io.vertx.reactivex.ext.web.handler.AuthHandler;
+import lombok.SneakyThrows;
+import org.apache.commons.lang.StringUtils;
+import org.jspare.vertx.web.builder.HandlerType;
+
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import static org.jspare.vertx.web.handler.DefaultHandler.HANDLER_DATA;
+
+/**
+ * <p>Dispatches the mapped handlers of one {@link RouterBuilder} from a {@link RouteTrie}.</p>
+ *
+ * <p>The dispatcher is one catch-all route with two handlers: the first matches the request on the tree, fills the
+ * path params and runs the auth handler of the endpoint, if any; the second runs the endpoint handler. Requests not
+ * matched on the tree go on with the next routes of the router, so handlers the tree does not support keep their
+ * usual routes.</p>
+ *
+ * @author <a href="https://pflima92.github.io/">Paulo Lima</a>
+ */
+public class TrieDispatcher {
+
+  /**
+   * The routes.
+   */
+  private final RouteTrie<Endpoint> trie = new RouteTrie<>();
+
+  /**
+   * Key of the matched endpoint on the RoutingContext, unique per dispatcher so mounted routers do not clash.
+   */
+  private final String matchKey = TrieDispatcher.class.getName() + "." + UUID.randomUUID();
+
+  /**
+   * Checks if the handler data can be dispatched from the tree.
+   *
+   * @param data the data
+   * @return true, if successful
+   */
+  public static boolean supports(HandlerData data) {
+
+    return HandlerType.HANDLER.equals(data.handlerType())
+      && !data.pathRegex()
+      && StringUtils.isNotEmpty(data.httpMethod())
+      && StringUtils.isEmpty(data.consumes())
+      && StringUtils.isEmpty(data.produces())
+      && RouteTrie.supports(data.path());
+  }
+
+  /**
+   * Adds the handler data.
+   *
+   * @param data the data
+   * @return true, if added; false if it must be routed by the router
+   */
+  public boolean add(HandlerData data) {
+
+    if (!supports(data)) {
+
+      return false;
+    }
+    HttpMethod method = HttpMethod.valueOf(data.httpMethod());
+    return trie.add(method, data.path(), new Endpoint(data, HandlerWrapper.prepareHandler(data)));
+  }
+
+  /**
+   * Checks if is empty.
+   *
+   * @return true, if is empty
+   */
+  public boolean isEmpty() {
+    return trie.isEmpty();
+  }
+
+  /**
+   * Size.
+   *
+   * @return the int
+   */
+  public int size() {
+    return trie.size();
+  }
+
+  /**
+   * Register the dispatcher handlers on the route.
+   *
+   * @param route the route
+   */
+  public void register(Route route) {
+    route.handler(this::match);
+    route.handler(this::dispatch);
+  }
+
+  /**
+   * Match the request and run the auth handler of the endpoint.
+   *
+   * @param ctx the ctx
+   */
+  private void match(RoutingContext ctx) {
+
+    String path = routePath(ctx);
+    RouteTrie.Match<Endpoint> match = trie.match(ctx.request().method(), path);
+    if (match == null) {
+
+      ctx.next();
+      return;
+    }
+
+    for (int i = 0; i < match.paramCount(); i++) {
+
+      String name = match.paramName(i);
+      String value = decode(match.paramValue(i, path));
+      if (!ctx.request().params().contains(name)) {
+
+        ctx.request().params().add(name, value);
+      }
+      ctx.pathParams().put(name, value);
+    }
+
+    Endpoint endpoint = match.value();
+    ctx.put(matchKey, endpoint);
+
+    AuthHandler authHandler = endpoint.data.authHandler();
+    if (authHandler != null) {
+
+      ctx.put(HANDLER_DATA, endpoint.data);
+      authHandler.handle(ctx);
+    } else {
+
+      ctx.next();
+    }
+  }
+
+  /**
+   * Run the matched endpoint, or go on with the next routes.
+   *
+   * @param ctx the ctx
+   */
+  private void dispatch(RoutingContext ctx) {
+
+    Endpoint endpoint = ctx.remove(matchKey);
+    if (endpoint == null) {
+
+      ctx.next();
+      return;
+    }
+    endpoint.handler.handle(ctx);
+  }
+
+  /**
+   * Path of the request relative to the router mount point.
+   *
+   * @param ctx the ctx
+   * @return the string
+   */
+  private String routePath(RoutingContext ctx) {
+
+    String path = ctx.normalisedPath();
+    String mountPoint = ctx.mountPoint();
+    if (mountPoint != null && path.startsWith(mountPoint)) {
+
+      path = path.substring(mountPoint.length());
+    }
+    return path.isEmpty() ? "/" : path;
+  }
+
+  /**
+   * Decode a path param, keeping '+' as is like the router does.
+   *
+   * @param value the value
+   * @return the string
+   */
+  @SneakyThrows
+  private static String decode(String value) {
+
+    if (value.indexOf('%') < 0) {
+
+      return value;
+    }
+    return URLDecoder.decode(value.replace("+", "%2B"), StandardCharsets.UTF_8.name());
+  }
+
+  /**
+   * One endpoint of the tree.
+   */
+  private static final class Endpoint {
+
+    private final HandlerData data;
+
+    private final Handler<RoutingContext> handler;
+
+    private Endpoint(HandlerData data, Handler<RoutingContext> handler) {
+      this.data = data;
+      this.handler = handler;
+    }
+  }
+}
@@ -44,6 +44,13 @@ import lombok.Setter;
 /**
  * Use as helper to handle one Route invocation.
  *
+ * <p>The request being handled is read through {@link #context()}, {@link #req()} and {@link #res()}. Per-request
+ * and pooled instances (see {@link org.jspare.vertx.reactivex.web.annotation.InstanceLifecycle}) are bound to the
+ * {@link RoutingContext} of their request until its response ends, so these helpers also work from asynchronous
+ * callbacks. Singleton instances read it from the {@link RequestScope}, which only holds while the handler method is
+ * being dispatched; outside of it these helpers throw an {@link IllegalStateException}, and asynchronous callbacks
+ * must use the {@link RoutingContext} received as parameter.</p>
+ *
  * @author <a href="https://pflima92.github.io/">Paulo Lima</a>
  */
 public abstract class APIHandler {
@@ -52,16 +59,50 @@ public abstract class APIHandler {
   protected Vertx vertx;
 
   @Setter
-  protected HttpServerRequest req;
+  protected SockJSSocket sockJSEvent;
 
-  @Setter
-  protected HttpServerResponse res;
+  /**
+   * The routing context of per-request and pooled instances.
+   */
+  private RoutingContext boundContext;
 
-  @Setter
-  protected RoutingContext context;
+  /**
+   * Bind this instance to one request, or unbind it with null. Not used for singleton instances.
+   *
+   * @param routingContext the routing context
+   */
+  void bind(RoutingContext routingContext) {
+    this.boundContext = routingContext;
+  }
 
-  @Setter
-  protected SockJSSocket sockJSEvent;
+  /**
+   * The routing context of the request being handled.
+   *
+   * @return the routing context
+   * @throws IllegalStateException when a singleton instance is called outside of a handler dispatch
+   */
+  protected RoutingContext context() {
+    RoutingContext bound = boundContext;
+    return bound != null ? bound : RequestScope.context();
+  }
+
+  /**
+   * The request being handled.
+   *
+   * @return the http server request
+   */
+  protected HttpServerRequest req() {
+    return context().request();
+  }
+
+  /**
+   * The response of the request being handled.
+   *
+   * @return the http server response
+   */
+  protected HttpServerResponse res() {
+    return context().response();
+  }
 
   /**
    * Accepted.
@@ -101,7 +142,7 @@ public abstract class APIHandler {
   protected void accepted(Object object, Charset charset) {
     status(HttpResponseStatus.ACCEPTED);
     contentType("application/json");
-    res.setChunked(true).write(transform(object), StandardCharsets.UTF_8.name());
+    res().setChunked(true).write(transform(object), StandardCharsets.UTF_8.name());
     end();
   }
 
@@ -128,8 +169,8 @@ public abstract class APIHandler {
     if (isValidJson(content)) {
       contentType("application/json");
     }
-    res.setChunked(true);
-    res.write(content, charset.name());
+    res().setChunked(true);
+    res().write(content, charset.name());
     end();
   }
 
@@ -171,7 +212,7 @@ public abstract class APIHandler {
   protected void badGateway(Object object, Charset charset) {
     status(HttpResponseStatus.BAD_GATEWAY);
     contentType("application/json");
-    res.setChunked(true).write(transform(object), StandardCharsets.UTF_8.name());
+    res().setChunked(true).write(transform(object), StandardCharsets.UTF_8.name());
     end();
   }
 
@@ -198,8 +239,8 @@ public abstract class APIHandler {
     if (isValidJson(content)) {
       contentType("application/json");
     }
-    res.setChunked(true);
-    res.write(content, charset.name());
+    res().setChunked(true);
+    res().write(content, charset.name());
     end();
   }
 
@@ -241,7 +282,7 @@ public abstract class APIHandler {
   protected void badRequest(Object object, Charset charset) {
     status(HttpResponseStatus.BAD_REQUEST);
     contentType("application/json");
-    res.setChunked(true).write(transform(object), StandardCharsets.UTF_8.name());
+    res().setChunked(true).write(transform(object), StandardCharsets.UTF_8.name());
     end();
   }
 
@@ -268,8 +309,8 @@ public abstract class APIHandler {
     if (isValidJson(content)) {
       contentType("application/json");
     }
-    res.setChunked(true);
-    res.write(content, charset.name());
+    res().setChunked(true);
+    res().write(content, charset.name());
     end();
   }
 
@@ -280,7 +321,7 @@ public abstract class APIHandler {
    */
   protected String body() {
 
-    return context.getBodyAsString();
+    return context().getBodyAsString();
   }
 
   /**
@@ -321,7 +362,7 @@ public abstract class APIHandler {
   protected void conflict(Object object, Charset charset) {
     status(HttpResponseStatus.CONFLICT);
     contentType("application/json");
-    res.setChunked(true).write(transform(object), StandardCharsets.UTF_8.name());
+    res().setChunked(true).write(transform(object), StandardCharsets.UTF_8.name());
     end();
   }
 
@@ -348,8 +389,8 @@ public abstract class APIHandler {
     if (isValidJson(content)) {
       contentType("application/json");
     }
-    res.setChunked(true);
-    res.write(content, charset.name());
+    res().setChunked(true);
+    res().write(content, charset.name());
     end();
   }
 
@@ -361,8 +402,8 @@ public abstract class APIHandler {
    * @return the http server response
    */
   protected HttpServerResponse contentType(String contentType) {
-    res.putHeader("content-type", contentType);
-    return res;
+    res().putHeader("content-type", contentType);
+    return res();
   }
 
   /**
@@ -403,7 +444,7 @@ public abstract class APIHandler {
   protected void continueIt(Object object, Charset charset) {
     status(HttpResponseStatus.CONTINUE);
     contentType("application/json");
-    res.setChunked(true).write(transform(object), StandardCharsets.UTF_8.name());
+    res().setChunked(true).write(transform(object), StandardCharsets.UTF_8.name());
     end();
   }
 
@@ -430,8 +471,8 @@ public abstract class APIHandler {
     if (isValidJson(content)) {
       contentType("application/json");
     }
-    res.setChunked(true);
-    res.write(content, charset.name());
+    res().setChunked(true);
+    res().write(content, charset.name());
     end();
   }
 
@@ -442,7 +483,7 @@ public abstract class APIHandler {
    */
   protected Set<Cookie> cookies() {
 
-    return context.cookies();
+    return context().cookies();
   }
 
   /**
@@ -483,7 +524,7 @@ public abstract class APIHandler {
   protected void created(Object object, Charset charset) {
     status(HttpResponseStatus.CREATED);
     contentType("application/json");
-    res.setChunked(true).write(transform(object), StandardCharsets.UTF_8.name());
+    res().setChunked(true).write(transform(object), StandardCharsets.UTF_8.name());
     end();
   }
 
@@ -510,8 +551,8 @@ public abstract class APIHandler {
     if (isValidJson(content)) {
       contentType("application/json");
     }
-    res.setChunked(true);
-    res.write(content, charset.name());
+    res().setChunked(true);
+    res().write(content, charset.name());
     end();
   }
 
@@ -520,9 +561,9 @@ public abstract class APIHandler {
    */
   protected void end() {
 
-    if (!res.ended()) {
+    if (!res().ended()) {
 
-      res.end();
+      res().end();
     }
   }
 
@@ -534,9 +575,9 @@ public abstract class APIHandler {
    */
   protected void end(Buffer buffer) {
 
-    if (!res.ended()) {
+    if (!res().ended()) {
 
-      res.end(buffer);
+      res().end(buffer);
     }
   }
 
@@ -548,9 +589,9 @@ public abstract class APIHandler {
    */
   protected void end(JsonObject jsonObject) {
 
-    if (!res.ended()) {
+    if (!res().ended()) {
 
-      res.end(jsonObject.encode());
+      res().end(jsonObject.encode());
     }
   }
 
@@ -653,7 +694,7 @@ public abstract class APIHandler {
   protected void expectationFailed(Object object, Charset charset) {
     status(HttpResponseStatus.EXPECTATION_FAILED);
     contentType("application/json");
-    res.setChunked(true).write(transform(object), StandardCharsets.UTF_8.name());
+    res().setChunked(true).write(transform(object), StandardCharsets.UTF_8.name());
     end();
   }
 
@@ -680,8 +721,8 @@ public abstract class APIHandler {
     if (isValidJson(content)) {
       contentType("application/json");
     }
-    res.setChunked(true);
-    res.write(content, charset.name());
+    res().setChunked(true);
+    res().write(content, charset.name());
     end();
   }
 
@@ -723,7 +764,7 @@ public abstract class APIHandler {
   protected void failedDependency(Object object, Charset charset) {
     status(HttpResponseStatus.FAILED_DEPENDENCY);
     contentType("application/json");
-    res.setChunked(true).write(transform(object), StandardCharsets.UTF_8.name());
+    res().setChunked(true).write(transform(object), StandardCharsets.UTF_8.name());
     end();
   }
 
@@ -750,8 +791,8 @@ public abstract class APIHandler {
     if (isValidJson(content)) {
       contentType("application/json");
     }
-    res.setChunked(true);
-    res.write(content, charset.name());
+    res().setChunked(true);
+    res().write(content, charset.name());
     end();
   }
 
@@ -762,7 +803,7 @@ public abstract class APIHandler {
    */
   protected Set<FileUpload> fileUploads() {
 
-    return context.fileUploads();
+    return context().fileUploads();
   }
 
   /**
@@ -803,7 +844,7 @@ public abstract class APIHandler {
   protected void forbidden(Object object, Charset charset) {
     status(HttpResponseStatus.FORBIDDEN);
     contentType("application/json");
-    res.setChunked(true).write(transform(object), StandardCharsets.UTF_8.name());
+    res().setChunked(true).write(transform(object), StandardCharsets.UTF_8.name());
     end();
   }
 
@@ -830,8 +871,8 @@ public abstract class APIHandler {
     if (isValidJson(content)) {
       contentType("application/json");
     }
-    res.setChunked(true);
-    res.write(content, charset.name());
+    res().setChunked(true);
+    res().write(content, charset.name());
     end();
   }
 
@@ -873,7 +914,7 @@ public abstract class APIHandler {
   protected void found(Object object, Charset charset) {
     status(HttpResponseStatus.FOUND);
     contentType("application/json");
-    res.setChunked(true).write(transform(object), StandardCharsets.UTF_8.name());
+    res().setChunked(true).write(transform(object), StandardCharsets.UTF_8.name());
     end();
   }
 
@@ -900,8 +941,8 @@ public abstract class APIHandler {
     if (isValidJson(content)) {
       contentType("application/json");
     }
-    res.setChunked(true);
-    res.write(content, charset.name());
+    res().setChunked(true);
+    res().write(content, charset.name());
     end();
   }
 
@@ -943,7 +984,7 @@ public abstract class APIHandler {
   protected void gatewayTimeout(Object object, Charset charset) {
     status(HttpResponseStatus.GATEWAY_TIMEOUT);
     contentType("application/json");
-    res.setChunked(true).write(transform(object), StandardCharsets.UTF_8.name());
+    res().setChunked(true).write(transform(object), StandardCharsets.UTF_8.name());
     end();
   }
 
@@ -970,8 +1011,8 @@ public abstract class APIHandler {
     if (isValidJson(content)) {
       contentType("application/json");
     }
-    res.setChunked(true);
-    res.write(content, charset.name());
+    res().setChunked(true);
+    res().write(content, charset.name());
     end();
   }
 
@@ -984,7 +1025,7 @@ public abstract class APIHandler {
    */
   protected Cookie getCookie(String name) {
 
-    return context.getCookie(name);
+    return context().getCookie(name);
   }
 
   /**
@@ -996,7 +1037,7 @@ public abstract class APIHandler {
    */
   protected Optional<String> getHeader(String name) {
 
-    return Optional.ofNullable(req.getHeader(name));
+    return Optional.ofNullable(req().getHeader(name));
   }
 
   /**
@@ -1008,7 +1049,7 @@ public abstract class APIHandler {
    */
   protected String getParameter(String name) {
 
-    return req.getParam(name);
+    return req().getParam(name);
   }
 
   /**
@@ -1018,11 +1059,11 @@ public abstract class APIHandler {
    */
   protected JsonObject getPrincipal() {
 
-    if (context.user() == null) {
+    if (context().user() == null) {
 
       return null;
     }
-    return context.user().principal();
+    return context().user().principal();
   }
 
   /**
@@ -1032,7 +1073,7 @@ public abstract class APIHandler {
    */
   protected User getUser() {
 
-    return context.user();
+    return context().user();
   }
 
   /**
@@ -1073,7 +1114,7 @@ public abstract class APIHandler {
   protected void gone(Object object, Charset charset) {
     status(HttpResponseStatus.GONE);
     contentType("application/json");
-    res.setChunked(true).write(transform(object), StandardCharsets.UTF_8.name());
+    res().setChunked(true).write(transform(object), StandardCharsets.UTF_8.name());
     end();
   }
 
@@ -1100,8 +1141,8 @@ public abstract class APIHandler {
     if (isValidJson(content)) {
       contentType("application/json");
     }
-    res.setChunked(true);
-    res.write(content, charset.name());
+    res().setChunked(true);
+    res().write(content, charset.name());
     end();
   }
 
@@ -1143,7 +1184,7 @@ public abstract class APIHandler {
   protected void httpVersionNotSupported(Object object, Charset charset) {
     status(HttpResponseStatus.HTTP_VERSION_NOT_SUPPORTED);
     contentType("application/json");
-    res.setChunked(true).write(transform(object), StandardCharsets.UTF_8.name());
+    res().setChunked(true).write(transform(object), StandardCharsets.UTF_8.name());
     end();
   }
 
@@ -1170,8 +1211,8 @@ public abstract class APIHandler {
     if (isValidJson(content)) {
       contentType("application/json");
     }
-    res.setChunked(true);
-    res.write(content, charset.name());
+    res().setChunked(true);
+    res().write(content, charset.name());
     end();
   }
 
@@ -1213,7 +1254,7 @@ public abstract class APIHandler {
   protected void insufficientStorage(Object object, Charset charset) {
     status(HttpResponseStatus.INSUFFICIENT_STORAGE);
     contentType("application/json");
-    res.setChunked(true).write(transform(object), StandardCharsets.UTF_8.name());
+    res().setChunked(true).write(transform(object), StandardCharsets.UTF_8.name());
     end();
   }
 
@@ -1240,8 +1281,8 @@ public abstract class APIHandler {
     if (isValidJson(content)) {
       contentType("application/json");
     }
-    res.setChunked(true);
-    res.write(content, charset.name());
+    res().setChunked(true);
+    res().write(content, charset.name());
     end();
   }
 
@@ -1283,7 +1324,7 @@ public abstract class APIHandler {
   protected void internalServerError(Object object, Charset charset) {
     status(HttpResponseStatus.INTERNAL_SERVER_ERROR);
     contentType("application/json");
-    res.setChunked(true).write(transform(object), StandardCharsets.UTF_8.name());
+    res().setChunked(true).write(transform(object), StandardCharsets.UTF_8.name());
     end();
   }
 
@@ -1310,8 +1351,8 @@ public abstract class APIHandler {
     if (isValidJson(content)) {
       contentType("application/json");
     }
-    res.setChunked(true);
-    res.write(content, charset.name());
+    res().setChunked(true);
+    res().write(content, charset.name());
     end();
   }
 
@@ -1327,7 +1368,7 @@ public abstract class APIHandler {
 
     List<Future<Boolean>> futures = permissions.stream().map(p -> {
       Future<Boolean> future = Future.future();
-      context.user().isAuthorised(p, future.completer());
+      context().user().isAuthorised(p, future.completer());
       return future;
     }).collect(Collectors.toList());
 
@@ -1365,7 +1406,7 @@ public abstract class APIHandler {
    */
   protected void isAuthorised(String authority, Handler<AsyncResult<Boolean>> resultHandler) {
 
-    context.user().isAuthorised(authority, resultHandler);
+    context().user().isAuthorised(authority, resultHandler);
   }
 
   /**
@@ -1422,7 +1463,7 @@ public abstract class APIHandler {
   protected void lengthRequired(Object object, Charset charset) {
     status(HttpResponseStatus.LENGTH_REQUIRED);
     contentType("application/json");
-    res.setChunked(true).write(transform(object), StandardCharsets.UTF_8.name());
+    res().setChunked(true).write(transform(object), StandardCharsets.UTF_8.name());
     end();
   }
 
@@ -1449,8 +1490,8 @@ public abstract class APIHandler {
     if (isValidJson(content)) {
       contentType("application/json");
     }
-    res.setChunked(true);
-    res.write(content, charset.name());
+    res().setChunked(true);
+    res().write(content, charset.name());
     end();
   }
 
@@ -1492,7 +1533,7 @@ public abstract class APIHandler {
   protected void locked(Object object, Charset charset) {
     status(HttpResponseStatus.LOCKED);
     contentType("application/json");
-    res.setChunked(true).write(transform(object), StandardCharsets.UTF_8.name());
+    res().setChunked(true).write(transform(object), StandardCharsets.UTF_8.name());
     end();
   }
 
@@ -1519,8 +1560,8 @@ public abstract class APIHandler {
     if (isValidJson(content)) {
       contentType("application/json");
     }
-    res.setChunked(true);
-    res.write(content, charset.name());
+    res().setChunked(true);
+    res().write(content, charset.name());
     end();
   }
 
@@ -1562,7 +1603,7 @@ public abstract class APIHandler {
   protected void methodNotAllowed(Object object, Charset charset) {
     status(HttpResponseStatus.METHOD_NOT_ALLOWED);
     contentType("application/json");
-    res.setChunked(true).write(transform(object), StandardCharsets.UTF_8.name());
+    res().setChunked(true).write(transform(object), StandardCharsets.UTF_8.name());
     end();
   }
 
@@ -1589,8 +1630,8 @@ public abstract class APIHandler {
     if (isValidJson(content)) {
       contentType("application/json");
     }
-    res.setChunked(true);
-    res.write(content, charset.name());
+    res().setChunked(true);
+    res().write(content, charset.name());
     end();
   }
 
@@ -1632,7 +1673,7 @@ public abstract class APIHandler {
   protected void misdirectedRequest(Object object, Charset charset) {
     status(HttpResponseStatus.MISDIRECTED_REQUEST);
     contentType("application/json");
-    res.setChunked(true).write(transform(object), StandardCharsets.UTF_8.name());
+    res().setChunked(true).write(transform(object), StandardCharsets.UTF_8.name());
     end();
   }
 
@@ -1659,8 +1700,8 @@ public abstract class APIHandler {
     if (isValidJson(content)) {
       contentType("application/json");
     }
-    res.setChunked(true);
-    res.write(content, charset.name());
+    res().setChunked(true);
+    res().write(content, charset.name());
     end();
   }
 
@@ -1702,7 +1743,7 @@ public abstract class APIHandler {
   protected void movedPermanently(Object object, Charset charset) {
     status(HttpResponseStatus.MOVED_PERMANENTLY);
     contentType("application/json");
-    res.setChunked(true).write(transform(object), StandardCharsets.UTF_8.name());
+    res().setChunked(true).write(transform(object), StandardCharsets.UTF_8.name());
     end();
   }
 
@@ -1729,8 +1770,8 @@ public abstract class APIHandler {
     if (isValidJson(content)) {
       contentType("application/json");
     }
-    res.setChunked(true);
-    res.write(content, charset.name());
+    res().setChunked(true);
+    res().write(content, charset.name());
     end();
   }
 
@@ -1772,7 +1813,7 @@ public abstract class APIHandler {
   protected void multipleChoices(Object object, Charset charset) {
     status(HttpResponseStatus.MULTIPLE_CHOICES);
     contentType("application/json");
-    res.setChunked(true).write(transform(object), StandardCharsets.UTF_8.name());
+    res().setChunked(true).write(transform(object), StandardCharsets.UTF_8.name());
     end();
   }
 
@@ -1799,8 +1840,8 @@ public abstract class APIHandler {
     if (isValidJson(content)) {
       contentType("application/json");
     }
-    res.setChunked(true);
-    res.write(content, charset.name());
+    res().setChunked(true);
+    res().write(content, charset.name());
     end();
   }
 
@@ -1842,7 +1883,7 @@ public abstract class APIHandler {
   protected void multiStatus(Object object, Charset charset) {
     status(HttpResponseStatus.MULTI_STATUS);
     contentType("application/json");
-    res.setChunked(true).write(transform(object), StandardCharsets.UTF_8.name());
+    res().setChunked(true).write(transform(object), StandardCharsets.UTF_8.name());
     end();
   }
 
@@ -1869,8 +1910,8 @@ public abstract class APIHandler {
     if (isValidJson(content)) {
       contentType("application/json");
     }
-    res.setChunked(true);
-    res.write(content, charset.name());
+    res().setChunked(true);
+    res().write(content, charset.name());
     end();
   }
 
@@ -1912,7 +1953,7 @@ public abstract class APIHandler {
   protected void networkAuthenticationRequired(Object object, Charset charset) {
     status(HttpResponseStatus.NETWORK_AUTHENTICATION_REQUIRED);
     contentType("application/json");
-    res.setChunked(true).write(transform(object), StandardCharsets.UTF_8.name());
+    res().setChunked(true).write(transform(object), StandardCharsets.UTF_8.name());
     end();
   }
 
@@ -1939,8 +1980,8 @@ public abstract class APIHandler {
     if (isValidJson(content)) {
       contentType("application/json");
     }
-    res.setChunked(true);
-    res.write(content, charset.name());
+    res().setChunked(true);
+    res().write(content, charset.name());
     end();
   }
 
@@ -1982,7 +2023,7 @@ public abstract class APIHandler {
   protected void noContent(Object object, Charset charset) {
     status(HttpResponseStatus.NO_CONTENT);
     contentType("application/json");
-    res.setChunked(true).write(transform(object), StandardCharsets.UTF_8.name());
+    res().setChunked(true).write(transform(object), StandardCharsets.UTF_8.name());
     end();
   }
 
@@ -2009,8 +2050,8 @@ public abstract class APIHandler {
     if (isValidJson(content)) {
       contentType("application/json");
     }
-    res.setChunked(true);
-    res.write(content, charset.name());
+    res().setChunked(true);
+    res().write(content, charset.name());
     end();
   }
 
@@ -2052,7 +2093,7 @@ public abstract class APIHandler {
   protected void nonAuthoratitativeInformation(Object object, Charset charset) {
     status(HttpResponseStatus.NON_AUTHORITATIVE_INFORMATION);
     contentType("application/json");
-    res.setChunked(true).write(transform(object), StandardCharsets.UTF_8.name());
+    res().setChunked(true).write(transform(object), StandardCharsets.UTF_8.name());
     end();
   }
 
@@ -2079,8 +2120,8 @@ public abstract class APIHandler {
     if (isValidJson(content)) {
       contentType("application/json");
     }
-    res.setChunked(true);
-    res.write(content, charset.name());
+    res().setChunked(true);
+    res().write(content, charset.name());
     end();
   }
 
@@ -2122,7 +2163,7 @@ public abstract class APIHandler {
   protected void notAcceptable(Object object, Charset charset) {
     status(HttpResponseStatus.NOT_ACCEPTABLE);
     contentType("application/json");
-    res.setChunked(true).write(transform(object), StandardCharsets.UTF_8.name());
+    res().setChunked(true).write(transform(object), StandardCharsets.UTF_8.name());
     end();
   }
 
@@ -2149,8 +2190,8 @@ public abstract class APIHandler {
     if (isValidJson(content)) {
       contentType("application/json");
     }
-    res.setChunked(true);
-    res.write(content, charset.name());
+    res().setChunked(true);
+    res().write(content, charset.name());
     end();
   }
 
@@ -2192,7 +2233,7 @@ public abstract class APIHandler {
   protected void notExtended(Object object, Charset charset) {
     status(HttpResponseStatus.NOT_EXTENDED);
     contentType("application/json");
-    res.setChunked(true).write(transform(object), StandardCharsets.UTF_8.name());
+    res().setChunked(true).write(transform(object), StandardCharsets.UTF_8.name());
     end();
   }
 
@@ -2219,8 +2260,8 @@ public abstract class APIHandler {
     if (isValidJson(content)) {
       contentType("application/json");
     }
-    res.setChunked(true);
-    res.write(content, charset.name());
+    res().setChunked(true);
+    res().write(content, charset.name());
     end();
   }
 
@@ -2262,7 +2303,7 @@ public abstract class APIHandler {
   protected void notFound(Object object, Charset charset) {
     status(HttpResponseStatus.NOT_FOUND);
     contentType("application/json");
-    res.setChunked(true).write(transform(object), StandardCharsets.UTF_8.name());
+    res().setChunked(true).write(transform(object), StandardCharsets.UTF_8.name());
     end();
   }
 
@@ -2289,8 +2330,8 @@ public abstract class APIHandler {
     if (isValidJson(content)) {
       contentType("application/json");
     }
-    res.setChunked(true);
-    res.write(content, charset.name());
+    res().setChunked(true);
+    res().write(content, charset.name());
     end();
   }
 
@@ -2332,7 +2373,7 @@ public abstract class APIHandler {
   protected void notImplemented(Object object, Charset charset) {
     status(HttpResponseStatus.NOT_IMPLEMENTED);
     contentType("application/json");
-    res.setChunked(true).write(transform(object), StandardCharsets.UTF_8.name());
+    res().setChunked(true).write(transform(object), StandardCharsets.UTF_8.name());
     end();
   }
 
@@ -2359,8 +2400,8 @@ public abstract class APIHandler {
     if (isValidJson(content)) {
       contentType("application/json");
     }
-    res.setChunked(true);
-    res.write(content, charset.name());
+    res().setChunked(true);
+    res().write(content, charset.name());
     end();
   }
 
@@ -2402,7 +2443,7 @@ public abstract class APIHandler {
   protected void notModified(Object object, Charset charset) {
     status(HttpResponseStatus.NOT_MODIFIED);
     contentType("application/json");
-    res.setChunked(true).write(transform(object), StandardCharsets.UTF_8.name());
+    res().setChunked(true).write(transform(object), StandardCharsets.UTF_8.name());
     end();
   }
 
@@ -2429,8 +2470,8 @@ public abstract class APIHandler {
     if (isValidJson(content)) {
       contentType("application/json");
     }
-    res.setChunked(true);
-    res.write(content, charset.name());
+    res().setChunked(true);
+    res().write(content, charset.name());
     end();
   }
 
@@ -2533,7 +2574,7 @@ public abstract class APIHandler {
   protected void partialContent(Object object, Charset charset) {
     status(HttpResponseStatus.PARTIAL_CONTENT);
     contentType("application/json");
-    res.setChunked(true).write(transform(object), StandardCharsets.UTF_8.name());
+    res().setChunked(true).write(transform(object), StandardCharsets.UTF_8.name());
     end();
   }
 
@@ -2560,8 +2601,8 @@ public abstract class APIHandler {
     if (isValidJson(content)) {
       contentType("application/json");
     }
-    res.setChunked(true);
-    res.write(content, charset.name());
+    res().setChunked(true);
+    res().write(content, charset.name());
     end();
   }
 
@@ -2603,7 +2644,7 @@ public abstract class APIHandler {
   protected void paymentRequired(Object object, Charset charset) {
     status(HttpResponseStatus.PAYMENT_REQUIRED);
     contentType("application/json");
-    res.setChunked(true).write(transform(object), StandardCharsets.UTF_8.name());
+    res().setChunked(true).write(transform(object), StandardCharsets.UTF_8.name());
     end();
   }
 
@@ -2630,8 +2671,8 @@ public abstract class APIHandler {
     if (isValidJson(content)) {
       contentType("application/json");
     }
-    res.setChunked(true);
-    res.write(content, charset.name());
+    res().setChunked(true);
+    res().write(content, charset.name());
     end();
   }
 
@@ -2673,7 +2714,7 @@ public abstract class APIHandler {
   protected void preConditionFailed(Object object, Charset charset) {
     status(HttpResponseStatus.PRECONDITION_FAILED);
     contentType("application/json");
-    res.setChunked(true).write(transform(object), StandardCharsets.UTF_8.name());
+    res().setChunked(true).write(transform(object), StandardCharsets.UTF_8.name());
     end();
   }
 
@@ -2700,8 +2741,8 @@ public abstract class APIHandler {
     if (isValidJson(content)) {
       contentType("application/json");
     }
-    res.setChunked(true);
-    res.write(content, charset.name());
+    res().setChunked(true);
+    res().write(content, charset.name());
     end();
   }
 
@@ -2743,7 +2784,7 @@ public abstract class APIHandler {
   protected void preconditionRequired(Object object, Charset charset) {
     status(HttpResponseStatus.PRECONDITION_REQUIRED);
     contentType("application/json");
-    res.setChunked(true).write(transform(object), StandardCharsets.UTF_8.name());
+    res().setChunked(true).write(transform(object), StandardCharsets.UTF_8.name());
     end();
   }
 
@@ -2770,8 +2811,8 @@ public abstract class APIHandler {
     if (isValidJson(content)) {
       contentType("application/json");
     }
-    res.setChunked(true);
-    res.write(content, charset.name());
+    res().setChunked(true);
+    res().write(content, charset.name());
     end();
   }
 
@@ -2813,7 +2854,7 @@ public abstract class APIHandler {
   protected void processing(Object object, Charset charset) {
     status(HttpResponseStatus.PROCESSING);
     contentType("application/json");
-    res.setChunked(true).write(transform(object), StandardCharsets.UTF_8.name());
+    res().setChunked(true).write(transform(object), StandardCharsets.UTF_8.name());
     end();
   }
 
@@ -2840,8 +2881,8 @@ public abstract class APIHandler {
     if (isValidJson(content)) {
       contentType("application/json");
     }
-    res.setChunked(true);
-    res.write(content, charset.name());
+    res().setChunked(true);
+    res().write(content, charset.name());
     end();
   }
 
@@ -2883,7 +2924,7 @@ public abstract class APIHandler {
   protected void proxyAuthenticationRequired(Object object, Charset charset) {
     status(HttpResponseStatus.PROXY_AUTHENTICATION_REQUIRED);
     contentType("application/json");
-    res.setChunked(true).write(transform(object), StandardCharsets.UTF_8.name());
+    res().setChunked(true).write(transform(object), StandardCharsets.UTF_8.name());
     end();
   }
 
@@ -2910,8 +2951,8 @@ public abstract class APIHandler {
     if (isValidJson(content)) {
       contentType("application/json");
     }
-    res.setChunked(true);
-    res.write(content, charset.name());
+    res().setChunked(true);
+    res().write(content, charset.name());
     end();
   }
 
@@ -2953,7 +2994,7 @@ public abstract class APIHandler {
   protected void requestEntityTooLarge(Object object, Charset charset) {
     status(HttpResponseStatus.REQUEST_ENTITY_TOO_LARGE);
     contentType("application/json");
-    res.setChunked(true).write(transform(object), StandardCharsets.UTF_8.name());
+    res().setChunked(true).write(transform(object), StandardCharsets.UTF_8.name());
     end();
   }
 
@@ -2980,8 +3021,8 @@ public abstract class APIHandler {
     if (isValidJson(content)) {
       contentType("application/json");
     }
-    res.setChunked(true);
-    res.write(content, charset.name());
+    res().setChunked(true);
+    res().write(content, charset.name());
     end();
   }
 
@@ -3023,7 +3064,7 @@ public abstract class APIHandler {
   protected void requestHeaderFieldsTooLarge(Object object, Charset charset) {
     status(HttpResponseStatus.REQUEST_HEADER_FIELDS_TOO_LARGE);
     contentType("application/json");
-    res.setChunked(true).write(transform(object), StandardCharsets.UTF_8.name());
+    res().setChunked(true).write(transform(object), StandardCharsets.UTF_8.name());
     end();
   }
 
@@ -3050,8 +3091,8 @@ public abstract class APIHandler {
     if (isValidJson(content)) {
       contentType("application/json");
     }
-    res.setChunked(true);
-    res.write(content, charset.name());
+    res().setChunked(true);
+    res().write(content, charset.name());
     end();
   }
 
@@ -3093,7 +3134,7 @@ public abstract class APIHandler {
   protected void requestRangeNotSatisfiable(Object object, Charset charset) {
     status(HttpResponseStatus.REQUESTED_RANGE_NOT_SATISFIABLE);
     contentType("application/json");
-    res.setChunked(true).write(transform(object), StandardCharsets.UTF_8.name());
+    res().setChunked(true).write(transform(object), StandardCharsets.UTF_8.name());
     end();
   }
 
@@ -3120,8 +3161,8 @@ public abstract class APIHandler {
     if (isValidJson(content)) {
       contentType("application/json");
     }
-    res.setChunked(true);
-    res.write(content, charset.name());
+    res().setChunked(true);
+    res().write(content, charset.name());
     end();
   }
 
@@ -3163,7 +3204,7 @@ public abstract class APIHandler {
   protected void requestTimeout(Object object, Charset charset) {
     status(HttpResponseStatus.REQUEST_TIMEOUT);
     contentType("application/json");
-    res.setChunked(true).write(transform(object), StandardCharsets.UTF_8.name());
+    res().setChunked(true).write(transform(object), StandardCharsets.UTF_8.name());
     end();
   }
 
@@ -3190,8 +3231,8 @@ public abstract class APIHandler {
     if (isValidJson(content)) {
       contentType("application/json");
     }
-    res.setChunked(true);
-    res.write(content, charset.name());
+    res().setChunked(true);
+    res().write(content, charset.name());
     end();
   }
 
@@ -3233,7 +3274,7 @@ public abstract class APIHandler {
   protected void requestUtiTooLong(Object object, Charset charset) {
     status(HttpResponseStatus.REQUEST_ENTITY_TOO_LARGE);
     contentType("application/json");
-    res.setChunked(true).write(transform(object), StandardCharsets.UTF_8.name());
+    res().setChunked(true).write(transform(object), StandardCharsets.UTF_8.name());
     end();
   }
 
@@ -3260,8 +3301,8 @@ public abstract class APIHandler {
     if (isValidJson(content)) {
       contentType("application/json");
     }
-    res.setChunked(true);
-    res.write(content, charset.name());
+    res().setChunked(true);
+    res().write(content, charset.name());
     end();
   }
 
@@ -3303,7 +3344,7 @@ public abstract class APIHandler {
   protected void resetContent(Object object, Charset charset) {
     status(HttpResponseStatus.RESET_CONTENT);
     contentType("application/json");
-    res.setChunked(true).write(transform(object), StandardCharsets.UTF_8.name());
+    res().setChunked(true).write(transform(object), StandardCharsets.UTF_8.name());
     end();
   }
 
@@ -3330,8 +3371,8 @@ public abstract class APIHandler {
     if (isValidJson(content)) {
       contentType("application/json");
     }
-    res.setChunked(true);
-    res.write(content, charset.name());
+    res().setChunked(true);
+    res().write(content, charset.name());
     end();
   }
 
@@ -3373,7 +3414,7 @@ public abstract class APIHandler {
   protected void seeOther(Object object, Charset charset) {
     status(HttpResponseStatus.SEE_OTHER);
     contentType("application/json");
-    res.setChunked(true).write(transform(object), StandardCharsets.UTF_8.name());
+    res().setChunked(true).write(transform(object), StandardCharsets.UTF_8.name());
     end();
   }
 
@@ -3400,8 +3441,8 @@ public abstract class APIHandler {
     if (isValidJson(content)) {
       contentType("application/json");
     }
-    res.setChunked(true);
-    res.write(content, charset.name());
+    res().setChunked(true);
+    res().write(content, charset.name());
     end();
   }
 
@@ -3443,7 +3484,7 @@ public abstract class APIHandler {
   protected void serviceUnavailable(Object object, Charset charset) {
     status(HttpResponseStatus.SERVICE_UNAVAILABLE);
     contentType("application/json");
-    res.setChunked(true).write(transform(object), StandardCharsets.UTF_8.name());
+    res().setChunked(true).write(transform(object), StandardCharsets.UTF_8.name());
     end();
   }
 
@@ -3470,8 +3511,8 @@ public abstract class APIHandler {
     if (isValidJson(content)) {
       contentType("application/json");
     }
-    res.setChunked(true);
-    res.write(content, charset.name());
+    res().setChunked(true);
+    res().write(content, charset.name());
     end();
   }
 
@@ -3483,9 +3524,9 @@ public abstract class APIHandler {
    * @return the http server response
    */
   protected HttpServerResponse status(HttpResponseStatus status) {
-    res.setStatusCode(status.code());
-    res.setStatusMessage(status.reasonPhrase());
-    return res;
+    res().setStatusCode(status.code());
+    res().setStatusMessage(status.reasonPhrase());
+    return res();
   }
 
   /**
@@ -3526,7 +3567,7 @@ public abstract class APIHandler {
   protected void success(Object object, Charset charset) {
     status(HttpResponseStatus.OK);
     contentType("application/json");
-    res.setChunked(true).write(transform(object), StandardCharsets.UTF_8.name());
+    res().setChunked(true).write(transform(object), StandardCharsets.UTF_8.name());
     end();
   }
 
@@ -3553,8 +3594,8 @@ public abstract class APIHandler {
     if (isValidJson(content)) {
       contentType("application/json");
     }
-    res.setChunked(true);
-    res.write(content, charset.name());
+    res().setChunked(true);
+    res().write(content, charset.name());
     end();
   }
 
@@ -3596,7 +3637,7 @@ public abstract class APIHandler {
   protected void switchingProtocols(Object object, Charset charset) {
     status(HttpResponseStatus.SWITCHING_PROTOCOLS);
     contentType("application/json");
-    res.setChunked(true).write(transform(object), StandardCharsets.UTF_8.name());
+    res().setChunked(true).write(transform(object), StandardCharsets.UTF_8.name());
     end();
   }
 
@@ -3623,8 +3664,8 @@ public abstract class APIHandler {
     if (isValidJson(content)) {
       contentType("application/json");
     }
-    res.setChunked(true);
-    res.write(content, charset.name());
+    res().setChunked(true);
+    res().write(content, charset.name());
     end();
   }
 
@@ -3666,7 +3707,7 @@ public abstract class APIHandler {
   protected void temporaryRedirect(Object object, Charset charset) {
     status(HttpResponseStatus.TEMPORARY_REDIRECT);
     contentType("application/json");
-    res.setChunked(true).write(transform(object), StandardCharsets.UTF_8.name());
+    res().setChunked(true).write(transform(object), StandardCharsets.UTF_8.name());
     end();
   }
 
@@ -3693,8 +3734,8 @@ public abstract class APIHandler {
     if (isValidJson(content)) {
       contentType("application/json");
     }
-    res.setChunked(true);
-    res.write(content, charset.name());
+    res().setChunked(true);
+    res().write(content, charset.name());
     end();
   }
 
@@ -3736,7 +3777,7 @@ public abstract class APIHandler {
   protected void tooManyRequest(Object object, Charset charset) {
     status(HttpResponseStatus.TOO_MANY_REQUESTS);
     contentType("application/json");
-    res.setChunked(true).write(transform(object), StandardCharsets.UTF_8.name());
+    res().setChunked(true).write(transform(object), StandardCharsets.UTF_8.name());
     end();
   }
 
@@ -3763,8 +3804,8 @@ public abstract class APIHandler {
     if (isValidJson(content)) {
       contentType("application/json");
     }
-    res.setChunked(true);
-    res.write(content, charset.name());
+    res().setChunked(true);
+    res().write(content, charset.name());
     end();
   }
 
@@ -3818,7 +3859,7 @@ public abstract class APIHandler {
   protected void unauthorized(Object object, Charset charset) {
     status(HttpResponseStatus.UNAUTHORIZED);
     contentType("application/json");
-    res.setChunked(true).write(transform(object), StandardCharsets.UTF_8.name());
+    res().setChunked(true).write(transform(object), StandardCharsets.UTF_8.name());
     end();
   }
 
@@ -3845,8 +3886,8 @@ public abstract class APIHandler {
     if (isValidJson(content)) {
       contentType("application/json");
     }
-    res.setChunked(true);
-    res.write(content, charset.name());
+    res().setChunked(true);
+    res().write(content, charset.name());
     end();
   }
 
@@ -3888,7 +3929,7 @@ public abstract class APIHandler {
   protected void unorderedCollection(Object object, Charset charset) {
     status(HttpResponseStatus.UNORDERED_COLLECTION);
     contentType("application/json");
-    res.setChunked(true).write(transform(object), StandardCharsets.UTF_8.name());
+    res().setChunked(true).write(transform(object), StandardCharsets.UTF_8.name());
     end();
   }
 
@@ -3915,8 +3956,8 @@ public abstract class APIHandler {
     if (isValidJson(content)) {
       contentType("application/json");
     }
-    res.setChunked(true);
-    res.write(content, charset.name());
+    res().setChunked(true);
+    res().write(content, charset.name());
     end();
   }
 
@@ -3958,7 +3999,7 @@ public abstract class APIHandler {
   protected void unprocessableEntity(Object object, Charset charset) {
     status(HttpResponseStatus.UNPROCESSABLE_ENTITY);
     contentType("application/json");
-    res.setChunked(true).write(transform(object), StandardCharsets.UTF_8.name());
+    res().setChunked(true).write(transform(object), StandardCharsets.UTF_8.name());
     end();
   }
 
@@ -3985,8 +4026,8 @@ public abstract class APIHandler {
     if (isValidJson(content)) {
       contentType("application/json");
     }
-    res.setChunked(true);
-    res.write(content, charset.name());
+    res().setChunked(true);
+    res().write(content, charset.name());
     end();
   }
 
@@ -4028,7 +4069,7 @@ public abstract class APIHandler {
   protected void unsupportedMediaType(Object object, Charset charset) {
     status(HttpResponseStatus.UNSUPPORTED_MEDIA_TYPE);
     contentType("application/json");
-    res.setChunked(true).write(transform(object), StandardCharsets.UTF_8.name());
+    res().setChunked(true).write(transform(object), StandardCharsets.UTF_8.name());
     end();
   }
 
@@ -4055,8 +4096,8 @@ public abstract class APIHandler {
     if (isValidJson(content)) {
       contentType("application/json");
     }
-    res.setChunked(true);
-    res.write(content, charset.name());
+    res().setChunked(true);
+    res().write(content, charset.name());
     end();
   }
 
@@ -4098,7 +4139,7 @@ public abstract class APIHandler {
   protected void upgradeRequired(Object object, Charset charset) {
     status(HttpResponseStatus.UPGRADE_REQUIRED);
     contentType("application/json");
-    res.setChunked(true).write(transform(object), StandardCharsets.UTF_8.name());
+    res().setChunked(true).write(transform(object), StandardCharsets.UTF_8.name());
     end();
   }
 
@@ -4125,8 +4166,8 @@ public abstract class APIHandler {
     if (isValidJson(content)) {
       contentType("application/json");
     }
-    res.setChunked(true);
-    res.write(content, charset.name());
+    res().setChunked(true);
+    res().write(content, charset.name());
     end();
   }
 
@@ -4168,7 +4209,7 @@ public abstract class APIHandler {
   protected void useProxy(Object object, Charset charset) {
     status(HttpResponseStatus.USE_PROXY);
     contentType("application/json");
-    res.setChunked(true).write(transform(object), StandardCharsets.UTF_8.name());
+    res().setChunked(true).write(transform(object), StandardCharsets.UTF_8.name());
     end();
   }
 
@@ -4195,8 +4236,8 @@ public abstract class APIHandler {
     if (isValidJson(content)) {
       contentType("application/json");
     }
-    res.setChunked(true);
-    res.write(content, charset.name());
+    res().setChunked(true);
+    res().write(content, charset.name());
     end();
   }
 
@@ -4238,7 +4279,7 @@ public abstract class APIHandler {
   protected void variantAlsoNegotiates(Object object, Charset charset) {
     status(HttpResponseStatus.VARIANT_ALSO_NEGOTIATES);
     contentType("application/json");
-    res.setChunked(true).write(transform(object), StandardCharsets.UTF_8.name());
+    res().setChunked(true).write(transform(object), StandardCharsets.UTF_8.name());
     end();
   }
 
@@ -4265,8 +4306,8 @@ public abstract class APIHandler {
     if (isValidJson(content)) {
       contentType("application/json");
     }
-    res.setChunked(true);
-    res.write(content, charset.name());
+    res().setChunked(true);
+    res().write(content, charset.name());
     end();
   }
 
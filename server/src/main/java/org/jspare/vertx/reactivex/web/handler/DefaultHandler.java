@@ -23,13 +23,13 @@ import io.vertx.core.json.JsonObject;
 import io.vertx.reactivex.core.http.HttpServerRequest;
 import io.vertx.reactivex.core.http.HttpServerResponse;
 import io.vertx.reactivex.ext.web.RoutingContext;
-import lombok.AllArgsConstructor;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang.SerializationException;
 import org.apache.commons.lang.StringUtils;
 import org.apache.commons.lang.exception.ExceptionUtils;
 import org.jspare.core.Environment;
+import org.jspare.vertx.reactivex.web.annotation.Lifecycle;
 import org.jspare.vertx.reactivex.web.builder.HandlerData;
 import org.jspare.vertx.web.annotation.handling.*;
 
@@ -47,12 +47,7 @@ import static org.jspare.vertx.web.handler.DefaultHandler.HANDLER_DATA;
  * Instantiates a new default handler.
  *
  * <p>This {@link Handler} are responsible to route one mapped by Vertx Jspare Framework. Every request is stateless on Handler controller.</p>
- *
- * @param handlerData
- *          the handler data
  */
-
-@AllArgsConstructor
 public class DefaultHandler implements Handler<RoutingContext> {
 
   /**
@@ -60,6 +55,22 @@ public class DefaultHandler implements Handler<RoutingContext> {
    */
   protected final HandlerData handlerData;
 
+  /**
+   * The parameter resolvers, one per handler method parameter.
+   */
+  protected final ParameterResolver[] parameterResolvers;
+
+  /**
+   * Instantiates a new default handler.
+   *
+   * @param handlerData the handler data
+   */
+  public DefaultHandler(HandlerData handlerData) {
+    this.handlerData = handlerData;
+    this.parameterResolvers = handlerData.parameterResolvers() != null ? handlerData.parameterResolvers()
+      : prepareResolvers();
+  }
+
   /*
    * (non-Javadoc)
    *
@@ -82,19 +93,56 @@ public class DefaultHandler implements Handler<RoutingContext> {
         }
       });
 
-      // Instantiate Handler Class
-      Object newInstance = instantiateHandler();
+      dispatch(context);
+
+    } catch (Throwable t) {
+
+      catchInvoke(context, t);
+    }
+  }
+
+  /**
+   * Dispatch the request to the route instance provided for it, keeping the request in {@link RequestScope} while
+   * the handler method runs. A pooled instance goes back to its pool once the response ended, not when the handler
+   * method returns, so the asynchronous callbacks of the request keep it to themselves.
+   *
+   * @param context the routing context
+   * @throws Throwable any exception thrown by the handler method
+   */
+  protected void dispatch(RoutingContext context) throws Throwable {
+
+    HandlerInstanceProvider provider = handlerData.instanceProvider();
+
+    // Instantiate Handler Class or borrow a shared one
+    Object newInstance = provider != null ? provider.acquire() : instantiateHandler();
+    if (provider != null && Lifecycle.POOLED.equals(provider.lifecycle())) {
+
+      context.addBodyEndHandler(v -> {
+        if (newInstance instanceof APIHandler) {
+
+          ((APIHandler) newInstance).bind(null);
+        }
+        provider.release(newInstance);
+      });
+    }
+    RoutingContext previous = RequestScope.enter(context);
+    try {
 
       setHandlingParameters(context, newInstance);
 
       Object[] parameters = collectParameters(context);
 
       // Call method of handler data
-      handlerData.method().invoke(newInstance, parameters);
+      if (handlerData.invoker() != null) {
 
-    } catch (Throwable t) {
+        handlerData.invoker().invoke(newInstance, parameters);
+      } else {
 
-      catchInvoke(context, t);
+        handlerData.method().invoke(newInstance, parameters);
+      }
+    } finally {
+
+      RequestScope.exit(previous);
     }
   }
 
@@ -124,16 +172,43 @@ public class DefaultHandler implements Handler<RoutingContext> {
    */
   protected Object[] collectParameters(RoutingContext routingContext) {
     // Prepare parameters to call method of route
-    Object[] parameters = new Object[handlerData.method().getParameterCount()];
-    int i = 0;
-    for (Parameter parameter : handlerData.method().getParameters()) {
+    Object[] parameters = new Object[parameterResolvers.length];
+    for (int i = 0; i < parameterResolvers.length; i++) {
 
-      parameters[i] = resolveParameter(parameter, routingContext);
-      i++;
+      parameters[i] = parameterResolvers[i].resolve(routingContext);
     }
     return parameters;
   }
 
+  /**
+   * Prepare resolvers when the handler data has no resolver table. Parameters bound to the request itself are
+   * resolved once here, the others keep going through {@link #resolveParameter(Parameter, RoutingContext)}.
+   *
+   * @return the parameter resolvers
+   */
+  protected ParameterResolver[] prepareResolvers() {
+    Parameter[] parameters = handlerData.method().getParameters();
+    ParameterResolver[] resolvers = new ParameterResolver[parameters.length];
+    for (int i = 0; i < parameters.length; i++) {
+
+      Parameter parameter = parameters[i];
+      if (parameter.getType().equals(RoutingContext.class)) {
+
+        resolvers[i] = routingContext -> routingContext;
+      } else if (parameter.getType().equals(HttpServerRequest.class)) {
+
+        resolvers[i] = RoutingContext::request;
+      } else if (parameter.getType().equals(HttpServerResponse.class)) {
+
+        resolvers[i] = RoutingContext::response;
+      } else {
+
+        resolvers[i] = routingContext -> resolveParameter(parameter, routingContext);
+      }
+    }
+    return resolvers;
+  }
+
   /**
    * Instantiate handler.
    *
@@ -142,7 +217,8 @@ public class DefaultHandler implements Handler<RoutingContext> {
   @SneakyThrows
   protected Object instantiateHandler() {
     // Inject Request and Response if is Available
-    Object newInstance = handlerData.clazz().newInstance();
+    Object newInstance = handlerData.invoker() != null ? handlerData.invoker().newInstance()
+      : handlerData.clazz().newInstance();
     Environment.inject(newInstance);
     return newInstance;
   }
@@ -169,16 +245,18 @@ public class DefaultHandler implements Handler<RoutingContext> {
       return routingContext.response();
     }
     if (parameter.getType().equals(JsonObject.class)) {
-      if (StringUtils.isEmpty(routingContext.getBody().toString())) {
+      String body = ParameterResolvers.bodyAsString(routingContext);
+      if (StringUtils.isEmpty(body)) {
         return null;
       }
-      return routingContext.getBodyAsJson();
+      return new JsonObject(body);
     }
     if (parameter.getType().equals(JsonArray.class)) {
-      if (StringUtils.isEmpty(routingContext.getBody().toString())) {
+      String body = ParameterResolvers.bodyAsString(routingContext);
+      if (StringUtils.isEmpty(body)) {
         return null;
       }
-      return routingContext.getBodyAsJsonArray();
+      return new JsonArray(body);
     }
     if (StringUtils.isNotEmpty(routingContext.request().getParam(parameter.getName()))) {
 
@@ -188,13 +266,13 @@ public class DefaultHandler implements Handler<RoutingContext> {
 
       ArrayModel am = parameter.getAnnotation(ArrayModel.class);
       Class<?> clazz = am.value();
-      return ArrayModelParser.toList(routingContext.getBody().toString(), clazz);
+      return ArrayModelParser.toList(ParameterResolvers.bodyAsString(routingContext), clazz);
     }
     if (parameter.isAnnotationPresent(MapModel.class)) {
 
       MapModel mm = parameter.getAnnotation(MapModel.class);
       Class<?> value = mm.value();
-      return MapModelParser.toMap(routingContext.getBody().toString(), value);
+      return MapModelParser.toMap(ParameterResolvers.bodyAsString(routingContext), value);
     }
     if (parameter.isAnnotationPresent(org.jspare.vertx.web.annotation.handling.Parameter.class)) {
 
@@ -225,7 +303,7 @@ public class DefaultHandler implements Handler<RoutingContext> {
       }
 
       return Json.decodeValue(
-        StringUtils.defaultIfEmpty(routingContext.getBody().toString(), new JsonObject().encode()),
+        StringUtils.defaultIfEmpty(ParameterResolvers.bodyAsString(routingContext), new JsonObject().encode()),
         parameter.getType());
     } catch (SerializationException e) {
 
@@ -257,9 +335,13 @@ public class DefaultHandler implements Handler<RoutingContext> {
     if (newInstance instanceof APIHandler) {
 
       ((APIHandler) newInstance).setVertx(routingContext.vertx());
-      ((APIHandler) newInstance).setReq(routingContext.request());
-      ((APIHandler) newInstance).setRes(routingContext.response());
-      ((APIHandler) newInstance).setContext(routingContext);
+
+      // Singleton instances read the request from RequestScope, the others hold it until the response ends
+      HandlerInstanceProvider provider = handlerData.instanceProvider();
+      if (provider == null || !Lifecycle.SINGLETON.equals(provider.lifecycle())) {
+
+        ((APIHandler) newInstance).bind(routingContext);
+      }
     }
   }
 }
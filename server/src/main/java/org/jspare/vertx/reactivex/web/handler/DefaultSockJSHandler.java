@@ -44,14 +44,21 @@ public class DefaultSockJSHandler {
   @SneakyThrows
   public void socketHandler(HandlerData handlerData, SockJSSocket event) {
 
-    Object instance = handlerData.clazz().newInstance();
+    HandlerInvoker invoker = handlerData.invoker();
+    Object instance = invoker != null ? invoker.newInstance() : handlerData.clazz().newInstance();
 
     setHandlingParameters(event, instance);
 
     Object[] parameters = collectParameters(handlerData, event);
 
     // Call method of handler data
-    handlerData.method().invoke(instance, parameters);
+    if (invoker != null) {
+
+      invoker.invoke(instance, parameters);
+    } else {
+
+      handlerData.method().invoke(instance, parameters);
+    }
   }
 
   /**
@@ -0,0 +1,190 @@
+/*
+ * Copyright 2016 JSpare.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.jspare.vertx.reactivex.web.handler;
+
+import org.jspare.vertx.reactivex.web.annotation.InstanceLifecycle;
+import org.jspare.vertx.reactivex.web.annotation.Lifecycle;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * <p>Provides the route class instance used to dispatch one request, according to the
+ * {@link InstanceLifecycle} of the route class.</p>
+ *
+ * @author <a href="https://pflima92.github.io/">Paulo Lima</a>
+ */
+public abstract class HandlerInstanceProvider {
+
+  /**
+   * The factory of new, injected instances.
+   */
+  protected final Supplier<Object> factory;
+
+  /**
+   * Instantiates a new handler instance provider.
+   *
+   * @param factory the factory
+   */
+  protected HandlerInstanceProvider(Supplier<Object> factory) {
+    this.factory = factory;
+  }
+
+  /**
+   * Creates the provider of one route class.
+   *
+   * @param clazz   the route class
+   * @param factory the factory of new, injected instances
+   * @return the handler instance provider
+   */
+  public static HandlerInstanceProvider create(Class<?> clazz, Supplier<Object> factory) {
+
+    InstanceLifecycle instanceLifecycle = clazz.getAnnotation(InstanceLifecycle.class);
+    Lifecycle lifecycle = instanceLifecycle != null ? instanceLifecycle.value() : Lifecycle.PER_REQUEST;
+    switch (lifecycle) {
+      case SINGLETON:
+        return new SingletonProvider(factory);
+      case POOLED:
+        return new PooledProvider(factory, instanceLifecycle.poolSize());
+      default:
+        return new PerRequestProvider(factory);
+    }
+  }
+
+  /**
+   * Lifecycle.
+   *
+   * @return the lifecycle
+   */
+  public abstract Lifecycle lifecycle();
+
+  /**
+   * Acquire the instance used to dispatch one request.
+   *
+   * @return the object
+   */
+  public abstract Object acquire();
+
+  /**
+   * Release the instance once the request is done with it, when its response ended for a pooled instance.
+   *
+   * @param instance the instance
+   */
+  public abstract void release(Object instance);
+
+  /**
+   * One new instance per request.
+   */
+  static final class PerRequestProvider extends HandlerInstanceProvider {
+
+    PerRequestProvider(Supplier<Object> factory) {
+      super(factory);
+    }
+
+    @Override
+    public Lifecycle lifecycle() {
+      return Lifecycle.PER_REQUEST;
+    }
+
+    @Override
+    public Object acquire() {
+      return factory.get();
+    }
+
+    @Override
+    public void release(Object instance) {
+      // Garbage collected with the request
+    }
+  }
+
+  /**
+   * One instance, created on first use.
+   */
+  static final class SingletonProvider extends HandlerInstanceProvider {
+
+    private volatile Object instance;
+
+    SingletonProvider(Supplier<Object> factory) {
+      super(factory);
+    }
+
+    @Override
+    public Lifecycle lifecycle() {
+      return Lifecycle.SINGLETON;
+    }
+
+    @Override
+    public Object acquire() {
+      Object current = instance;
+      if (current == null) {
+        synchronized (this) {
+          current = instance;
+          if (current == null) {
+            current = factory.get();
+            instance = current;
+          }
+        }
+      }
+      return current;
+    }
+
+    @Override
+    public void release(Object instance) {
+      // Kept for the lifetime of the router
+    }
+  }
+
+  /**
+   * Bounded pool of idle instances. Blocking handlers may dispatch from worker threads, so the pool is thread safe.
+   */
+  static final class PooledProvider extends HandlerInstanceProvider {
+
+    private final Queue<Object> idle = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger idleCount = new AtomicInteger();
+    private final int poolSize;
+
+    PooledProvider(Supplier<Object> factory, int poolSize) {
+      super(factory);
+      this.poolSize = Math.max(1, poolSize);
+    }
+
+    @Override
+    public Lifecycle lifecycle() {
+      return Lifecycle.POOLED;
+    }
+
+    @Override
+    public Object acquire() {
+      Object instance = idle.poll();
+      if (instance == null) {
+        return factory.get();
+      }
+      idleCount.decrementAndGet();
+      return instance;
+    }
+
+    @Override
+    public void release(Object instance) {
+      if (idleCount.incrementAndGet() <= poolSize) {
+        idle.offer(instance);
+      } else {
+        idleCount.decrementAndGet();
+      }
+    }
+  }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2016 JSpare.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.jspare.vertx.reactivex.web.handler;
+
+import org.jspare.vertx.reactivex.web.builder.HandlerData;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * <p>Compiled invocation of one mapped route method.</p>
+ *
+ * <p>The route class constructor and the handler method are resolved to {@link MethodHandle}s once, when the
+ * {@link org.jspare.vertx.reactivex.web.builder.RouterBuilder} is built, so serving a request costs direct handle
+ * calls instead of {@link Class#newInstance()} and {@link Method#invoke(Object, Object...)}.</p>
+ *
+ * @author <a href="https://pflima92.github.io/">Paulo Lima</a>
+ */
+public final class HandlerInvoker {
+
+  /**
+   * The constructor handle, typed as ()Object.
+   */
+  private final MethodHandle constructor;
+
+  /**
+   * The method handle, typed as (Object, Object[])void.
+   */
+  private final MethodHandle method;
+
+  /**
+   * The parameter count.
+   */
+  private final int parameterCount;
+
+  private HandlerInvoker(MethodHandle constructor, MethodHandle method, int parameterCount) {
+    this.constructor = constructor;
+    this.method = method;
+    this.parameterCount = parameterCount;
+  }
+
+  /**
+   * Compile the invoker of one handler data.
+   *
+   * @param handlerData the handler data
+   * @return the handler invoker
+   * @throws ReflectiveOperationException if the route class or method is not accessible
+   */
+  public static HandlerInvoker compile(HandlerData handlerData) throws ReflectiveOperationException {
+
+    MethodHandles.Lookup lookup = MethodHandles.lookup();
+
+    Constructor<?> defaultConstructor = handlerData.clazz().getDeclaredConstructor();
+    defaultConstructor.setAccessible(true);
+    MethodHandle constructor = lookup.unreflectConstructor(defaultConstructor)
+      .asType(MethodType.methodType(Object.class));
+
+    Method target = handlerData.method();
+    target.setAccessible(true);
+    MethodHandle method = lookup.unreflect(target);
+    if (Modifier.isStatic(target.getModifiers())) {
+
+      // Keep a receiver slot so every invoker has the same shape
+      method = MethodHandles.dropArguments(method, 0, Object.class);
+    }
+    method = method
+      .asSpreader(Object[].class, target.getParameterCount())
+      .asType(MethodType.methodType(void.class, Object.class, Object[].class));
+
+    return new HandlerInvoker(constructor, method, target.getParameterCount());
+  }
+
+  /**
+   * New instance of the route class.
+   *
+   * @return the object
+   * @throws Throwable any exception thrown by the constructor
+   */
+  public Object newInstance() throws Throwable {
+    return (Object) constructor.invokeExact();
+  }
+
+  /**
+   * Invoke the handler method.
+   *
+   * @param instance   the route instance
+   * @param parameters the resolved parameters
+   * @throws Throwable any exception thrown by the handler method
+   */
+  public void invoke(Object instance, Object[] parameters) throws Throwable {
+    method.invokeExact(instance, parameters);
+  }
+
+  /**
+   * Parameter count.
+   *
+   * @return the int
+   */
+  public int parameterCount() {
+    return parameterCount;
+  }
+}
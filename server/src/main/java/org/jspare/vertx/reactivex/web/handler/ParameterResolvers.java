@@ -0,0 +1,228 @@
+/*
+ * Copyright 2016 JSpare.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.jspare.vertx.reactivex.web.handler;
+
+import io.vertx.core.json.Json;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.reactivex.core.buffer.Buffer;
+import io.vertx.reactivex.core.http.HttpServerRequest;
+import io.vertx.reactivex.core.http.HttpServerResponse;
+import io.vertx.reactivex.ext.web.RoutingContext;
+import lombok.experimental.UtilityClass;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang.SerializationException;
+import org.apache.commons.lang.StringUtils;
+import org.jspare.vertx.web.annotation.handling.ArrayModel;
+import org.jspare.vertx.web.annotation.handling.ArrayModelParser;
+import org.jspare.vertx.web.annotation.handling.Header;
+import org.jspare.vertx.web.annotation.handling.MapModel;
+import org.jspare.vertx.web.annotation.handling.MapModelParser;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * <p>Chooses, once per handler method, how each parameter is resolved from the request.</p>
+ *
+ * <p>The strategies follow the same precedence as {@link DefaultHandler#resolveParameter(Parameter, RoutingContext)},
+ * but the type and annotation checks run when the router is built. The request body is decoded to a String at most
+ * once per request and shared by every parameter reading it.</p>
+ *
+ * @author <a href="https://pflima92.github.io/">Paulo Lima</a>
+ */
+@Slf4j
+@UtilityClass
+public class ParameterResolvers {
+
+  /**
+   * Key of the decoded body on the RoutingContext.
+   */
+  private final String BODY_AS_STRING = ParameterResolvers.class.getName() + ".bodyAsString";
+
+  /**
+   * Parsers of {@link org.jspare.vertx.web.annotation.handling.Parameter} values by target type.
+   */
+  private final Map<Class<?>, Function<String, Object>> PARSERS = new HashMap<>();
+
+  static {
+    PARSERS.put(Integer.class, Integer::valueOf);
+    PARSERS.put(int.class, Integer::valueOf);
+    PARSERS.put(Long.class, Long::valueOf);
+    PARSERS.put(long.class, Long::valueOf);
+    PARSERS.put(Double.class, Double::valueOf);
+    PARSERS.put(double.class, Double::valueOf);
+    PARSERS.put(Float.class, Float::valueOf);
+    PARSERS.put(float.class, Float::valueOf);
+    PARSERS.put(Short.class, Short::valueOf);
+    PARSERS.put(short.class, Short::valueOf);
+    PARSERS.put(Byte.class, Byte::valueOf);
+    PARSERS.put(byte.class, Byte::valueOf);
+    PARSERS.put(Boolean.class, Boolean::valueOf);
+    PARSERS.put(boolean.class, Boolean::valueOf);
+  }
+
+  /**
+   * Resolvers of all parameters of one handler method.
+   *
+   * @param method the handler method
+   * @return the parameter resolvers
+   */
+  public ParameterResolver[] of(Method method) {
+    Parameter[] parameters = method.getParameters();
+    ParameterResolver[] resolvers = new ParameterResolver[parameters.length];
+    for (int i = 0; i < parameters.length; i++) {
+
+      resolvers[i] = of(parameters[i]);
+    }
+    return resolvers;
+  }
+
+  /**
+   * Resolver of one parameter.
+   *
+   * @param parameter the parameter
+   * @return the parameter resolver
+   */
+  public ParameterResolver of(Parameter parameter) {
+
+    Class<?> type = parameter.getType();
+    if (type.equals(RoutingContext.class)) {
+
+      return routingContext -> routingContext;
+    }
+    if (type.equals(HttpServerRequest.class)) {
+
+      return RoutingContext::request;
+    }
+    if (type.equals(HttpServerResponse.class)) {
+
+      return RoutingContext::response;
+    }
+    if (type.equals(JsonObject.class)) {
+
+      return routingContext -> {
+        String body = bodyAsString(routingContext);
+        return StringUtils.isEmpty(body) ? null : new JsonObject(body);
+      };
+    }
+    if (type.equals(JsonArray.class)) {
+
+      return routingContext -> {
+        String body = bodyAsString(routingContext);
+        return StringUtils.isEmpty(body) ? null : new JsonArray(body);
+      };
+    }
+
+    ParameterResolver resolver = annotatedOrBody(parameter);
+    if (!parameter.isNamePresent()) {
+
+      return resolver;
+    }
+
+    // A request parameter named as the method parameter has precedence
+    String name = parameter.getName();
+    return routingContext -> {
+      String value = routingContext.request().getParam(name);
+      return StringUtils.isNotEmpty(value) ? value : resolver.resolve(routingContext);
+    };
+  }
+
+  /**
+   * Body decoded as String, at most once per request.
+   *
+   * @param routingContext the routing context
+   * @return the string, empty when there is no body
+   */
+  public String bodyAsString(RoutingContext routingContext) {
+    String body = routingContext.get(BODY_AS_STRING);
+    if (body == null) {
+
+      Buffer buffer = routingContext.getBody();
+      body = buffer != null ? buffer.toString() : StringUtils.EMPTY;
+      routingContext.put(BODY_AS_STRING, body);
+    }
+    return body;
+  }
+
+  /**
+   * Resolver of parameters mapped by annotations, or decoded from the body.
+   *
+   * @param parameter the parameter
+   * @return the parameter resolver
+   */
+  private ParameterResolver annotatedOrBody(Parameter parameter) {
+
+    if (parameter.isAnnotationPresent(ArrayModel.class)) {
+
+      Class<?> clazz = parameter.getAnnotation(ArrayModel.class).value();
+      return routingContext -> ArrayModelParser.toList(bodyAsString(routingContext), clazz);
+    }
+    if (parameter.isAnnotationPresent(MapModel.class)) {
+
+      Class<?> clazz = parameter.getAnnotation(MapModel.class).value();
+      return routingContext -> MapModelParser.toMap(bodyAsString(routingContext), clazz);
+    }
+    if (parameter.isAnnotationPresent(org.jspare.vertx.web.annotation.handling.Parameter.class)) {
+
+      String parameterName = parameter.getAnnotation(org.jspare.vertx.web.annotation.handling.Parameter.class).value();
+      Function<String, Object> parser = PARSERS.get(parameter.getType());
+      if (parser == null) {
+
+        return routingContext -> routingContext.request().getParam(parameterName);
+      }
+      boolean primitive = parameter.getType().isPrimitive();
+      return routingContext -> {
+        String value = routingContext.request().getParam(parameterName);
+        if (value == null) {
+
+          if (primitive) {
+
+            throw new IllegalArgumentException(String.format("Missing parameter [%s]", parameterName));
+          }
+          return null;
+        }
+        return parser.apply(value);
+      };
+    }
+    if (parameter.isAnnotationPresent(Header.class)) {
+
+      String headerName = parameter.getAnnotation(Header.class).value();
+      return routingContext -> routingContext.request().getHeader(headerName);
+    }
+
+    Class<?> type = parameter.getType();
+    return routingContext -> {
+      try {
+        if (routingContext.getBody() == null) {
+
+          return null;
+        }
+
+        return Json.decodeValue(StringUtils.defaultIfEmpty(bodyAsString(routingContext), new JsonObject().encode()),
+          type);
+      } catch (SerializationException e) {
+
+        log.debug("Invalid content of body for class [{}] on parameter [{}]", parameter.getClass(),
+          parameter.getName());
+        return null;
+      }
+    };
+  }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2016 JSpare.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.jspare.vertx.reactivex.web.handler;
+
+import io.vertx.reactivex.ext.web.RoutingContext;
+import lombok.experimental.UtilityClass;
+
+/**
+ * <p>Holds the {@link RoutingContext} being dispatched on the current thread.</p>
+ *
+ * <p>A handler method runs on one thread from start to return, so singleton route instances can read the request
+ * through this scope without keeping it in fields. The scope ends when the handler method returns: asynchronous
+ * callbacks run outside of it and must use the {@link RoutingContext} received as parameter.</p>
+ *
+ * @author <a href="https://pflima92.github.io/">Paulo Lima</a>
+ */
+@UtilityClass
+public class RequestScope {
+
+  /**
+   * The current routing context.
+   */
+  private final ThreadLocal<RoutingContext> CURRENT = new ThreadLocal<>();
+
+  /**
+   * Enter the scope of one request.
+   *
+   * @param routingContext the routing context
+   * @return the routing context previously in scope
+   */
+  RoutingContext enter(RoutingContext routingContext) {
+    RoutingContext previous = CURRENT.get();
+    CURRENT.set(routingContext);
+    return previous;
+  }
+
+  /**
+   * Exit the scope of one request, restoring the previous one.
+   *
+   * @param previous the routing context returned by enter
+   */
+  void exit(RoutingContext previous) {
+    if (previous == null) {
+
+      CURRENT.remove();
+    } else {
+
+      CURRENT.set(previous);
+    }
+  }
+
+  /**
+   * The routing context in scope.
+   *
+   * @return the routing context
+   * @throws IllegalStateException outside of a handler dispatch
+   */
+  public RoutingContext context() {
+    RoutingContext routingContext = CURRENT.get();
+    if (routingContext == null) {
+
+      throw new IllegalStateException("No request is dispatched on this thread, asynchronous callbacks of singleton "
+        + "routes must use the RoutingContext parameter of the handler method");
+    }
+    return routingContext;
+  }
+}
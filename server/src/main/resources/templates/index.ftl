@@ -27,6 +27,9 @@
             <li><a href="/wiki/${page}">${page}</a></li>
           </#items>
         </ul>
+        <#if context.next_page?has_content>
+          <p><a href="${context.next_page}">Next pages</a></p>
+        </#if>
         <#else>
           <p>The wiki is currently empty!</p>
       </#list>
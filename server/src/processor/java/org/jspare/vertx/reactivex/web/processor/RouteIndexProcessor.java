@@ -0,0 +1,107 @@
+/*
+ * Copyright 2016 JSpare.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.jspare.vertx.reactivex.web.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * <p>Writes the route index read by <code>org.jspare.vertx.reactivex.web.builder.RouteIndex</code>.</p>
+ *
+ * <p>Every method annotated with one of the handler annotations is written as one
+ * <code>binaryClassName#methodName</code> line, so the router builder finds the route classes without scanning the
+ * classpath.</p>
+ *
+ * @author <a href="https://pflima92.github.io/">Paulo Lima</a>
+ */
+@SupportedAnnotationTypes({
+  "org.jspare.vertx.web.annotation.handler.Handler",
+  "org.jspare.vertx.web.annotation.handler.FailureHandler",
+  "org.jspare.vertx.web.annotation.handler.BlockingHandler",
+  "org.jspare.vertx.web.annotation.handler.SockJsHandler"
+})
+public class RouteIndexProcessor extends AbstractProcessor {
+
+  /**
+   * Location of the index on the class output, same as RouteIndex.LOCATION.
+   */
+  public static final String LOCATION = "META-INF/jspare/route-index";
+
+  /**
+   * The entries, sorted so the index is reproducible.
+   */
+  private final Set<String> entries = new TreeSet<>();
+
+  @Override
+  public SourceVersion getSupportedSourceVersion() {
+    return SourceVersion.latestSupported();
+  }
+
+  @Override
+  public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+
+    for (TypeElement annotation : annotations) {
+
+      for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+
+        if (element.getKind() != ElementKind.METHOD) {
+
+          continue;
+        }
+        TypeElement type = (TypeElement) element.getEnclosingElement();
+        entries.add(processingEnv.getElementUtils().getBinaryName(type) + "#" + element.getSimpleName());
+      }
+    }
+
+    if (roundEnv.processingOver() && !entries.isEmpty()) {
+
+      writeIndex();
+    }
+    return false;
+  }
+
+  private void writeIndex() {
+    try {
+
+      FileObject index = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", LOCATION);
+      try (Writer writer = new OutputStreamWriter(index.openOutputStream(), StandardCharsets.UTF_8)) {
+
+        for (String entry : entries) {
+
+          writer.write(entry);
+          writer.write('\n');
+        }
+      }
+    } catch (IOException e) {
+
+      processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Cannot write route index: " + e.getMessage());
+    }
+  }
+}
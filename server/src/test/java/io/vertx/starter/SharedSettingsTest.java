@@ -0,0 +1,20 @@
+package io.vertx.starter;
+
+import io.vertx.core.json.JsonObject;
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SharedSettingsTest {
+
+  @Test
+  public void only_the_first_config_is_applied() {
+    SharedSettings settings = new SharedSettings(SharedSettingsTest.class, "cache.max_size");
+
+    assertTrue(settings.apply(new JsonObject().put("cache.max_size", 10).put("other", 1)));
+    assertFalse(settings.apply(new JsonObject().put("cache.max_size", 10).put("other", 2)));
+    // Ignored with a warning
+    assertFalse(settings.apply(new JsonObject().put("cache.max_size", 20)));
+  }
+}
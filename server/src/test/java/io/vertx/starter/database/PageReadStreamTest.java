@@ -0,0 +1,165 @@
+package io.vertx.starter.database;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.json.JsonObject;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class PageReadStreamTest {
+
+  private static final int CHUNK_SIZE = 3;
+
+  private List<JsonObject> table;
+  private List<JsonObject> lasts;
+  private List<Handler<AsyncResult<List<JsonObject>>>> fetches;
+  private List<JsonObject> read;
+  private int ends;
+  private List<Throwable> errors;
+
+  @Before
+  public void prepare() {
+    table = new ArrayList<>();
+    lasts = new ArrayList<>();
+    fetches = new ArrayList<>();
+    read = new ArrayList<>();
+    ends = 0;
+    errors = new ArrayList<>();
+  }
+
+  @Test
+  public void paused_stream_fetches_at_most_one_chunk() {
+    pages(7);
+    PageReadStream stream = stream();
+
+    stream.handler(read::add);
+    assertEquals(1, fetches.size());
+
+    stream.pause();
+    complete(0);
+    assertTrue("Nothing is handed out while paused", read.isEmpty());
+    assertEquals("The next chunk waits for a resume", 1, fetches.size());
+
+    stream.resume();
+    assertEquals(3, read.size());
+    assertEquals(2, fetches.size());
+    assertEquals(2, (int) lasts.get(1).getInteger("id"));
+  }
+
+  @Test
+  public void pause_within_a_chunk_holds_the_rest() {
+    pages(7);
+    PageReadStream stream = stream();
+
+    stream.handler(page -> {
+      read.add(page);
+      if (read.size() == 2) {
+        stream.pause();
+      }
+    });
+    complete(0);
+    assertEquals(2, read.size());
+    assertEquals(1, fetches.size());
+
+    stream.resume();
+    assertEquals(3, read.size());
+    assertEquals(2, fetches.size());
+  }
+
+  @Test
+  public void end_fires_once_when_the_table_is_a_multiple_of_the_chunk() {
+    pages(2 * CHUNK_SIZE);
+    PageReadStream stream = stream();
+
+    stream.handler(read::add);
+    complete(0);
+    complete(1);
+    assertEquals(0, ends);
+
+    // The last full chunk does not tell the table is over, one more fetch comes back empty
+    complete(2);
+    assertEquals(3, fetches.size());
+    assertEquals(1, ends);
+    assertEquals(ids(0, 6), read.stream().map(page -> page.getInteger("id")).collect(Collectors.toList()));
+
+    stream.pause();
+    stream.resume();
+    assertEquals(1, ends);
+    assertEquals(3, fetches.size());
+  }
+
+  @Test
+  public void empty_table_ends_after_one_fetch() {
+    PageReadStream stream = stream();
+
+    stream.handler(read::add);
+    complete(0);
+
+    assertEquals(1, ends);
+    assertTrue(read.isEmpty());
+    assertNull(lasts.get(0));
+  }
+
+  @Test
+  public void error_mid_stream_stops_it() {
+    pages(7);
+    PageReadStream stream = stream();
+
+    stream.handler(read::add);
+    complete(0);
+    fetches.get(1).handle(Future.failedFuture(new IllegalStateException("Connection lost")));
+
+    assertEquals(3, read.size());
+    assertEquals(1, errors.size());
+    assertEquals("Connection lost", errors.get(0).getMessage());
+    assertEquals(0, ends);
+
+    stream.resume();
+    assertEquals(2, fetches.size());
+    assertEquals(0, ends);
+  }
+
+  private PageReadStream stream() {
+    PageReadStream stream = new PageReadStream((last, limit, resultHandler) -> {
+      lasts.add(last);
+      fetches.add(resultHandler);
+    }, CHUNK_SIZE);
+    stream.endHandler(v -> ends++);
+    stream.exceptionHandler(errors::add);
+    return stream;
+  }
+
+  private void pages(int count) {
+    for (int id = 0; id < count; id++) {
+      table.add(new JsonObject().put("id", id).put("name", "Page " + id).put("markdown", "Page " + id));
+    }
+  }
+
+  /**
+   * Answers a fetch with the pages following the last one it was given.
+   */
+  private void complete(int fetch) {
+    JsonObject last = lasts.get(fetch);
+    int from = last == null ? 0 : last.getInteger("id") + 1;
+    List<JsonObject> chunk = new ArrayList<>(table.subList(Math.min(from, table.size()),
+      Math.min(from + CHUNK_SIZE, table.size())));
+    fetches.get(fetch).handle(Future.succeededFuture(chunk));
+  }
+
+  private static List<Integer> ids(int from, int to) {
+    List<Integer> ids = new ArrayList<>();
+    for (int id = from; id < to; id++) {
+      ids.add(id);
+    }
+    return ids;
+  }
+}
@@ -0,0 +1,153 @@
+package io.vertx.starter.database;
+
+import io.vertx.core.json.JsonObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class PageRecordCacheTest {
+
+  private String key;
+  private PageRecordCache cache;
+
+  @Before
+  public void prepare() {
+    key = TestDatabases.jdbcUrl();
+    cache = PageRecordCache.acquire(key, PageRecordCache.DEFAULT_MAXIMUM_WEIGHT);
+  }
+
+  @After
+  public void finish() {
+    cache.release();
+  }
+
+  @Test
+  public void read_rows_are_served_by_id_and_name() {
+    cache.put(page(1, "Home", "Welcome"), cache.generation());
+
+    assertEquals("Welcome", cache.get(1).content);
+    assertEquals("Welcome", cache.get("Home").content);
+    assertNull(cache.get(2));
+    assertNull(cache.get("Other"));
+
+    JsonObject metrics = cache.metrics();
+    assertEquals(2L, (long) metrics.getLong("hits"));
+    assertEquals(2L, (long) metrics.getLong("misses"));
+  }
+
+  @Test
+  public void row_read_before_a_write_is_not_cached() {
+    long generation = cache.generation();
+    cache.written(page(2, "Other", "Written"));
+
+    cache.put(page(1, "Home", "Read before"), generation);
+    assertNull(cache.get(1));
+
+    generation = cache.generation();
+    cache.invalidate(3);
+    cache.put(page(1, "Home", "Read before"), generation);
+    assertNull(cache.get("Home"));
+  }
+
+  @Test
+  public void writes_go_through_the_cache() {
+    cache.written(page(1, "Home", "Created"));
+    assertEquals("Created", cache.get("Home").content);
+
+    cache.written(1, "Saved", "<p>Saved</p>", 2);
+    assertEquals("Saved", cache.get(1).content);
+    assertEquals("<p>Saved</p>", cache.get("Home").html);
+    assertEquals(2, (int) cache.get(1).rendererVersion);
+
+    // The name of a page not cached is not known, nothing is cached
+    cache.written(2, "Saved", "<p>Saved</p>", 2);
+    assertNull(cache.get(2));
+
+    cache.invalidate(1);
+    assertNull(cache.get(1));
+    assertNull(cache.get("Home"));
+  }
+
+  @Test
+  public void name_taken_by_another_page_drops_the_previous_one() {
+    cache.written(page(1, "Home", "Deleted"));
+    cache.written(page(2, "Home", "Created again"));
+
+    assertNull(cache.get(1));
+    assertEquals(2, cache.get("Home").id);
+  }
+
+  @Test
+  public void events_of_other_nodes_drop_their_pages() {
+    cache.written(page(1, "Home", "Welcome"));
+    cache.written(page(2, "Other", "Other"));
+    cache.written(page(3, "Third", "Third"));
+    long generation = cache.generation();
+
+    cache.onPageEvent(PageEvents.saved(1).put(PageEvents.ORIGIN, "other node"));
+    cache.onPageEvent(PageEvents.created(9, "Other").put(PageEvents.ORIGIN, "other node"));
+
+    assertNull(cache.get(1));
+    assertNull(cache.get("Home"));
+    assertNull("A name created elsewhere replaces the cached page", cache.get("Other"));
+    assertEquals("Third", cache.get(3).content);
+    assertTrue(cache.generation() > generation);
+
+    cache.onPageEvent(PageEvents.deleted(3).put(PageEvents.ORIGIN, "other node"));
+    assertNull(cache.get("Third"));
+  }
+
+  @Test
+  public void events_of_this_node_are_ignored() {
+    cache.written(page(1, "Home", "Welcome"));
+    long generation = cache.generation();
+
+    cache.onPageEvent(PageEvents.saved(1).put(PageEvents.ORIGIN, cache.origin()));
+
+    assertEquals("Welcome", cache.get(1).content);
+    assertEquals(generation, cache.generation());
+  }
+
+  @Test
+  public void heaviest_pages_are_evicted_past_the_maximum_weight() {
+    PageRecordCache small = PageRecordCache.acquire(key + "-small", 100);
+    try {
+      for (int id = 0; id < 20; id++) {
+        small.written(page(id, "Page " + id, "0123456789"));
+      }
+      assertTrue(small.metrics().getLong("weight") <= 100);
+      assertTrue(small.metrics().getLong("evictions") > 0);
+    } finally {
+      small.release();
+    }
+  }
+
+  @Test
+  public void users_of_a_database_share_its_cache() {
+    PageRecordCache other = PageRecordCache.acquire(key, 1);
+    assertSame(cache, other);
+    assertTrue(cache.claimRerender());
+    assertFalse(other.claimRerender());
+    other.release();
+
+    cache.written(page(1, "Home", "Welcome"));
+    assertEquals("Welcome", cache.get(1).content);
+
+    cache.release();
+    cache = PageRecordCache.acquire(key, PageRecordCache.DEFAULT_MAXIMUM_WEIGHT);
+    assertNotSame(other, cache);
+    assertNull(cache.get(1));
+    assertTrue("A database opened again is checked again", cache.claimRerender());
+  }
+
+  private static PageRecordCache.Page page(int id, String name, String content) {
+    return new PageRecordCache.Page(id, name, content, "<p>" + content + "</p>", 1);
+  }
+}
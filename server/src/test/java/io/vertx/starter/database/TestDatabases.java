@@ -0,0 +1,21 @@
+package io.vertx.starter.database;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * JDBC urls of the in-memory databases of the tests.
+ */
+public final class TestDatabases {
+
+  private static final AtomicInteger DATABASES = new AtomicInteger();
+
+  private TestDatabases() {
+  }
+
+  /**
+   * A new in-memory database, one per test: the connection pools outlive the undeploy of the verticles.
+   */
+  public static String jdbcUrl() {
+    return "jdbc:hsqldb:mem:testdb" + DATABASES.incrementAndGet() + ";shutdown=true";
+  }
+}
@@ -2,29 +2,42 @@ package io.vertx.starter.database;
 
 import io.vertx.core.DeploymentOptions;
 import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
+import io.vertx.ext.jdbc.JDBCClient;
 import io.vertx.ext.unit.Async;
 import io.vertx.ext.unit.TestContext;
 import io.vertx.ext.unit.junit.VertxUnitRunner;
-import io.vertx.starter.rxjava.database.WikiDatabaseService;
+import io.vertx.starter.reactivex.database.WikiDatabaseService;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 
+import java.util.Arrays;
+
 @RunWith(VertxUnitRunner.class)
 public class WikiDatabaseServiceTest {
+
+  /**
+   * Long enough for the writes sent in one go to land in the same batch.
+   */
+  private static final long WRITE_BATCH_WINDOW_MS = 50;
+
   private Vertx vertx;
+  private String jdbcUrl;
   private WikiDatabaseService service;
 
   @Before
   public void prepare(TestContext context) throws InterruptedException {
     vertx = Vertx.vertx();
 
+    jdbcUrl = TestDatabases.jdbcUrl();
     JsonObject conf = new JsonObject()
       .put("guice_binder", WikiDatabaseBinder.class.getName())
-      .put(WikiDatabaseBinder.CONFIG_WIKIDB_JDBC_URL, "jdbc:hsqldb:mem:testdb;shutdown=true")
-      .put(WikiDatabaseBinder.CONFIG_WIKIDB_JDBC_MAX_POOL_SIZE, 4);
+      .put(WikiDatabaseBinder.CONFIG_WIKIDB_JDBC_URL, jdbcUrl)
+      .put(WikiDatabaseBinder.CONFIG_WIKIDB_JDBC_MAX_POOL_SIZE, 4)
+      .put(WikiDatabaseVerticle.CONFIG_WIKIDB_WRITE_BATCH_WINDOW_MS, WRITE_BATCH_WINDOW_MS);
 
     vertx.deployVerticle("java-guice:" + WikiDatabaseVerticle.class.getName(), new DeploymentOptions().setConfig(conf),
       context.asyncAssertSuccess(id ->
@@ -70,4 +83,225 @@ public class WikiDatabaseServiceTest {
     async.awaitSuccess(5000);
   }
 
+  @Test
+  public void writes_of_one_window_all_complete(TestContext context) {
+    Async async = context.async();
+
+    service.createPage("Home", "Welcome", context.asyncAssertSuccess(v1 -> {
+      service.fetchPage("Home", context.asyncAssertSuccess(home -> {
+        int homeId = home.getInteger("id");
+
+        Async written = context.async(6);
+        for (String name : Arrays.asList("One", "Two", "Three", "Four")) {
+          service.createPage(name, "Page " + name, context.asyncAssertSuccess(v -> written.countDown()));
+        }
+        service.savePage(homeId, "Welcome back", context.asyncAssertSuccess(v -> written.countDown()));
+        service.createPage("Five", "Page Five", context.asyncAssertSuccess(v -> written.countDown()));
+
+        written.handler(done -> service.fetchAllPages(context.asyncAssertSuccess(names -> {
+          context.assertEquals(6, names.size());
+
+          service.fetchPageById(homeId, context.asyncAssertSuccess(json -> {
+            context.assertEquals("Welcome back", json.getString("rawContent"));
+
+            service.fetchPage("Four", context.asyncAssertSuccess(four -> {
+              context.assertTrue(four.getBoolean("found"));
+              context.assertEquals("Page Four", four.getString("rawContent"));
+              async.complete();
+            }));
+          }));
+        })));
+      }));
+    }));
+    async.awaitSuccess(5000);
+  }
+
+  @Test
+  public void last_save_of_a_page_wins(TestContext context) {
+    Async async = context.async();
+
+    service.createPage("Test", "Version 0", context.asyncAssertSuccess(v1 -> {
+      service.fetchPage("Test", context.asyncAssertSuccess(json1 -> {
+        int id = json1.getInteger("id");
+
+        Async saved = context.async(5);
+        for (int version = 1; version <= 5; version++) {
+          service.savePage(id, "Version " + version, context.asyncAssertSuccess(v -> saved.countDown()));
+        }
+
+        saved.handler(done -> service.fetchPage("Test", context.asyncAssertSuccess(json2 -> {
+          context.assertEquals("Version 5", json2.getString("rawContent"));
+
+          service.fetchPageById(id, context.asyncAssertSuccess(json3 -> {
+            context.assertEquals("Version 5", json3.getString("rawContent"));
+            async.complete();
+          }));
+        })));
+      }));
+    }));
+    async.awaitSuccess(5000);
+  }
+
+  @Test
+  public void duplicate_name_fails_its_caller_only(TestContext context) {
+    Async async = context.async();
+
+    service.createPage("Taken", "First", context.asyncAssertSuccess(v1 -> {
+
+      Async written = context.async(3);
+      service.createPage("Before", "Before", context.asyncAssertSuccess(v -> written.countDown()));
+      service.createPage("Taken", "Second", context.asyncAssertFailure(t -> written.countDown()));
+      service.createPage("After", "After", context.asyncAssertSuccess(v -> written.countDown()));
+
+      written.handler(done -> service.fetchAllPages(context.asyncAssertSuccess(names -> {
+        context.assertEquals(3, names.size());
+
+        service.fetchPage("Taken", context.asyncAssertSuccess(taken -> {
+          context.assertEquals("First", taken.getString("rawContent"));
+
+          service.fetchPage("After", context.asyncAssertSuccess(after -> {
+            context.assertTrue(after.getBoolean("found"));
+            async.complete();
+          }));
+        }));
+      })));
+    }));
+    async.awaitSuccess(5000);
+  }
+
+  @Test
+  public void cached_pages_follow_saves_and_deletes(TestContext context) {
+    Async async = context.async();
+
+    service.createPage("Test", "Created", context.asyncAssertSuccess(v1 -> {
+      service.fetchPage("Test", context.asyncAssertSuccess(created -> {
+        int id = created.getInteger("id");
+
+        service.fetchPageById(id, context.asyncAssertSuccess(cached -> {
+          context.assertEquals("Created", cached.getString("rawContent"));
+
+          service.savePage(id, "Saved", context.asyncAssertSuccess(v2 -> {
+            service.fetchPage("Test", context.asyncAssertSuccess(byName -> {
+              context.assertEquals("Saved", byName.getString("rawContent"));
+              context.assertEquals(id, byName.getInteger("id"));
+
+              service.fetchPageById(id, context.asyncAssertSuccess(byId -> {
+                context.assertEquals("Saved", byId.getString("rawContent"));
+                context.assertEquals("Test", byId.getString("name"));
+
+                service.deletePage(id, context.asyncAssertSuccess(v3 -> {
+                  service.fetchPage("Test", context.asyncAssertSuccess(deletedByName -> {
+                    context.assertFalse(deletedByName.getBoolean("found"));
+
+                    service.fetchPageById(id, context.asyncAssertSuccess(deletedById -> {
+                      context.assertFalse(deletedById.getBoolean("found"));
+
+                      service.fetchPageCacheMetrics(context.asyncAssertSuccess(metrics -> {
+                        context.assertTrue(metrics.getLong("hits") > 0);
+                        async.complete();
+                      }));
+                    }));
+                  }));
+                }));
+              }));
+            }));
+          }));
+        }));
+      }));
+    }));
+    async.awaitSuccess(5000);
+  }
+
+  @Test
+  public void save_of_another_node_evicts_the_cached_page(TestContext context) {
+    Async async = context.async();
+    JDBCClient otherNode = JDBCClient.createNonShared(vertx, new JsonObject().put("url", jdbcUrl));
+
+    service.createPage("Test", "Created", context.asyncAssertSuccess(v1 -> {
+      service.fetchPage("Test", context.asyncAssertSuccess(created -> {
+        int id = created.getInteger("id");
+
+        JsonArray content = new JsonArray().add("Saved elsewhere").add(id);
+        otherNode.updateWithParams("update Pages set Content = ? where Id = ?", content,
+          context.asyncAssertSuccess(updated -> {
+
+            service.fetchPage("Test", context.asyncAssertSuccess(stale -> {
+              context.assertEquals("Created", stale.getString("rawContent"), "Served from the cache");
+
+              publishFromOtherNode(PageEvents.saved(id));
+              awaitContent(context, "Test", "Saved elsewhere", () ->
+                service.fetchPageById(id, context.asyncAssertSuccess(byId -> {
+                  context.assertEquals("Saved elsewhere", byId.getString("rawContent"));
+                  otherNode.close();
+                  async.complete();
+                })));
+            }));
+          }));
+      }));
+    }));
+    async.awaitSuccess(5000);
+  }
+
+  @Test
+  public void writes_of_another_node_reach_the_indexes(TestContext context) {
+    Async async = context.async();
+    JDBCClient otherNode = JDBCClient.createNonShared(vertx, new JsonObject().put("url", jdbcUrl));
+
+    service.createPage("Local", "Written here", context.asyncAssertSuccess(v1 ->
+      otherNode.updateWithParams("insert into Pages (Name, Content) values (?, ?)",
+        new JsonArray().add("Remote").add("Written elsewhere"), context.asyncAssertSuccess(inserted ->
+          otherNode.querySingleWithParams("select Id from Pages where Name = ?", new JsonArray().add("Remote"),
+            context.asyncAssertSuccess(row -> {
+              int id = row.getInteger(0);
+              publishFromOtherNode(PageEvents.created(id, "Remote"));
+
+              awaitSearch(context, "elsewhere", 1, () ->
+                service.suggestPageNames("", 10, context.asyncAssertSuccess(names -> {
+                  context.assertEquals(Arrays.asList("Local", "Remote"), names);
+
+                  otherNode.updateWithParams("delete from Pages where Id = ?", new JsonArray().add(id),
+                    context.asyncAssertSuccess(deleted -> {
+                      publishFromOtherNode(PageEvents.deleted(id));
+
+                      awaitSearch(context, "elsewhere", 0, () ->
+                        service.suggestPageNames("", 10, context.asyncAssertSuccess(left -> {
+                          context.assertEquals(Arrays.asList("Local"), left);
+                          otherNode.close();
+                          async.complete();
+                        })));
+                    }));
+                })));
+            }))))));
+    async.awaitSuccess(5000);
+  }
+
+  private void publishFromOtherNode(JsonObject event) {
+    vertx.eventBus().publish(PageEvents.ADDRESS, event.put(PageEvents.ORIGIN, "other node"));
+  }
+
+  /**
+   * Fetches a page until it has the expected content, the events are applied asynchronously.
+   */
+  private void awaitContent(TestContext context, String name, String expected, Runnable then) {
+    service.fetchPage(name, context.asyncAssertSuccess(page -> {
+      if (expected.equals(page.getString("rawContent"))) {
+        then.run();
+      } else {
+        vertx.setTimer(20, id -> awaitContent(context, name, expected, then));
+      }
+    }));
+  }
+
+  /**
+   * Searches until the index holds the expected number of pages, the events are applied asynchronously.
+   */
+  private void awaitSearch(TestContext context, String query, int expected, Runnable then) {
+    service.search(query, 10, context.asyncAssertSuccess(results -> {
+      if (results.size() == expected) {
+        then.run();
+      } else {
+        vertx.setTimer(20, id -> awaitSearch(context, query, expected, then));
+      }
+    }));
+  }
 }
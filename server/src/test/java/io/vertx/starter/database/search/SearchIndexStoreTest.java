@@ -0,0 +1,109 @@
+package io.vertx.starter.database.search;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class SearchIndexStoreTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void snapshot_is_read_back_when_clean() throws IOException {
+    Path path = folder.getRoot().toPath().resolve("wiki.search");
+
+    SearchIndexStore store = SearchIndexStore.acquire("round-trip", path);
+    assertTrue("A new index is built", store.claimRebuild());
+    store.index().put(1, "Home", "welcome to the wiki");
+    store.index().put(2, "Help", "how to write a page");
+    store.index().put(1, "Home", "welcome home");
+    store.release();
+    assertEquals(1, flag(path));
+
+    SearchIndexStore reopened = SearchIndexStore.acquire("round-trip", path);
+    try {
+      assertFalse("A clean snapshot is trusted", reopened.claimRebuild());
+      assertEquals(2, reopened.index().size());
+      assertEquals(1, reopened.index().search("welcome", 10).get(0).pageId());
+      assertEquals("Help", reopened.index().search("page", 10).get(0).name());
+      assertTrue(reopened.index().search("wiki", 10).isEmpty());
+    } finally {
+      reopened.release();
+    }
+  }
+
+  @Test
+  public void index_changed_since_its_snapshot_is_rebuilt() throws IOException {
+    Path path = folder.getRoot().toPath().resolve("wiki.search");
+    SearchIndexStore store = SearchIndexStore.acquire("unclean", path);
+    store.index().put(1, "Home", "welcome");
+    store.release();
+
+    SearchIndexStore running = SearchIndexStore.acquire("unclean", path);
+    running.index().put(2, "Help", "how to write a page");
+    assertEquals("The first change clears the flag", 0, flag(path));
+
+    // The JVM stops before the next snapshot, another one opens the file
+    SearchIndexStore restarted = SearchIndexStore.acquire("unclean-restart", path);
+    try {
+      assertTrue(restarted.claimRebuild());
+      assertFalse("The rebuild is claimed once", restarted.claimRebuild());
+      assertEquals(0, restarted.index().size());
+    } finally {
+      restarted.release();
+      running.release();
+    }
+  }
+
+  @Test
+  public void file_of_another_format_is_rebuilt() throws IOException {
+    Path path = folder.getRoot().toPath().resolve("wiki.search");
+    Files.write(path, new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16});
+
+    SearchIndexStore store = SearchIndexStore.acquire("other-format", path);
+    try {
+      assertTrue(store.claimRebuild());
+      assertEquals(0, store.index().size());
+    } finally {
+      store.release();
+    }
+  }
+
+  @Test
+  public void users_of_a_database_share_its_store() {
+    SearchIndexStore first = SearchIndexStore.acquire("shared", null);
+    SearchIndexStore second = SearchIndexStore.acquire("shared", null);
+    assertSame(first, second);
+    assertTrue(first.claimRebuild());
+    assertFalse(second.claimRebuild());
+    assertTrue(first.claimNames());
+    assertFalse(second.claimNames());
+    first.release();
+    second.release();
+
+    SearchIndexStore reopened = SearchIndexStore.acquire("shared", null);
+    try {
+      assertTrue("The last release drops the in-memory index", reopened.claimRebuild());
+    } finally {
+      reopened.release();
+    }
+  }
+
+  private static int flag(Path path) throws IOException {
+    try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "r")) {
+      file.seek(8);
+      return file.readInt();
+    }
+  }
+}
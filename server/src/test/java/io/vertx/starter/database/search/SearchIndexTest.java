@@ -0,0 +1,151 @@
+package io.vertx.starter.database.search;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SearchIndexTest {
+
+  private SearchIndex index;
+
+  @Before
+  public void prepare() {
+    index = new SearchIndex();
+  }
+
+  @Test
+  public void rare_terms_and_dense_matches_rank_first() {
+    index.put(1, "Vert.x", "Vert.x is a toolkit, vert.x runs on the JVM");
+    index.put(2, "Event loop", "The event loop of vert.x runs handlers of the toolkit");
+    index.put(3, "Toolkit", "A toolkit is a set of tools, this toolkit page lists every other toolkit page of the wiki");
+    index.put(4, "Handlers", "Handlers run on an event loop");
+
+    assertEquals("The pages with more of the term, relative to their length, first",
+      asList(1, 2), pageIds(index.search("vert", 10)));
+    assertEquals(asList(3, 1), pageIds(index.search("toolkit", 2)));
+    assertTrue(index.search("missing", 10).isEmpty());
+    assertTrue(index.search("", 10).isEmpty());
+  }
+
+  @Test
+  public void rare_term_outweighs_a_common_one() {
+    index.put(1, "One", "common first");
+    index.put(2, "Two", "common second");
+    index.put(3, "Three", "common third");
+    index.put(4, "Four", "rare fourth");
+
+    assertEquals(4, index.search("common rare", 10).get(0).pageId());
+    assertEquals(4, index.search("common rare", 10).size());
+  }
+
+  @Test
+  public void ties_rank_the_older_document_first() {
+    index.put(7, "Seven", "same words");
+    index.put(3, "Three", "same words");
+    index.put(5, "Five", "same words");
+
+    assertEquals(asList(7, 3), pageIds(index.search("words", 2)));
+  }
+
+  @Test
+  public void saved_page_tombstones_its_previous_version() {
+    index.put(1, "Page", "old content");
+    index.put(2, "Other", "other content");
+    assertTrue(index.update(1, "new content"));
+    assertFalse("Not indexed pages are left alone", index.update(9, "new content"));
+
+    assertEquals(2, index.size());
+    assertTrue(index.search("old", 10).isEmpty());
+    assertEquals(asList(1), pageIds(index.search("new", 10)));
+    assertEquals("Page", index.search("new", 10).get(0).name());
+    assertEquals(2, index.search("content", 10).size());
+
+    index.remove(1);
+    assertEquals(1, index.size());
+    assertTrue(index.search("new", 10).isEmpty());
+    assertEquals(asList(2), pageIds(index.search("content", 10)));
+  }
+
+  @Test
+  public void compaction_renumbers_without_changing_results() {
+    for (int page = 0; page < 10; page++) {
+      index.put(page, "Page " + page, "common " + (page % 2 == 0 ? "even" : "odd") + " page" + page);
+    }
+    index.put(3, "Page 3", "common odd rewritten");
+    index.put(6, "Page 6", "common even rewritten");
+    index.remove(8);
+    List<String> before = describe(index.search("common even odd rewritten", 20));
+
+    index.compact();
+
+    assertEquals(before, describe(index.search("common even odd rewritten", 20)));
+    assertEquals(9, index.size());
+
+    // Writes after the compaction land on the renumbered documents
+    index.put(3, "Page 3", "moved again");
+    index.put(10, "Page 10", "common fresh");
+    assertEquals(asList(3), pageIds(index.search("moved", 10)));
+    assertEquals(asList(10), pageIds(index.search("fresh", 10)));
+    assertEquals(asList(6), pageIds(index.search("rewritten", 10)));
+    assertEquals(9, index.search("common", 20).size());
+  }
+
+  @Test
+  public void rebuild_keeps_the_live_writes() {
+    index.put(1, "Kept", "before the rebuild");
+    index.beginRebuild();
+
+    index.put(2, "Live", "written live");
+    index.remove(3);
+    index.putIfAbsent(1, "Kept", "read by the rebuild");
+    index.putIfAbsent(2, "Live", "read by the rebuild");
+    index.putIfAbsent(3, "Deleted", "read by the rebuild");
+    index.putIfAbsent(4, "Read", "read by the rebuild");
+    index.endRebuild();
+
+    assertEquals(3, index.size());
+    assertEquals(asList(1), pageIds(index.search("before", 10)));
+    assertEquals(asList(2), pageIds(index.search("live", 10)));
+    assertEquals(asList(4), pageIds(index.search("read", 10)));
+
+    // Removals only hold during the rebuild
+    index.putIfAbsent(3, "Created", "created again");
+    assertEquals(asList(3), pageIds(index.search("again", 10)));
+  }
+
+  @Test
+  public void snippet_around_the_first_match() {
+    StringBuilder content = new StringBuilder();
+    for (int i = 0; i < 40; i++) {
+      content.append("filler").append(i).append(' ');
+    }
+    content.append("the   **needle**\nis here");
+    for (int i = 0; i < 40; i++) {
+      content.append(" tail").append(i);
+    }
+
+    String snippet = SearchIndex.snippet(content.toString(), "Needle");
+    assertTrue(snippet, snippet.startsWith("..."));
+    assertTrue(snippet, snippet.endsWith("..."));
+    assertTrue(snippet, snippet.contains("the **needle** is here"));
+    assertEquals("short page", SearchIndex.snippet("short page", "missing"));
+  }
+
+  private static List<Integer> pageIds(List<SearchIndex.Hit> hits) {
+    return hits.stream().map(SearchIndex.Hit::pageId).collect(Collectors.toList());
+  }
+
+  private static List<String> describe(List<SearchIndex.Hit> hits) {
+    return hits.stream().map(hit -> hit.pageId() + " " + hit.name() + " " + hit.score()).collect(Collectors.toList());
+  }
+
+  private static List<Integer> asList(Integer... pageIds) {
+    return java.util.Arrays.asList(pageIds);
+  }
+}
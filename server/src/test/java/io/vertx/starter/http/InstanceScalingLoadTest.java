@@ -0,0 +1,143 @@
+package io.vertx.starter.http;
+
+import io.vertx.core.DeploymentOptions;
+import io.vertx.core.Vertx;
+import io.vertx.core.VertxOptions;
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.http.HttpClientOptions;
+import io.vertx.core.impl.VertxInternal;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.net.JksOptions;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import io.vertx.starter.InstancePolicy;
+import io.vertx.starter.database.WikiDatabaseBinder;
+import io.vertx.starter.database.WikiDatabaseVerticle;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Throughput of GET /api/pages with one instance of each verticle and with the "auto" instance policy.
+ * Run with -Dwiki.loadtest=true, optionally -Dwiki.loadtest.duration=<ms>, -Dwiki.loadtest.connections=<n> and
+ * -Dwiki.loadtest.event_loops=<n>.
+ */
+@RunWith(VertxUnitRunner.class)
+public class InstanceScalingLoadTest {
+
+  private static final Logger logger = LoggerFactory.getLogger(InstanceScalingLoadTest.class);
+
+  private static final long DURATION = Long.getLong("wiki.loadtest.duration", 10_000);
+  private static final int CONNECTIONS = Integer.getInteger("wiki.loadtest.connections", 128);
+  private static final int EVENT_LOOPS = Integer.getInteger("wiki.loadtest.event_loops",
+    Math.max(2, Runtime.getRuntime().availableProcessors()));
+
+  @Before
+  public void enabled() {
+    Assume.assumeTrue("Load test disabled, run with -Dwiki.loadtest=true", Boolean.getBoolean("wiki.loadtest"));
+  }
+
+  @Test
+  public void throughput_by_instance_policy(TestContext context) {
+    Map<String, Double> throughput = new LinkedHashMap<>();
+    for (String policy : new String[]{"1", "auto"}) {
+      throughput.put(policy, measure(context, policy));
+    }
+
+    StringBuilder report = new StringBuilder(String.format("%nInstances  Requests/s  (%d connections, %d ms)%n",
+      CONNECTIONS, DURATION));
+    throughput.forEach((policy, rps) -> report.append(String.format("%-10s %11.0f%n", policy, rps)));
+    logger.info(report.toString());
+  }
+
+  private double measure(TestContext context, String policy) {
+    Vertx server = Vertx.vertx(new VertxOptions().setEventLoopPoolSize(EVENT_LOOPS));
+    Vertx client = Vertx.vertx();
+    try {
+      JsonObject config = new JsonObject()
+        .put(JspareServerVerticle.CONFIG_HTTP_SERVER_INSTANCES, policy)
+        .put(WikiDatabaseVerticle.CONFIG_WIKIDB_INSTANCES, policy)
+        .put(WikiDatabaseBinder.CONFIG_WIKIDB_JDBC_URL, "jdbc:hsqldb:mem:loadtest;shutdown=true")
+        .put(WikiDatabaseBinder.CONFIG_WIKIDB_JDBC_MAX_POOL_SIZE, 32);
+
+      Async deployed = context.async();
+      server.deployVerticle("service:io.vertx.starter.wiki", new DeploymentOptions().setConfig(config),
+        context.asyncAssertSuccess(id -> deployed.complete()));
+      deployed.awaitSuccess(60_000);
+
+      // "auto" follows the event loops of the running instance, not the Vert.x default
+      int expected = "auto".equals(policy) ? EVENT_LOOPS : 1;
+      context.assertEquals(expected, InstancePolicy.instances(server, policy, 1));
+      context.assertEquals(expected, instances(server, WikiDatabaseVerticle.class.getName()),
+        "Database verticle instances with policy " + policy);
+      context.assertEquals(expected, instances(server, JspareServerVerticle.class.getName()),
+        "Http verticle instances with policy " + policy);
+
+      HttpClient httpClient = client.createHttpClient(new HttpClientOptions()
+        .setDefaultHost("localhost")
+        .setDefaultPort(8080)
+        .setSsl(true)
+        .setTrustOptions(new JksOptions().setPath("server-keystore.jks").setPassword("secret"))
+        .setMaxPoolSize(CONNECTIONS));
+
+      AtomicLong completed = new AtomicLong();
+      AtomicLong failed = new AtomicLong();
+      long deadline = System.currentTimeMillis() + DURATION;
+      Async done = context.async(CONNECTIONS);
+      for (int i = 0; i < CONNECTIONS; i++) {
+        request(httpClient, deadline, completed, failed, done);
+      }
+      done.awaitSuccess(DURATION + 30_000);
+
+      context.assertEquals(0L, failed.get(), "Failed requests with policy " + policy);
+      return completed.get() * 1000.0 / DURATION;
+    } finally {
+      client.close();
+      Async closed = context.async();
+      server.close(context.asyncAssertSuccess(v -> closed.complete()));
+      closed.awaitSuccess(30_000);
+    }
+  }
+
+  /**
+   * Instances of the deployments of a verticle class, whatever the verticle factory prefix.
+   */
+  private static int instances(Vertx vertx, String verticleName) {
+    VertxInternal vertxInternal = (VertxInternal) vertx;
+    return vertx.deploymentIDs().stream()
+      .map(vertxInternal::getDeployment)
+      .filter(deployment -> deployment != null && deployment.verticleIdentifier().endsWith(verticleName))
+      .mapToInt(deployment -> deployment.getVerticles().size())
+      .sum();
+  }
+
+  private void request(HttpClient httpClient, long deadline, AtomicLong completed, AtomicLong failed, Async done) {
+    httpClient.get("/api/pages", response -> response.bodyHandler(body -> {
+      if (response.statusCode() == 200) {
+        completed.incrementAndGet();
+      } else {
+        failed.incrementAndGet();
+      }
+      next(httpClient, deadline, completed, failed, done);
+    })).exceptionHandler(t -> {
+      failed.incrementAndGet();
+      next(httpClient, deadline, completed, failed, done);
+    }).end();
+  }
+
+  private void next(HttpClient httpClient, long deadline, AtomicLong completed, AtomicLong failed, Async done) {
+    if (System.currentTimeMillis() < deadline) {
+      request(httpClient, deadline, completed, failed, done);
+    } else {
+      done.countDown();
+    }
+  }
+}
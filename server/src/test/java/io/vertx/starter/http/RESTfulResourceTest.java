@@ -2,7 +2,9 @@ package io.vertx.starter.http;
 
 import io.vertx.core.DeploymentOptions;
 import io.vertx.core.Future;
+import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
 import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 import io.vertx.core.net.JksOptions;
@@ -13,12 +15,19 @@ import io.vertx.ext.web.client.HttpResponse;
 import io.vertx.ext.web.client.WebClient;
 import io.vertx.ext.web.client.WebClientOptions;
 import io.vertx.ext.web.codec.BodyCodec;
+import io.vertx.starter.database.TestDatabases;
 import io.vertx.starter.database.WikiDatabaseBinder;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+
 @RunWith(VertxUnitRunner.class)
 public class RESTfulResourceTest {
 
@@ -30,7 +39,7 @@ public class RESTfulResourceTest {
     vertx = Vertx.vertx();
 
     JsonObject dbConf = new JsonObject()
-      .put(WikiDatabaseBinder.CONFIG_WIKIDB_JDBC_URL, "jdbc:hsqldb:mem:testdb;shutdown=true")
+      .put(WikiDatabaseBinder.CONFIG_WIKIDB_JDBC_URL, TestDatabases.jdbcUrl())
       .put(WikiDatabaseBinder.CONFIG_WIKIDB_JDBC_MAX_POOL_SIZE, 4);
 
     vertx.deployVerticle("service:io.vertx.starter.wiki",
@@ -123,4 +132,267 @@ public class RESTfulResourceTest {
     }, Future.failedFuture("Oh?"));
   }
 
+  @Test
+  public void import_then_export_pages(TestContext context) {
+    Async async = context.async();
+
+    Buffer pages = Buffer.buffer()
+      .appendString(new JsonObject().put("name", "One").put("markdown", "# One").encode()).appendString("\n")
+      .appendString(new JsonObject().put("name", "Two").put("markdown", "# Two").encode()).appendString("\n\n")
+      .appendString(new JsonObject().put("name", "Three").put("markdown", "# Three").encode());
+
+    webClient.post("/api/pages:bulk")
+      .putHeader("Content-Type", "application/x-ndjson")
+      .as(BodyCodec.jsonObject())
+      .sendBuffer(pages, context.asyncAssertSuccess(imported -> {
+        context.assertEquals(200, imported.statusCode());
+        context.assertEquals(3, imported.body().getJsonObject("imported").getInteger("created"));
+        context.assertEquals(0, imported.body().getJsonObject("imported").getInteger("updated"));
+
+        Buffer update = Buffer.buffer(new JsonObject().put("name", "Two").put("markdown", "# Two again").encode());
+        webClient.post("/api/pages:bulk")
+          .as(BodyCodec.jsonObject())
+          .sendBuffer(update, context.asyncAssertSuccess(updated -> {
+            context.assertEquals(1, updated.body().getJsonObject("imported").getInteger("updated"));
+
+            webClient.get("/api/pages:bulk")
+              .send(context.asyncAssertSuccess(exported -> {
+                context.assertEquals(200, exported.statusCode());
+                context.assertTrue(exported.getHeader("Content-Type").startsWith("application/x-ndjson"));
+                String[] lines = exported.bodyAsString().split("\n");
+                context.assertEquals(3, lines.length);
+                context.assertEquals("One", new JsonObject(lines[0]).getString("name"));
+                context.assertEquals("# Two again", new JsonObject(lines[1]).getString("markdown"));
+                context.assertEquals("Three", new JsonObject(lines[2]).getString("name"));
+                async.complete();
+              }));
+          }));
+      }));
+  }
+
+  @Test
+  public void import_stops_at_an_invalid_line(TestContext context) {
+    Async async = context.async();
+
+    // The first full chunk is imported before the invalid line is read
+    Buffer pages = Buffer.buffer();
+    for (int i = 0; i < 501; i++) {
+      pages.appendString(new JsonObject().put("name", "Page " + i).put("markdown", "Page " + i).encode())
+        .appendString("\n");
+    }
+    pages.appendString("{\"name\": \"Broken\"\n");
+
+    webClient.post("/api/pages:bulk")
+      .as(BodyCodec.jsonObject())
+      .sendBuffer(pages, context.asyncAssertSuccess(response -> {
+        context.assertEquals(400, response.statusCode());
+        context.assertFalse(response.body().getBoolean("success"));
+        context.assertEquals("Line 502 is not a JSON object", response.body().getString("error"));
+        context.assertEquals(500, response.body().getJsonObject("imported").getInteger("created"));
+        context.assertEquals(501, response.body().getInteger("line"));
+
+        webClient.get("/api/pages?limit=1000")
+          .as(BodyCodec.jsonObject())
+          .send(context.asyncAssertSuccess(list -> {
+            context.assertEquals(500, list.body().getJsonArray("pages").size());
+            async.complete();
+          }));
+      }));
+  }
+
+  @Test
+  public void export_of_an_empty_wiki(TestContext context) {
+    webClient.get("/api/pages:bulk")
+      .send(context.asyncAssertSuccess(exported -> {
+        context.assertEquals(200, exported.statusCode());
+        context.assertEquals(0, exported.body() == null ? 0 : exported.body().length());
+      }));
+  }
+
+  @Test
+  public void walk_the_page_list(TestContext context) {
+    Async async = context.async();
+
+    importPages(context, Arrays.asList("Page E", "Other", "Page A", "Page C", "Page G", "Page B", "Page D"), v -> {
+      List<String> names = new ArrayList<>();
+      walk(context, "/api/pages?limit=3", names, 0, requests -> {
+        context.assertEquals(3, requests);
+        context.assertEquals(Arrays.asList("Other", "Page A", "Page B", "Page C", "Page D", "Page E", "Page G"), names);
+        async.complete();
+      });
+    });
+  }
+
+  @Test
+  public void walk_the_pages_of_a_prefix(TestContext context) {
+    Async async = context.async();
+
+    importPages(context, Arrays.asList("Page B", "Other", "Page A", "Pages", "Paged"), v -> {
+      webClient.get("/api/pages?prefix=Page&limit=2")
+        .as(BodyCodec.jsonObject())
+        .send(context.asyncAssertSuccess(first -> {
+          context.assertTrue(first.getHeader("Link").contains("&prefix=Page>"));
+
+          List<String> names = new ArrayList<>();
+          walk(context, "/api/pages?prefix=Page&limit=2", names, 0, requests -> {
+            context.assertEquals(2, requests);
+            context.assertEquals(Arrays.asList("Page A", "Page B", "Paged", "Pages"), names);
+            async.complete();
+          });
+        }));
+    });
+  }
+
+  @Test
+  public void page_list_limits(TestContext context) {
+    Async async = context.async();
+
+    importPages(context, Arrays.asList("Page A", "Page B"), v -> {
+      webClient.get("/api/pages?limit=5000")
+        .as(BodyCodec.jsonObject())
+        .send(context.asyncAssertSuccess(clamped -> {
+          context.assertEquals(200, clamped.statusCode());
+          context.assertEquals(2, clamped.body().getJsonArray("pages").size());
+          context.assertFalse(clamped.body().containsKey("next"));
+          context.assertNull(clamped.getHeader("Link"));
+
+          webClient.get("/api/pages?limit=0")
+            .as(BodyCodec.jsonObject())
+            .send(context.asyncAssertSuccess(zero -> {
+              context.assertEquals(400, zero.statusCode());
+
+              webClient.get("/api/pages?limit=many")
+                .as(BodyCodec.jsonObject())
+                .send(context.asyncAssertSuccess(notNumber -> {
+                  context.assertEquals(400, notNumber.statusCode());
+                  context.assertEquals("Invalid limit many", notNumber.body().getString("error"));
+                  async.complete();
+                }));
+            }));
+        }));
+    });
+  }
+
+  @Test
+  public void tampered_cursor_is_rejected(TestContext context) {
+    Async async = context.async();
+
+    String otherVersion = Base64.getUrlEncoder().withoutPadding()
+      .encodeToString("2:Page A".getBytes(StandardCharsets.UTF_8));
+    webClient.get("/api/pages?cursor=" + otherVersion)
+      .as(BodyCodec.jsonObject())
+      .send(context.asyncAssertSuccess(response -> {
+        context.assertEquals(400, response.statusCode());
+        context.assertEquals("Invalid cursor", response.body().getString("error"));
+
+        webClient.get("/api/pages?cursor=%25%25%25")
+          .as(BodyCodec.jsonObject())
+          .send(context.asyncAssertSuccess(garbled -> {
+            context.assertEquals(400, garbled.statusCode());
+            async.complete();
+          }));
+      }));
+  }
+
+  @Test
+  public void suggest_page_names(TestContext context) {
+    Async async = context.async();
+
+    importPages(context, Arrays.asList("Page B", "Other", "page a", "Pages"), v -> {
+      webClient.get("/api/pages/suggest?prefix=PAGE&limit=2")
+        .as(BodyCodec.jsonObject())
+        .send(context.asyncAssertSuccess(response -> {
+          context.assertEquals(200, response.statusCode());
+          context.assertEquals(new JsonArray().add("page a").add("Page B"), response.body().getJsonArray("suggestions"));
+          async.complete();
+        }));
+    });
+  }
+
+  @Test
+  public void search_pages(TestContext context) {
+    Async async = context.async();
+
+    importPages(context, Arrays.asList("Vert.x", "Event loop", "Cooking"), Arrays.asList(
+      "Vert.x is a toolkit for reactive applications on the JVM",
+      "The event loop runs the handlers of a reactive toolkit, reactive all the way down",
+      "Pasta and sauce"), v -> {
+
+      webClient.get("/api/search?q=reactive%20toolkit")
+        .as(BodyCodec.jsonObject())
+        .send(context.asyncAssertSuccess(response -> {
+          context.assertEquals(200, response.statusCode());
+          JsonArray results = response.body().getJsonArray("results");
+          context.assertEquals(2, results.size());
+          context.assertEquals("Event loop", results.getJsonObject(0).getString("name"));
+          context.assertEquals("Vert.x", results.getJsonObject(1).getString("name"));
+          context.assertTrue(results.getJsonObject(0).getDouble("score") > results.getJsonObject(1).getDouble("score"));
+          context.assertTrue(results.getJsonObject(1).getString("snippet").contains("reactive applications"));
+          context.assertTrue(results.getJsonObject(0).containsKey("id"));
+
+          webClient.get("/api/search?q=reactive&limit=1")
+            .as(BodyCodec.jsonObject())
+            .send(context.asyncAssertSuccess(limited -> {
+              context.assertEquals(1, limited.body().getJsonArray("results").size());
+
+              webClient.get("/api/search?q=%20")
+                .as(BodyCodec.jsonObject())
+                .send(context.asyncAssertSuccess(missing -> {
+                  context.assertEquals(400, missing.statusCode());
+                  context.assertEquals("Missing search query", missing.body().getString("error"));
+                  async.complete();
+                }));
+            }));
+        }));
+    });
+  }
+
+  /**
+   * Follows the next links of the page list from a uri, collecting the names, then hands over the number of requests.
+   */
+  private void walk(TestContext context, String uri, List<String> names, int requests,
+                    Handler<Integer> done) {
+    webClient.get(uri)
+      .as(BodyCodec.jsonObject())
+      .send(context.asyncAssertSuccess(response -> {
+        context.assertEquals(200, response.statusCode());
+        JsonArray pages = response.body().getJsonArray("pages");
+        for (int i = 0; i < pages.size(); i++) {
+          names.add(pages.getJsonObject(i).getString("name"));
+        }
+        String next = response.body().getString("next");
+        String link = response.getHeader("Link");
+        if (next == null) {
+          context.assertNull(link);
+          done.handle(requests + 1);
+          return;
+        }
+        context.assertTrue(link.endsWith(">; rel=\"next\""));
+        String nextUri = link.substring(link.indexOf('<') + 1, link.indexOf('>'));
+        context.assertTrue(nextUri.startsWith("/api/pages?cursor=" + next));
+        walk(context, nextUri, names, requests + 1, done);
+      }));
+  }
+
+  private void importPages(TestContext context, List<String> names, Handler<Void> done) {
+    List<String> markdowns = new ArrayList<>();
+    for (String name : names) {
+      markdowns.add("# " + name);
+    }
+    importPages(context, names, markdowns, done);
+  }
+
+  private void importPages(TestContext context, List<String> names, List<String> markdowns, Handler<Void> done) {
+    Buffer pages = Buffer.buffer();
+    for (int i = 0; i < names.size(); i++) {
+      pages.appendString(new JsonObject().put("name", names.get(i)).put("markdown", markdowns.get(i)).encode())
+        .appendString("\n");
+    }
+    webClient.post("/api/pages:bulk")
+      .as(BodyCodec.jsonObject())
+      .sendBuffer(pages, context.asyncAssertSuccess(response -> {
+        context.assertEquals(200, response.statusCode());
+        done.handle(null);
+      }));
+  }
 }
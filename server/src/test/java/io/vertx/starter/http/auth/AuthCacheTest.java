@@ -0,0 +1,125 @@
+package io.vertx.starter.http.auth;
+
+import io.vertx.core.json.JsonObject;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class AuthCacheTest {
+
+  private AuthCache cache;
+  private AtomicInteger calls;
+
+  @Before
+  public void prepare() {
+    cache = new AuthCache().init(new JsonObject().put(AuthCache.CONFIG_AUTH_CACHE_TTL_SECONDS, 1L));
+    calls = new AtomicInteger();
+  }
+
+  @Test
+  public void lookups_share_one_call() throws Exception {
+    CompletableFuture<Boolean> pending = new CompletableFuture<>();
+    CompletableFuture<Boolean> first = cache.isAuthorised("alice", "create", counted(() -> pending));
+    CompletableFuture<Boolean> second = cache.isAuthorised("alice", "create", counted(() -> pending));
+    pending.complete(true);
+
+    assertTrue(first.get());
+    assertTrue(second.get());
+    assertTrue(cache.isAuthorised("alice", "create", counted(() -> granted(false))).get());
+    assertEquals(1, calls.get());
+
+    JsonObject metrics = cache.metrics().getJsonObject("authorizations");
+    assertEquals(2L, (long) metrics.getLong("hits"));
+    assertEquals(1L, (long) metrics.getLong("misses"));
+  }
+
+  @Test
+  public void authentications_are_keyed_by_password() throws Exception {
+    cache.authenticate("alice", "secret", counted(() -> CompletableFuture.completedFuture(null))).get();
+    cache.authenticate("alice", "secret", counted(() -> CompletableFuture.completedFuture(null))).get();
+    cache.authenticate("alice", "other", counted(() -> CompletableFuture.completedFuture(null))).get();
+
+    assertEquals(2, calls.get());
+  }
+
+  @Test
+  public void failures_are_not_cached() throws Exception {
+    CompletableFuture<Boolean> failed = new CompletableFuture<>();
+    failed.completeExceptionally(new IllegalStateException("realm down"));
+    try {
+      cache.isAuthorised("alice", "create", counted(() -> failed)).get();
+      fail("The failure should reach the caller");
+    } catch (ExecutionException e) {
+      assertTrue(e.getCause() instanceof IllegalStateException);
+    }
+
+    assertTrue(cache.isAuthorised("alice", "create", counted(() -> granted(true))).get());
+    assertEquals(2, calls.get());
+    assertEquals(1L, (long) cache.metrics().getJsonObject("authorizations").getLong("failures"));
+  }
+
+  @Test
+  public void results_expire_after_the_ttl() throws Exception {
+    cache.isAuthorised("alice", "create", counted(() -> granted(true))).get();
+    long resolvedAt = System.currentTimeMillis();
+    assertTrue(cache.isCurrent("alice", resolvedAt));
+
+    Thread.sleep(1100);
+
+    assertFalse(cache.isAuthorised("alice", "create", counted(() -> granted(false))).get());
+    assertEquals(2, calls.get());
+    assertFalse(cache.isCurrent("alice", resolvedAt));
+  }
+
+  @Test
+  public void invalidation_drops_the_results_of_one_user() throws Exception {
+    cache.isAuthorised("alice", "create", counted(() -> granted(true))).get();
+    cache.isAuthorised("bob", "create", counted(() -> granted(true))).get();
+    long resolvedAt = System.currentTimeMillis();
+    Thread.sleep(5);
+
+    cache.onInvalidate(new JsonObject().put("username", "alice"));
+
+    assertFalse(cache.isAuthorised("alice", "create", counted(() -> granted(false))).get());
+    assertTrue(cache.isAuthorised("bob", "create", counted(() -> granted(false))).get());
+    assertEquals(3, calls.get());
+
+    // Permissions kept on a session are resolved again for the invalidated user only
+    assertFalse(cache.isCurrent("alice", resolvedAt));
+    assertTrue(cache.isCurrent("bob", resolvedAt));
+    Thread.sleep(5);
+    assertTrue(cache.isCurrent("alice", System.currentTimeMillis()));
+  }
+
+  @Test
+  public void empty_invalidation_drops_every_result() throws Exception {
+    cache.isAuthorised("alice", "create", counted(() -> granted(true))).get();
+    long resolvedAt = System.currentTimeMillis();
+    Thread.sleep(5);
+
+    cache.onInvalidate(new JsonObject());
+
+    assertFalse(cache.isAuthorised("alice", "create", counted(() -> granted(false))).get());
+    assertFalse(cache.isCurrent("bob", resolvedAt));
+  }
+
+  private <T> Supplier<CompletableFuture<T>> counted(Supplier<CompletableFuture<T>> loader) {
+    return () -> {
+      calls.incrementAndGet();
+      return loader.get();
+    };
+  }
+
+  private static CompletableFuture<Boolean> granted(boolean granted) {
+    return CompletableFuture.completedFuture(granted);
+  }
+}
@@ -0,0 +1,145 @@
+package io.vertx.starter.http.auth;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.auth.AbstractUser;
+import io.vertx.ext.auth.AuthProvider;
+import io.vertx.ext.auth.User;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+public class CachingAuthProviderTest {
+
+  private static final Set<String> GRANTED = ConcurrentHashMap.newKeySet();
+  private static final AtomicInteger AUTHENTICATIONS = new AtomicInteger();
+
+  private Vertx vertx;
+  private AuthCache cache;
+  private CachingAuthProvider provider;
+
+  @Before
+  public void prepare() {
+    GRANTED.clear();
+    AUTHENTICATIONS.set(0);
+    vertx = Vertx.vertx();
+    cache = new AuthCache().init(new JsonObject());
+    provider = new CachingAuthProvider(vertx, new RealmProvider(), cache);
+  }
+
+  @After
+  public void finish() {
+    vertx.close();
+  }
+
+  @Test
+  public void every_login_gets_its_own_user() throws Exception {
+    User first = login();
+    User second = login();
+
+    assertNotSame(first, second);
+    assertEquals(1, AUTHENTICATIONS.get());
+    assertEquals("alice", second.principal().getString("username"));
+  }
+
+  @Test
+  public void revoked_permissions_are_seen_after_an_invalidation() throws Exception {
+    GRANTED.add("create");
+    User user = login();
+    assertTrue(isAuthorized(user, "create"));
+
+    GRANTED.remove("create");
+    cache.invalidate("alice");
+
+    assertFalse(isAuthorized(user, "create"));
+    assertFalse(isAuthorized(login(), "create"));
+  }
+
+  private User login() throws Exception {
+    CompletableFuture<User> user = new CompletableFuture<>();
+    provider.authenticate(new JsonObject().put("username", "alice").put("password", "secret"),
+      ar -> complete(user, ar));
+    return user.get(5, TimeUnit.SECONDS);
+  }
+
+  private static boolean isAuthorized(User user, String authority) throws Exception {
+    CompletableFuture<Boolean> authorized = new CompletableFuture<>();
+    user.isAuthorized(authority, ar -> complete(authorized, ar));
+    return authorized.get(5, TimeUnit.SECONDS);
+  }
+
+  private static <T> void complete(CompletableFuture<T> future, AsyncResult<T> ar) {
+    if (ar.succeeded()) {
+      future.complete(ar.result());
+    } else {
+      future.completeExceptionally(ar.cause());
+    }
+  }
+
+  private static final class RealmProvider implements AuthProvider {
+
+    @Override
+    public void authenticate(JsonObject authInfo, Handler<AsyncResult<User>> resultHandler) {
+      AUTHENTICATIONS.incrementAndGet();
+      resultHandler.handle(Future.succeededFuture(new RealmUser(authInfo.getString("username"))));
+    }
+  }
+
+  /**
+   * User answering from {@link #GRANTED}, with the permission cache of {@link AbstractUser}.
+   */
+  public static final class RealmUser extends AbstractUser {
+
+    private String username;
+
+    public RealmUser() {
+    }
+
+    private RealmUser(String username) {
+      this.username = username;
+    }
+
+    @Override
+    protected void doIsPermitted(String permission, Handler<AsyncResult<Boolean>> resultHandler) {
+      resultHandler.handle(Future.succeededFuture(GRANTED.contains(permission)));
+    }
+
+    @Override
+    public JsonObject principal() {
+      return new JsonObject().put("username", username);
+    }
+
+    @Override
+    public void setAuthProvider(AuthProvider authProvider) {
+    }
+
+    @Override
+    public void writeToBuffer(Buffer buffer) {
+      super.writeToBuffer(buffer);
+      buffer.appendInt(username.length()).appendString(username);
+    }
+
+    @Override
+    public int readFromBuffer(int pos, Buffer buffer) {
+      pos = super.readFromBuffer(pos, buffer);
+      int len = buffer.getInt(pos);
+      username = buffer.getString(pos + 4, pos + 4 + len);
+      return pos + 4 + len;
+    }
+  }
+}
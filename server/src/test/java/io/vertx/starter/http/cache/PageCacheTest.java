@@ -0,0 +1,83 @@
+package io.vertx.starter.http.cache;
+
+import io.vertx.core.json.JsonObject;
+import io.vertx.starter.database.PageEvents;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class PageCacheTest {
+
+  private static final String BODY = "<p>Hello " + PageCache.USERNAME_PLACEHOLDER + "</p>";
+
+  private PageCache cache;
+
+  @Before
+  public void prepare() {
+    cache = new PageCache();
+  }
+
+  @Test
+  public void one_entry_per_permissions_served_to_every_user() {
+    cache.put("Home", true, false, 1, cache.generation(), BODY);
+    cache.put("Home", false, false, 1, cache.generation(), "<p>Read only</p>");
+
+    assertEquals("<p>Hello alice</p>", cache.get("Home", true, false, "alice"));
+    assertEquals("<p>Hello bob</p>", cache.get("Home", true, false, "bob"));
+    assertEquals("<p>Read only</p>", cache.get("Home", false, false, "carol"));
+    assertNull(cache.get("Home", true, true, "alice"));
+    assertNull(cache.get("Other", true, false, "alice"));
+    assertEquals(2, cache.size());
+  }
+
+  @Test
+  public void save_drops_every_entry_of_the_page() {
+    cache.put("Home", true, false, 1, cache.generation(), BODY);
+    cache.put("Home", false, false, 1, cache.generation(), BODY);
+    cache.put("Other", true, false, 2, cache.generation(), BODY);
+
+    // As published by the save API, then by the database service
+    cache.onPageEvent(new JsonObject().put("id", 1));
+    cache.onPageEvent(PageEvents.saved(1));
+
+    assertNull(cache.get("Home", true, false, "alice"));
+    assertNull(cache.get("Home", false, false, "alice"));
+    assertEquals("<p>Hello alice</p>", cache.get("Other", true, false, "alice"));
+  }
+
+  @Test
+  public void created_page_drops_its_not_found_entries() {
+    cache.put("New", true, false, -1, cache.generation(), "<p>Create it</p>");
+
+    cache.onPageEvent(PageEvents.created(7, "New"));
+
+    assertNull(cache.get("New", true, false, "alice"));
+  }
+
+  @Test
+  public void body_rendered_before_a_save_is_not_cached() {
+    long generation = cache.generation();
+
+    cache.onPageEvent(PageEvents.saved(1));
+    cache.put("Home", true, false, 1, generation, BODY);
+
+    assertNull(cache.get("Home", true, false, "alice"));
+    assertEquals(0, cache.size());
+
+    cache.put("Home", true, false, 1, cache.generation(), BODY);
+    assertEquals("<p>Hello alice</p>", cache.get("Home", true, false, "alice"));
+  }
+
+  @Test
+  public void metrics_count_hits_and_misses() {
+    cache.put("Home", true, false, 1, cache.generation(), BODY);
+    cache.get("Home", true, false, "alice");
+    cache.get("Other", true, false, "alice");
+
+    JsonObject metrics = cache.metrics();
+    assertEquals(1L, (long) metrics.getLong("hits"));
+    assertEquals(1L, (long) metrics.getLong("misses"));
+  }
+}
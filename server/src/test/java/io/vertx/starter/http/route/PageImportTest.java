@@ -0,0 +1,189 @@
+package io.vertx.starter.http.route;
+
+import io.reactivex.Single;
+import io.reactivex.subjects.SingleSubject;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Handler;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.streams.ReadStream;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class PageImportTest {
+
+  private Body body;
+  private List<List<JsonObject>> chunks;
+  private List<SingleSubject<JsonObject>> imports;
+  private AsyncResult<JsonObject> result;
+
+  @Before
+  public void prepare() {
+    body = new Body();
+    chunks = new ArrayList<>();
+    imports = new ArrayList<>();
+    result = null;
+    new PageImport(body, this::importChunk, 2).run(ar -> result = ar);
+  }
+
+  @Test
+  public void lines_split_across_buffers_are_imported_by_chunk() {
+    body.write("{\"name\":\"A\",\"markdown\":\"a\"}\n{\"name\":\"B\",");
+    assertTrue(chunks.isEmpty());
+
+    body.write("\"markdown\":\"b\"}\n\n{\"name\":\"C\",\"markdown\":\"c\"}");
+    assertEquals(1, chunks.size());
+    assertEquals("B", chunks.get(0).get(1).getString("name"));
+    assertTrue("The body waits for the chunk", body.paused);
+
+    complete(0, 2, 0);
+    assertFalse(body.paused);
+
+    // The last line has no line feed
+    body.end();
+    assertEquals(2, chunks.size());
+    assertEquals("C", chunks.get(1).get(0).getString("name"));
+    assertNull(result);
+
+    complete(1, 0, 1);
+    assertTrue(result.succeeded());
+    assertEquals(2, (int) result.result().getInteger("created"));
+    assertEquals(1, (int) result.result().getInteger("updated"));
+  }
+
+  @Test
+  public void invalid_line_keeps_the_chunks_before_it() {
+    body.write("{\"name\":\"A\",\"markdown\":\"a\"}\n{\"name\":\"B\",\"markdown\":\"b\"}\n");
+    body.write("{\"name\":\"C\",\"markdown\":\"c\"}\nnot json\n{\"name\":\"D\",\"markdown\":\"d\"}\n");
+    complete(0, 2, 0);
+    body.write("{\"name\":\"E\",\"markdown\":\"e\"}\n{\"name\":\"F\",\"markdown\":\"f\"}\n");
+    body.end();
+
+    assertEquals("Nothing after the invalid line is imported", 1, chunks.size());
+    PageImport.Failure failure = (PageImport.Failure) result.cause();
+    assertEquals(400, failure.statusCode);
+    assertEquals("Line 4 is not a JSON object", failure.getMessage());
+    assertEquals("C is not imported", 3, failure.line);
+    assertEquals(2, (int) failure.imported.getInteger("created"));
+  }
+
+  @Test
+  public void missing_markdown_is_rejected() {
+    body.write("{\"name\":\"A\"}\n");
+    body.end();
+
+    PageImport.Failure failure = (PageImport.Failure) result.cause();
+    assertEquals(400, failure.statusCode);
+    assertEquals("Line 1 needs a name and markdown", failure.getMessage());
+    assertEquals(1, failure.line);
+    assertTrue(chunks.isEmpty());
+  }
+
+  @Test
+  public void failed_chunk_reports_the_pages_imported_before_it() {
+    body.write("{\"name\":\"A\",\"markdown\":\"a\"}\n{\"name\":\"B\",\"markdown\":\"b\"}\n");
+    complete(0, 1, 1);
+    body.write("{\"name\":\"C\",\"markdown\":\"c\"}\n{\"name\":\"D\",\"markdown\":\"d\"}\n");
+    imports.get(1).onError(new IllegalStateException("Database down"));
+    body.write("{\"name\":\"E\",\"markdown\":\"e\"}\n");
+    body.end();
+
+    assertEquals(2, chunks.size());
+    PageImport.Failure failure = (PageImport.Failure) result.cause();
+    assertEquals(500, failure.statusCode);
+    assertEquals("Database down", failure.getMessage());
+    assertEquals(3, failure.line);
+    assertEquals(1, (int) failure.imported.getInteger("created"));
+    assertEquals(1, (int) failure.imported.getInteger("updated"));
+  }
+
+  @Test
+  public void empty_body_imports_nothing() {
+    body.end();
+
+    assertTrue(result.succeeded());
+    assertEquals(0, (int) result.result().getInteger("created"));
+    assertTrue(chunks.isEmpty());
+  }
+
+  private Single<JsonObject> importChunk(List<JsonObject> chunk) {
+    SingleSubject<JsonObject> imported = SingleSubject.create();
+    chunks.add(chunk);
+    imports.add(imported);
+    return imported;
+  }
+
+  private void complete(int chunk, int created, int updated) {
+    imports.get(chunk).onSuccess(new JsonObject().put("created", created).put("updated", updated));
+  }
+
+  /**
+   * A request body written by the test, buffers written while paused are held back as by a real request.
+   */
+  private static final class Body implements ReadStream<Buffer> {
+
+    private final List<Buffer> held = new ArrayList<>();
+    private Handler<Buffer> handler;
+    private Handler<Void> endHandler;
+    private boolean paused = true;
+    private boolean ending;
+
+    void write(String data) {
+      held.add(Buffer.buffer(data));
+      deliver();
+    }
+
+    void end() {
+      ending = true;
+      deliver();
+    }
+
+    private void deliver() {
+      while (!paused && !held.isEmpty()) {
+        handler.handle(held.remove(0));
+      }
+      if (!paused && ending && held.isEmpty()) {
+        ending = false;
+        endHandler.handle(null);
+      }
+    }
+
+    @Override
+    public Body exceptionHandler(Handler<Throwable> handler) {
+      return this;
+    }
+
+    @Override
+    public Body handler(Handler<Buffer> handler) {
+      this.handler = handler;
+      return this;
+    }
+
+    @Override
+    public Body pause() {
+      paused = true;
+      return this;
+    }
+
+    @Override
+    public Body resume() {
+      paused = false;
+      deliver();
+      return this;
+    }
+
+    @Override
+    public Body endHandler(Handler<Void> endHandler) {
+      this.endHandler = endHandler;
+      return this;
+    }
+  }
+}
@@ -0,0 +1,126 @@
+package io.vertx.starter.http.session;
+
+import com.hazelcast.config.Config;
+import io.vertx.core.CompositeFuture;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.VertxOptions;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import io.vertx.spi.cluster.hazelcast.HazelcastClusterManager;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Sessions written by one node are read by another node of an in-process cluster, and mapped sessions are read back
+ * after the file was closed.
+ */
+@RunWith(VertxUnitRunner.class)
+public class SessionStoreTest {
+
+  private Vertx node1;
+  private Vertx node2;
+
+  @Before
+  public void prepare(TestContext context) {
+    Future<Vertx> first = Future.future();
+    Future<Vertx> second = Future.future();
+    Vertx.clusteredVertx(clusterOptions(), first);
+    first.compose(v -> {
+      Vertx.clusteredVertx(clusterOptions(), second);
+      return second;
+    }).setHandler(context.asyncAssertSuccess(v -> {
+      node1 = first.result();
+      node2 = second.result();
+    }));
+  }
+
+  private static VertxOptions clusterOptions() {
+    Config config = new Config();
+    config.getNetworkConfig().getJoin().getMulticastConfig().setEnabled(false);
+    config.getNetworkConfig().getJoin().getTcpIpConfig().setEnabled(true).addMember("127.0.0.1");
+    return new VertxOptions()
+      .setClusterHost("127.0.0.1")
+      .setClusterManager(new HazelcastClusterManager(config));
+  }
+
+  @After
+  public void finish(TestContext context) {
+    Future<Void> first = Future.future();
+    Future<Void> second = Future.future();
+    if (node1 != null) {
+      node1.close(first);
+    } else {
+      first.complete();
+    }
+    if (node2 != null) {
+      node2.close(second);
+    } else {
+      second.complete();
+    }
+    CompositeFuture.all(first, second).setHandler(context.asyncAssertSuccess());
+  }
+
+  @Test
+  public void session_is_shared_between_cluster_nodes(TestContext context) {
+    Async async = context.async();
+    SharedDataSessionStore store1 = new SharedDataSessionStore(node1, "test.sessions", 1_000);
+    SharedDataSessionStore store2 = new SharedDataSessionStore(node2, "test.sessions", 1_000);
+
+    StoredSession session = (StoredSession) store1.createSession(60_000);
+    session.put("username", "foo");
+    session.put("visits", 3);
+    session.put("permissions", new JsonObject().put("username", "foo").put("create", true));
+
+    store1.put(session, context.asyncAssertSuccess(v -> store2.get(session.id(), context.asyncAssertSuccess(read -> {
+      StoredSession stored = (StoredSession) read;
+      context.assertNotNull(stored);
+      context.assertFalse(stored.decoded(), "data is decoded on first use");
+      context.assertEquals(session.lastAccessed(), stored.lastAccessed());
+      context.assertEquals("foo", stored.get("username"));
+      context.assertEquals(3, stored.<Integer>get("visits"));
+      context.assertEquals(true, stored.<JsonObject>get("permissions").getBoolean("create"));
+      context.assertTrue(stored.decoded());
+
+      // A stale copy is refused once the session was saved again
+      store2.put(stored, context.asyncAssertSuccess(saved -> store1.put(session, context.asyncAssertFailure(
+        stale -> async.complete()))));
+    }))));
+  }
+
+  @Test
+  public void mapped_sessions_survive_reopening(TestContext context) throws IOException {
+    Async async = context.async();
+    Path path = Files.createTempFile("sessions", ".dat");
+    File file = path.toFile();
+    file.deleteOnExit();
+
+    MappedSessionStore store = new MappedSessionStore(node1, path, 16, 1024, 1_000);
+    StoredSession session = (StoredSession) store.createSession(60_000);
+    session.put("username", "bar");
+
+    store.put(session, context.asyncAssertSuccess(v -> {
+      store.close();
+
+      MappedSessionStore reopened = new MappedSessionStore(node1, path, 16, 1024, 1_000);
+      reopened.get(session.id(), context.asyncAssertSuccess(read -> {
+        context.assertNotNull(read);
+        context.assertEquals("bar", read.get("username"));
+        reopened.size(context.asyncAssertSuccess(size -> {
+          context.assertEquals(1, size);
+          reopened.close();
+          async.complete();
+        }));
+      }));
+    }));
+  }
+}
@@ -0,0 +1,86 @@
+package io.vertx.starter.markdown;
+
+import io.vertx.core.json.JsonObject;
+import io.vertx.reactivex.core.Vertx;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.jspare.core.Environment.my;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class MarkdownRendererTest {
+
+  /**
+   * Documents whose blocks are easy to split wrongly, as txtmark reads them.
+   */
+  private static final List<String> FIXTURES = Arrays.asList(
+    "# Title\n\nA paragraph\non two lines.\n\nAnother one.",
+    "> a\n\n> b",
+    "> a\n>\n> b\n\nafter",
+    "> a\n\nlazy\n\n> b",
+    "* a\n\n* b\n\n    continued\n\nafter",
+    "1. a\n\n2. b\n\n> quote",
+    "    code\n\n    more code\n\nafter",
+    "```\nfenced\n\ncode\n```\n\nafter",
+    "<div>\n\ninside\n\n</div>\n\nafter",
+    "<div class=\"outer\">\n<div>\n\nnested\n\n</div>\n\nstill inside\n</div>\n\nafter",
+    "<table>\n<tr><td>x</td></tr>\n\n<tr><td>y</td></tr>\n</table>\n\nafter",
+    "<!-- a\n\ncomment -->\n\nafter",
+    "<hr>\n\nafter",
+    "<div>\nnot closed\n\nafter",
+    "text\n\n<p>raw</p>\n\nmore");
+
+  private Vertx vertx;
+  private MarkdownRenderer renderer;
+
+  @Before
+  public void prepare() {
+    vertx = Vertx.vertx();
+    renderer = new MarkdownRenderer().init(vertx, new JsonObject());
+  }
+
+  @After
+  public void finish() {
+    vertx.close();
+  }
+
+  @Test
+  public void incremental_render_matches_the_full_render() {
+    for (String markdown : FIXTURES) {
+      assertEquals(markdown, Markdown.toHtml(markdown), renderer.renderIncremental(markdown).blockingGet());
+    }
+  }
+
+  @Test
+  public void cold_render_counts_one_miss() {
+    MarkdownCache cache = my(MarkdownCache.class);
+    String markdown = "Rendered once at " + System.nanoTime();
+    JsonObject before = cache.metrics();
+
+    renderer.render(markdown).blockingGet();
+    JsonObject cold = cache.metrics();
+    renderer.render(markdown).blockingGet();
+    JsonObject warm = cache.metrics();
+
+    assertEquals(1L, cold.getLong("misses") - before.getLong("misses"));
+    assertEquals(0L, cold.getLong("hits") - before.getLong("hits"));
+    assertEquals(0L, warm.getLong("misses") - cold.getLong("misses"));
+    assertEquals(1L, warm.getLong("hits") - cold.getLong("hits"));
+  }
+
+  @Test
+  public void blocks_follow_the_structure_of_the_document() {
+    assertEquals(Arrays.asList("# Title\n", "para\n", "> a\n\n> b\n", "after\n"),
+      MarkdownBlocks.split("# Title\n\npara\n\n> a\n\n> b\n\nafter"));
+    assertEquals(Arrays.asList("<div>\n\ninside\n\n</div>\n", "after\n"),
+      MarkdownBlocks.split("<div>\n\ninside\n\n</div>\n\nafter"));
+    assertEquals(Arrays.asList("* a\n\n* b\n", "> quote\n"),
+      MarkdownBlocks.split("* a\n\n* b\n\n> quote"));
+    assertNull("References apply to every block", MarkdownBlocks.split("[a]\n\n[a]: http://example.com"));
+  }
+}
@@ -0,0 +1,90 @@
+package org.jspare.vertx.reactivex.web.builder;
+
+import io.vertx.core.http.HttpMethod;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class RouteTrieTest {
+
+  private RouteTrie<String> trie;
+
+  @Before
+  public void prepare() {
+    trie = new RouteTrie<>();
+    assertTrue(trie.add(HttpMethod.GET, "/", "root"));
+    assertTrue(trie.add(HttpMethod.GET, "/pages/:id", "page"));
+    assertTrue(trie.add(HttpMethod.GET, "/pages/suggest", "suggest"));
+    assertTrue(trie.add(HttpMethod.GET, "/pages/:id/history", "history"));
+    assertTrue(trie.add(HttpMethod.GET, "/pages/suggest/all", "all suggestions"));
+    assertTrue(trie.add(HttpMethod.DELETE, "/pages/:id", "delete"));
+  }
+
+  @Test
+  public void static_segments_win_over_params() {
+    assertEquals("suggest", trie.match(HttpMethod.GET, "/pages/suggest").value());
+    assertEquals(0, trie.match(HttpMethod.GET, "/pages/suggest").paramCount());
+    assertEquals("page", trie.match(HttpMethod.GET, "/pages/12").value());
+    assertEquals("all suggestions", trie.match(HttpMethod.GET, "/pages/suggest/all").value());
+  }
+
+  @Test
+  public void dead_end_of_a_static_segment_falls_back_to_the_param() {
+    RouteTrie.Match<String> match = trie.match(HttpMethod.GET, "/pages/suggest/history");
+
+    assertEquals("history", match.value());
+    assertEquals(1, match.paramCount());
+    assertEquals("id", match.paramName(0));
+    assertEquals("suggest", match.paramValue(0, "/pages/suggest/history"));
+  }
+
+  @Test
+  public void params_are_captured_raw() {
+    String path = "/pages/Hello%20World/history";
+    RouteTrie.Match<String> match = trie.match(HttpMethod.GET, path);
+
+    assertEquals("history", match.value());
+    assertEquals("Hello%20World", match.paramValue(0, path));
+  }
+
+  @Test
+  public void methods_and_paths_must_both_match() {
+    assertEquals("delete", trie.match(HttpMethod.DELETE, "/pages/12").value());
+    assertNull(trie.match(HttpMethod.POST, "/pages/12"));
+    assertNull(trie.match(HttpMethod.DELETE, "/pages/suggest/all"));
+    assertNull(trie.match(HttpMethod.GET, "/pages"));
+    assertNull(trie.match(HttpMethod.GET, "/pages//history"));
+    assertNull(trie.match(HttpMethod.GET, "/other"));
+  }
+
+  @Test
+  public void trailing_slash_is_ignored() {
+    assertEquals("root", trie.match(HttpMethod.GET, "/").value());
+    assertEquals("page", trie.match(HttpMethod.GET, "/pages/12/").value());
+  }
+
+  @Test
+  public void conflicting_routes_are_refused() {
+    assertFalse("Same method and path", trie.add(HttpMethod.GET, "/pages/:id", "again"));
+    assertFalse("Another param name on the same level", trie.add(HttpMethod.GET, "/pages/:name/links", "links"));
+    assertTrue(trie.add(HttpMethod.PUT, "/pages/:id", "save"));
+    assertEquals(7, trie.size());
+  }
+
+  @Test
+  public void only_plain_paths_are_supported() {
+    assertTrue(RouteTrie.supports("/pages/:id"));
+    assertFalse(RouteTrie.supports("/app/*"));
+    assertFalse(RouteTrie.supports("/pages:bulk"));
+    assertFalse(RouteTrie.supports("/pages/page-:id"));
+    assertFalse(RouteTrie.supports("/pages/:"));
+    assertFalse(RouteTrie.supports("/pages/:id?"));
+    assertFalse(RouteTrie.supports("pages"));
+    assertFalse(RouteTrie.supports(null));
+    assertFalse(trie.add(HttpMethod.GET, "/app/*", "static"));
+  }
+}
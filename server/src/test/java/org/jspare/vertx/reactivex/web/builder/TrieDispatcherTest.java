@@ -0,0 +1,165 @@
+package org.jspare.vertx.reactivex.web.builder;
+
+import io.vertx.core.http.HttpMethod;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import io.vertx.ext.web.client.WebClient;
+import io.vertx.ext.web.client.WebClientOptions;
+import io.vertx.ext.web.codec.BodyCodec;
+import io.vertx.reactivex.core.Vertx;
+import io.vertx.reactivex.ext.web.Router;
+import io.vertx.reactivex.ext.web.RoutingContext;
+import org.jspare.vertx.reactivex.web.handler.DefaultHandler;
+import org.jspare.vertx.reactivex.web.handler.HandlerInstanceProvider;
+import org.jspare.vertx.web.builder.HandlerType;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith(VertxUnitRunner.class)
+public class TrieDispatcherTest {
+
+  private Vertx vertx;
+  private WebClient webClient;
+
+  @Before
+  public void prepare(TestContext context) {
+    vertx = Vertx.vertx();
+
+    // As RouterBuilder builds the /api router in trie mode, mounted below the main one
+    Router api = Router.router(vertx);
+    TrieDispatcher dispatcher = new TrieDispatcher();
+    dispatcher.register(api.route());
+    add(api, dispatcher, handler("GET", "/pages/:id", "page", false), true);
+    add(api, dispatcher, handler("GET", "/pages/suggest", "suggest", false), true);
+    add(api, dispatcher, handler("GET", "/pages/:id/history", "history", false), true);
+    add(api, dispatcher, handler("GET", "/pages:bulk", "export", true), false);
+    add(api, dispatcher, handler("GET", "/files/*", "files", false), false);
+    // A route of the router for the same path, another method
+    api.post("/pages/:id").handler(ctx -> ctx.response().end("router:" + ctx.pathParam("id")));
+
+    Router router = Router.router(vertx);
+    router.mountSubRouter("/api", api);
+
+    Async listening = context.async();
+    vertx.createHttpServer().requestHandler(router::accept).listen(0, context.asyncAssertSuccess(server -> {
+      webClient = WebClient.create(vertx.getDelegate(), new WebClientOptions()
+        .setDefaultHost("localhost")
+        .setDefaultPort(server.actualPort()));
+      listening.complete();
+    }));
+  }
+
+  @After
+  public void finish(TestContext context) {
+    vertx.close(context.asyncAssertSuccess());
+  }
+
+  @Test
+  public void static_segment_wins_over_the_param(TestContext context) {
+    Async async = context.async();
+
+    get(context, HttpMethod.GET, "/api/pages/suggest", 200, "suggest", () ->
+      get(context, HttpMethod.GET, "/api/pages/12", 200, "page:12", () ->
+        get(context, HttpMethod.GET, "/api/pages/suggest/history", 200, "history:suggest", async::complete)));
+  }
+
+  @Test
+  public void params_are_percent_decoded(TestContext context) {
+    Async async = context.async();
+
+    get(context, HttpMethod.GET, "/api/pages/Hello%20World%2Fx", 200, "page:Hello World/x", () ->
+      get(context, HttpMethod.GET, "/api/pages/a+b", 200, "page:a+b", async::complete));
+  }
+
+  @Test
+  public void other_methods_fall_through_to_the_router(TestContext context) {
+    Async async = context.async();
+
+    get(context, HttpMethod.POST, "/api/pages/12", 200, "router:12", () ->
+      get(context, HttpMethod.DELETE, "/api/pages/12", 404, null, async::complete));
+  }
+
+  @Test
+  public void regex_and_wildcard_paths_are_routed_by_the_router(TestContext context) {
+    Async async = context.async();
+
+    get(context, HttpMethod.GET, "/api/pages:bulk", 200, "export", () ->
+      get(context, HttpMethod.GET, "/api/files/a/b", 200, "files", async::complete));
+  }
+
+  @Test
+  public void paths_are_matched_below_the_mount_point(TestContext context) {
+    Async async = context.async();
+
+    get(context, HttpMethod.GET, "/pages/12", 404, null, () ->
+      get(context, HttpMethod.GET, "/api/pages/12/", 200, "page:12", async::complete));
+  }
+
+  private void get(TestContext context, HttpMethod method, String uri, int status, String body, Runnable then) {
+    webClient.request(method, uri)
+      .as(BodyCodec.string())
+      .send(context.asyncAssertSuccess(response -> {
+        context.assertEquals(status, response.statusCode(), uri);
+        if (body != null) {
+          context.assertEquals(body, response.body());
+        }
+        then.run();
+      }));
+  }
+
+  private static void add(Router router, TrieDispatcher dispatcher, HandlerData data, boolean fromTrie) {
+    boolean added = dispatcher.add(data);
+    if (added != fromTrie) {
+      throw new AssertionError(data.path() + (fromTrie ? " not added to the trie" : " added to the trie"));
+    }
+    if (!added) {
+      HandlerWrapper.prepareHandler(router, data);
+    }
+  }
+
+  private static HandlerData handler(String method, String path, String name, boolean regex) {
+    try {
+      return new HandlerData()
+        .clazz(EchoRoute.class)
+        .method(EchoRoute.class.getMethod(name, RoutingContext.class))
+        .handlerType(HandlerType.HANDLER)
+        .routeHandlerClass(DefaultHandler.class)
+        .httpMethod(method)
+        .path(path)
+        .pathRegex(regex)
+        .order(Integer.MIN_VALUE)
+        .instanceProvider(HandlerInstanceProvider.create(EchoRoute.class, EchoRoute::new));
+    } catch (NoSuchMethodException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /**
+   * Answers with the name of the handler and its path param.
+   */
+  public static class EchoRoute {
+
+    public void page(RoutingContext ctx) {
+      ctx.response().end("page:" + ctx.pathParam("id"));
+    }
+
+    public void suggest(RoutingContext ctx) {
+      ctx.response().end("suggest");
+    }
+
+    public void history(RoutingContext ctx) {
+      ctx.response().end("history:" + ctx.pathParam("id"));
+    }
+
+    public void export(RoutingContext ctx) {
+      ctx.response().end("export");
+    }
+
+    public void files(RoutingContext ctx) {
+      ctx.response().end("files");
+    }
+  }
+}
@@ -0,0 +1,174 @@
+package org.jspare.vertx.reactivex.web.handler;
+
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import io.vertx.ext.web.client.HttpResponse;
+import io.vertx.ext.web.client.WebClient;
+import io.vertx.ext.web.codec.BodyCodec;
+import io.vertx.reactivex.core.Vertx;
+import io.vertx.reactivex.ext.web.Router;
+import io.vertx.reactivex.ext.web.RoutingContext;
+import org.jspare.vertx.reactivex.web.annotation.InstanceLifecycle;
+import org.jspare.vertx.reactivex.web.annotation.Lifecycle;
+import org.jspare.vertx.reactivex.web.builder.HandlerData;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.HashSet;
+import java.util.Set;
+
+@RunWith(VertxUnitRunner.class)
+public class DefaultHandlerTest {
+
+  /**
+   * Long enough for the requests sent in one go to be dispatched before the first response ends.
+   */
+  private static final long CALLBACK_DELAY_MS = 50;
+
+  private Vertx vertx;
+  private WebClient webClient;
+
+  @Before
+  public void prepare(TestContext context) throws NoSuchMethodException {
+    vertx = Vertx.vertx();
+
+    Router router = Router.router(vertx);
+    router.get("/per-request/:name").handler(handler(PerRequestRoute.class));
+    router.get("/pooled/:name").handler(handler(PooledRoute.class));
+    router.get("/singleton/:name").handler(handler(SingletonRoute.class));
+
+    Async listening = context.async();
+    vertx.createHttpServer().requestHandler(router::accept).listen(0, context.asyncAssertSuccess(server -> {
+      webClient = WebClient.create(vertx.getDelegate(), new io.vertx.ext.web.client.WebClientOptions()
+        .setDefaultHost("localhost")
+        .setDefaultPort(server.actualPort()));
+      listening.complete();
+    }));
+  }
+
+  @After
+  public void finish(TestContext context) {
+    vertx.close(context.asyncAssertSuccess());
+  }
+
+  @Test
+  public void per_request_instances_answer_from_callbacks(TestContext context) {
+    Async async = context.async();
+
+    get(context, "/per-request/one", first -> get(context, "/per-request/two", second -> {
+      context.assertEquals("one", first.getString("name"));
+      context.assertEquals("two", second.getString("name"));
+      context.assertNotEquals(first.getInteger("instance"), second.getInteger("instance"));
+      async.complete();
+    }));
+  }
+
+  @Test
+  public void pooled_instances_are_kept_until_the_response_ends(TestContext context) {
+    Async async = context.async();
+
+    Set<Integer> instances = new HashSet<>();
+    Async concurrent = context.async(2);
+    for (String name : new String[]{"one", "two"}) {
+      get(context, "/pooled/" + name, page -> {
+        // Each callback answers its own request, the second request did not borrow the busy instance
+        context.assertEquals(name, page.getString("name"));
+        context.assertTrue(instances.add(page.getInteger("instance")));
+        concurrent.countDown();
+      });
+    }
+
+    concurrent.handler(done -> get(context, "/pooled/three", page -> {
+      context.assertEquals("three", page.getString("name"));
+      context.assertTrue(instances.contains(page.getInteger("instance")), "Released instances are reused");
+      async.complete();
+    }));
+  }
+
+  @Test
+  public void singleton_instance_reads_the_request_while_dispatched(TestContext context) {
+    Async async = context.async();
+
+    get(context, "/singleton/one", first -> get(context, "/singleton/two", second -> {
+      context.assertEquals("one", first.getString("name"));
+      context.assertEquals("two", second.getString("name"));
+      context.assertEquals(first.getInteger("instance"), second.getInteger("instance"));
+      context.assertEquals(IllegalStateException.class.getName(), second.getString("callback"));
+      async.complete();
+    }));
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void request_scope_fails_outside_of_a_dispatch() {
+    RequestScope.context();
+  }
+
+  private void get(TestContext context, String uri, io.vertx.core.Handler<JsonObject> handler) {
+    webClient.get(uri)
+      .as(BodyCodec.jsonObject())
+      .send(context.asyncAssertSuccess((HttpResponse<JsonObject> response) -> {
+        context.assertEquals(200, response.statusCode());
+        handler.handle(response.body());
+      }));
+  }
+
+  private static DefaultHandler handler(Class<? extends NamedRoute> clazz) throws NoSuchMethodException {
+    HandlerData handlerData = new HandlerData()
+      .clazz(clazz)
+      .method(clazz.getMethod("handle", RoutingContext.class))
+      .instanceProvider(HandlerInstanceProvider.create(clazz, () -> {
+        try {
+          return clazz.getConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+          throw new IllegalStateException(e);
+        }
+      }));
+    return new DefaultHandler(handlerData);
+  }
+
+  /**
+   * Answers with the name of the request path from a timer callback, through the {@link APIHandler} helpers.
+   */
+  public abstract static class NamedRoute extends APIHandler {
+
+    public void handle(RoutingContext context) {
+      vertx.setTimer(CALLBACK_DELAY_MS, id -> end(new JsonObject()
+        .put("name", req().getParam("name"))
+        .put("instance", System.identityHashCode(this))));
+    }
+  }
+
+  public static class PerRequestRoute extends NamedRoute {
+  }
+
+  @InstanceLifecycle(value = Lifecycle.POOLED, poolSize = 1)
+  public static class PooledRoute extends NamedRoute {
+  }
+
+  @InstanceLifecycle(Lifecycle.SINGLETON)
+  public static class SingletonRoute extends NamedRoute {
+
+    @Override
+    public void handle(RoutingContext context) {
+      String name = req().getParam("name");
+      vertx.setTimer(CALLBACK_DELAY_MS, id -> {
+        String callback;
+        try {
+          res();
+          callback = "none";
+        } catch (IllegalStateException e) {
+          callback = e.getClass().getName();
+        }
+        context.response().end(new JsonObject()
+          .put("name", name)
+          .put("instance", System.identityHashCode(this))
+          .put("callback", callback)
+          .encode());
+      });
+    }
+  }
+}